@@ -2,24 +2,56 @@ package de.ortisoft.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import de.ortisoft.demo.model.AnnualYield;
+import de.ortisoft.demo.model.FleetSite;
+import de.ortisoft.demo.model.FleetSiteResult;
+import de.ortisoft.demo.model.OrientationSurface;
+import de.ortisoft.demo.model.PvSystem;
+import de.ortisoft.demo.model.SolarRequest;
+import de.ortisoft.demo.service.AnnualYieldService;
+import de.ortisoft.demo.service.FleetForecastService;
+import de.ortisoft.demo.service.HotCellTracker;
+import de.ortisoft.demo.service.OrientationOptimizer;
+import de.ortisoft.demo.service.WeatherFetchContext;
 import de.ortisoft.demo.service.WeatherService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @RestController
 @EnableCaching
+@EnableScheduling
 public class DemoApplication {
 
 	private final WeatherService weatherService;
+	private final HotCellTracker hotCellTracker;
+	private final FleetForecastService fleetForecastService;
+	private final AnnualYieldService annualYieldService;
+	private final OrientationOptimizer orientationOptimizer;
 
-	public DemoApplication(WeatherService weatherService) {
+	public DemoApplication(WeatherService weatherService, HotCellTracker hotCellTracker,
+						   FleetForecastService fleetForecastService, AnnualYieldService annualYieldService,
+						   OrientationOptimizer orientationOptimizer) {
 		this.weatherService = weatherService;
+		this.hotCellTracker = hotCellTracker;
+		this.fleetForecastService = fleetForecastService;
+		this.annualYieldService = annualYieldService;
+		this.orientationOptimizer = orientationOptimizer;
 	}
 
 	public static void main(String[] args) {
@@ -33,7 +65,7 @@ public class DemoApplication {
 	}
 
 	@GetMapping("/weather")
-	public String getWeather(
+	public Mono<String> getWeather(
 		@RequestParam double lat, 
 		@RequestParam double lon,
 		@RequestParam(required = false) String clientTime,
@@ -54,21 +86,23 @@ public class DemoApplication {
 			clientTime = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
 		}
 
-		StringBuilder response = new StringBuilder();
-		
-		// Füge Wetterdaten hinzu
-		response.append(weatherService.getWeatherByCoordinates(lat, lon, clientTime, clientOffset));
-		
-		// Füge Solardaten hinzu
-		response.append(weatherService.getSolarData(lat, lon, 
-			kwp1, azimuth1, tilt1, efficiency1, losses1,
-			kwp2, azimuth2, tilt2, efficiency2, losses2));
+		// Beliebte Orte werden vom Prefetch warm gehalten
+		hotCellTracker.record(lat, lon);
+
+		// Ein Kontext pro Anfrage: Wetter, Vorhersage und Ort werden nur einmal abgerufen
+		WeatherFetchContext context = weatherService.createFetchContext(lat, lon);
 		
-		return response.toString();
+		// Wetter- und Solardaten werden parallel erzeugt und danach zusammengesetzt
+		return Mono.zip(
+			weatherService.getWeatherByCoordinates(context, clientTime, clientOffset),
+			weatherService.getSolarData(context, 
+				kwp1, azimuth1, tilt1, efficiency1, losses1,
+				kwp2, azimuth2, tilt2, efficiency2, losses2))
+			.map(tuple -> tuple.getT1() + tuple.getT2());
 	}
 
 	@GetMapping("/solar")
-	public String getSolarData(@RequestParam double lat, @RequestParam double lon,
+	public Mono<String> getSolarData(@RequestParam double lat, @RequestParam double lon,
 							 @RequestParam double kwp1, @RequestParam int azimuth1, @RequestParam int tilt1,
 							 @RequestParam double efficiency1, @RequestParam double losses1,
 							 @RequestParam double kwp2, @RequestParam int azimuth2, @RequestParam int tilt2,
@@ -78,4 +112,74 @@ public class DemoApplication {
 			kwp2, azimuth2, tilt2, efficiency2, losses2);
 	}
 
+	@GetMapping("/solar/recompute")
+	public Mono<String> recomputeSolarData(@RequestParam String snapshot,
+							 @RequestParam double kwp1, @RequestParam int azimuth1, @RequestParam int tilt1,
+							 @RequestParam double efficiency1, @RequestParam double losses1,
+							 @RequestParam double kwp2, @RequestParam int azimuth2, @RequestParam int tilt2,
+							 @RequestParam double efficiency2, @RequestParam double losses2) {
+		// Nur der Rechenkern läuft, Wetter, Vorhersage und Ort werden nicht erneut abgerufen
+		return weatherService.recomputeSolarData(snapshot,
+			kwp1, azimuth1, tilt1, efficiency1, losses1,
+			kwp2, azimuth2, tilt2, efficiency2, losses2)
+			.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND,
+				"Vorhersagestand unbekannt oder abgelaufen")));
+	}
+
+	@PostMapping("/solar")
+	public Mono<String> postSolarData(@RequestBody SolarRequest request) {
+		PvSystem system = pvSystemOf(request);
+		hotCellTracker.record(request.getLat(), request.getLon());
+		return weatherService.getSolarData(request.getLat(), request.getLon(), system);
+	}
+
+	@PostMapping("/solar/annual")
+	public Mono<AnnualYield> postAnnualYield(@RequestBody SolarRequest request) {
+		// Klimamittel statt Vorhersage: kein Upstream-Abruf, daher auch kein Eintrag im Prefetch
+		return annualYieldService.simulate(request.getLat(), request.getLon(), pvSystemOf(request));
+	}
+
+	@GetMapping("/solar/optimize")
+	public Mono<OrientationSurface> getOptimalOrientation(@RequestParam double lat, @RequestParam double lon,
+							 @RequestParam(defaultValue = "20.0") double efficiency,
+							 @RequestParam(defaultValue = "14.0") double losses) {
+		// Vor dem Cache prüfen: jede ungültige Koordinate wäre sonst eine eigene Zelle samt voller Suche
+		if (!(Math.abs(lat) <= 90 && Math.abs(lon) <= 180)) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ungültige Koordinaten"));
+		}
+		try {
+			return orientationOptimizer.optimize(lat, lon, efficiency, losses);
+		} catch (IllegalArgumentException e) {
+			return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+		}
+	}
+
+	@PostMapping(value = "/solar/fleet", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<FleetSiteResult> postFleetForecast(@RequestBody(required = false) List<FleetSite> sites) {
+		if (sites == null || sites.stream().anyMatch(Objects::isNull)) {
+			return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Liste von Anlagen erwartet"));
+		}
+		if (sites.size() > fleetForecastService.getMaxSites()) {
+			return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+				"Höchstens " + fleetForecastService.getMaxSites() + " Anlagen je Anfrage"));
+		}
+		// Ergebnisse werden zeilenweise gestreamt, sobald ihr Paket fertig ist
+		return fleetForecastService.forecast(sites);
+	}
+
+	// Prüft auch den Standort, bevor er verwendet oder im Prefetch gezählt wird
+	private static PvSystem pvSystemOf(SolarRequest request) {
+		if (request.getLat() == null || request.getLon() == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "lat und lon sind Pflichtfelder");
+		}
+		if (!(Math.abs(request.getLat()) <= 90 && Math.abs(request.getLon()) <= 180)) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ungültige Koordinaten");
+		}
+		try {
+			return PvSystem.of(request.getArrays());
+		} catch (IllegalArgumentException e) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+		}
+	}
+
 }
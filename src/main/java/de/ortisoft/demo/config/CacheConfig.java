@@ -0,0 +1,149 @@
+package de.ortisoft.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "weather.cache")
+public class CacheConfig {
+    private double gridSize = 0.05;  // Kantenlänge der Gitterzellen in Grad
+    private Duration forecastCycle = Duration.ofHours(3);  // OWM rechnet die Vorhersage alle 3 Stunden neu
+    private Duration forecastPublishDelay = Duration.ofMinutes(20);
+    private String diskPath = "";  // leer = keine Persistenz, Neustart mit kaltem Cache
+    private Duration diskRetention = Duration.ofHours(6);
+    private Duration diskCompactionInterval = Duration.ofMinutes(15);
+    private Spec current = new Spec(5000, Duration.ofMinutes(10), Duration.ofMinutes(30));
+    private Spec forecast = new Spec(5000, Duration.ofHours(3), Duration.ofHours(3));
+    // Vorhersagestände für die Neuberechnung der Solarprognose; ttl gilt ab dem letzten Zugriff
+    private Spec snapshot = new Spec(10_000, Duration.ofMinutes(30), Duration.ZERO);
+
+    // Eine Uhr für Ablauf, Staleness und die angezeigte Datenfrische
+    @Bean
+    public Clock cacheClock() {
+        return Clock.systemUTC();
+    }
+
+    public double getGridSize() {
+        return gridSize;
+    }
+
+    public void setGridSize(double gridSize) {
+        this.gridSize = gridSize;
+    }
+
+    public Duration getForecastCycle() {
+        return forecastCycle;
+    }
+
+    public void setForecastCycle(Duration forecastCycle) {
+        this.forecastCycle = forecastCycle;
+    }
+
+    public Duration getForecastPublishDelay() {
+        return forecastPublishDelay;
+    }
+
+    public void setForecastPublishDelay(Duration forecastPublishDelay) {
+        this.forecastPublishDelay = forecastPublishDelay;
+    }
+
+    public String getDiskPath() {
+        return diskPath;
+    }
+
+    public void setDiskPath(String diskPath) {
+        this.diskPath = diskPath;
+    }
+
+    public Duration getDiskRetention() {
+        return diskRetention;
+    }
+
+    public void setDiskRetention(Duration diskRetention) {
+        this.diskRetention = diskRetention;
+    }
+
+    public Duration getDiskCompactionInterval() {
+        return diskCompactionInterval;
+    }
+
+    public void setDiskCompactionInterval(Duration diskCompactionInterval) {
+        this.diskCompactionInterval = diskCompactionInterval;
+    }
+
+    public Spec getCurrent() {
+        return current;
+    }
+
+    public void setCurrent(Spec current) {
+        this.current = current;
+    }
+
+    public Spec getForecast() {
+        return forecast;
+    }
+
+    public void setForecast(Spec forecast) {
+        this.forecast = forecast;
+    }
+
+    public Spec getSnapshot() {
+        return snapshot;
+    }
+
+    public void setSnapshot(Spec snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    public static class Spec {
+        private long maximumSize;
+        private Duration ttl;  // danach gilt ein Eintrag als veraltet und wird im Hintergrund erneuert
+        private Duration staleGrace = Duration.ZERO;  // so lange wird ein veralteter Eintrag noch ausgeliefert
+        private boolean recordStats = true;
+
+        public Spec() {
+        }
+
+        public Spec(long maximumSize, Duration ttl, Duration staleGrace) {
+            this.maximumSize = maximumSize;
+            this.ttl = ttl;
+            this.staleGrace = staleGrace;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getStaleGrace() {
+            return staleGrace;
+        }
+
+        public void setStaleGrace(Duration staleGrace) {
+            this.staleGrace = staleGrace;
+        }
+
+        public boolean isRecordStats() {
+            return recordStats;
+        }
+
+        public void setRecordStats(boolean recordStats) {
+            this.recordStats = recordStats;
+        }
+    }
+}
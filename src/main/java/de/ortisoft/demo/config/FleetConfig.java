@@ -0,0 +1,54 @@
+package de.ortisoft.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "weather.fleet")
+public class FleetConfig {
+    private int maxSites = 20_000;  // größere Anfragen werden mit 400 abgelehnt
+    private int parallelism = Runtime.getRuntime().availableProcessors();  // Threads im ForkJoin-Pool
+    private int batchSize = 256;  // Anlagen je Rechenaufgabe
+    private int fetchConcurrency = 8;  // gleichzeitige Vorhersageabrufe je Anfrage
+    private int days = 5;
+
+    public int getMaxSites() {
+        return maxSites;
+    }
+
+    public void setMaxSites(int maxSites) {
+        this.maxSites = maxSites;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getFetchConcurrency() {
+        return fetchConcurrency;
+    }
+
+    public void setFetchConcurrency(int fetchConcurrency) {
+        this.fetchConcurrency = fetchConcurrency;
+    }
+
+    public int getDays() {
+        return days;
+    }
+
+    public void setDays(int days) {
+        this.days = days;
+    }
+}
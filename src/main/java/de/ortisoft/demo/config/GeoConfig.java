@@ -0,0 +1,45 @@
+package de.ortisoft.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "weather.geo")
+public class GeoConfig {
+    private double indexRadiusMeters = 500;  // Umkreis, in dem ein bekannter Ortsname wiederverwendet wird
+    private int indexMaxEntries = 50000;
+    private String gazetteerPath = "";  // leer = kein Offline-Verzeichnis, nur Geo-API
+    private double gazetteerMaxDistanceMeters = 5000;
+
+    public double getIndexRadiusMeters() {
+        return indexRadiusMeters;
+    }
+
+    public void setIndexRadiusMeters(double indexRadiusMeters) {
+        this.indexRadiusMeters = indexRadiusMeters;
+    }
+
+    public int getIndexMaxEntries() {
+        return indexMaxEntries;
+    }
+
+    public void setIndexMaxEntries(int indexMaxEntries) {
+        this.indexMaxEntries = indexMaxEntries;
+    }
+
+    public String getGazetteerPath() {
+        return gazetteerPath;
+    }
+
+    public void setGazetteerPath(String gazetteerPath) {
+        this.gazetteerPath = gazetteerPath;
+    }
+
+    public double getGazetteerMaxDistanceMeters() {
+        return gazetteerMaxDistanceMeters;
+    }
+
+    public void setGazetteerMaxDistanceMeters(double gazetteerMaxDistanceMeters) {
+        this.gazetteerMaxDistanceMeters = gazetteerMaxDistanceMeters;
+    }
+}
@@ -0,0 +1,92 @@
+package de.ortisoft.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "weather.prefetch")
+public class PrefetchConfig {
+    private boolean enabled = true;
+    private int topK = 200;  // so viele beliebte Zellen werden warm gehalten
+    private Duration interval = Duration.ofMinutes(5);
+    private Duration lookahead = Duration.ofMinutes(10);  // Vorhersagen, die in dieser Zeit veralten, werden erneuert
+    private double quotaShare = 0.2;  // Anteil des Abrufkontingents, den der Prefetch höchstens nutzt
+    private int concurrency = 4;
+    private int sketchWidth = 2048;
+    private int sketchDepth = 4;
+    private Duration decayInterval = Duration.ofHours(1);  // Zähler halbieren, damit alte Beliebtheit verblasst
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    public void setTopK(int topK) {
+        this.topK = topK;
+    }
+
+    public Duration getInterval() {
+        return interval;
+    }
+
+    public void setInterval(Duration interval) {
+        this.interval = interval;
+    }
+
+    public Duration getLookahead() {
+        return lookahead;
+    }
+
+    public void setLookahead(Duration lookahead) {
+        this.lookahead = lookahead;
+    }
+
+    public double getQuotaShare() {
+        return quotaShare;
+    }
+
+    public void setQuotaShare(double quotaShare) {
+        this.quotaShare = quotaShare;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getSketchWidth() {
+        return sketchWidth;
+    }
+
+    public void setSketchWidth(int sketchWidth) {
+        this.sketchWidth = sketchWidth;
+    }
+
+    public int getSketchDepth() {
+        return sketchDepth;
+    }
+
+    public void setSketchDepth(int sketchDepth) {
+        this.sketchDepth = sketchDepth;
+    }
+
+    public Duration getDecayInterval() {
+        return decayInterval;
+    }
+
+    public void setDecayInterval(Duration decayInterval) {
+        this.decayInterval = decayInterval;
+    }
+}
@@ -0,0 +1,47 @@
+package de.ortisoft.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "weather.quota")
+public class QuotaConfig {
+    private int callsPerMinute = 60;  // Limit des OWM-Tarifs (Free: 60 Aufrufe pro Minute)
+    private int burst = 10;  // so viele Aufrufe dürfen nach einer Ruhephase sofort hintereinander laufen
+    private Duration interactiveMaxWait = Duration.ofSeconds(2);
+    private Duration backgroundMaxWait = Duration.ofSeconds(30);
+
+    public int getCallsPerMinute() {
+        return callsPerMinute;
+    }
+
+    public void setCallsPerMinute(int callsPerMinute) {
+        this.callsPerMinute = callsPerMinute;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public Duration getInteractiveMaxWait() {
+        return interactiveMaxWait;
+    }
+
+    public void setInteractiveMaxWait(Duration interactiveMaxWait) {
+        this.interactiveMaxWait = interactiveMaxWait;
+    }
+
+    public Duration getBackgroundMaxWait() {
+        return backgroundMaxWait;
+    }
+
+    public void setBackgroundMaxWait(Duration backgroundMaxWait) {
+        this.backgroundMaxWait = backgroundMaxWait;
+    }
+}
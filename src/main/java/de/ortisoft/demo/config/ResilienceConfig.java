@@ -0,0 +1,113 @@
+package de.ortisoft.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "weather.resilience")
+public class ResilienceConfig {
+    // Gesamtfrist je Aufruf einschließlich eines eventuellen Hedge-Aufrufs
+    private Duration currentDeadline = Duration.ofSeconds(3);
+    private Duration forecastDeadline = Duration.ofSeconds(4);
+    private Duration geoDeadline = Duration.ofSeconds(2);
+
+    private boolean hedging = true;
+    private double hedgePercentile = 0.95;  // zweiter Aufruf, sobald der erste langsamer als dieses Perzentil ist
+    private Duration minHedgeDelay = Duration.ofMillis(150);
+    private int latencyWindow = 128;
+
+    private int breakerWindow = 20;  // Anzahl der letzten Aufrufe für die Fehlerquote
+    private int breakerMinimumCalls = 10;
+    private double breakerFailureRate = 0.5;
+    private Duration breakerOpenDuration = Duration.ofSeconds(30);
+
+    public Duration getCurrentDeadline() {
+        return currentDeadline;
+    }
+
+    public void setCurrentDeadline(Duration currentDeadline) {
+        this.currentDeadline = currentDeadline;
+    }
+
+    public Duration getForecastDeadline() {
+        return forecastDeadline;
+    }
+
+    public void setForecastDeadline(Duration forecastDeadline) {
+        this.forecastDeadline = forecastDeadline;
+    }
+
+    public Duration getGeoDeadline() {
+        return geoDeadline;
+    }
+
+    public void setGeoDeadline(Duration geoDeadline) {
+        this.geoDeadline = geoDeadline;
+    }
+
+    public boolean isHedging() {
+        return hedging;
+    }
+
+    public void setHedging(boolean hedging) {
+        this.hedging = hedging;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    public Duration getMinHedgeDelay() {
+        return minHedgeDelay;
+    }
+
+    public void setMinHedgeDelay(Duration minHedgeDelay) {
+        this.minHedgeDelay = minHedgeDelay;
+    }
+
+    public int getLatencyWindow() {
+        return latencyWindow;
+    }
+
+    public void setLatencyWindow(int latencyWindow) {
+        this.latencyWindow = latencyWindow;
+    }
+
+    public int getBreakerWindow() {
+        return breakerWindow;
+    }
+
+    public void setBreakerWindow(int breakerWindow) {
+        this.breakerWindow = breakerWindow;
+    }
+
+    public int getBreakerMinimumCalls() {
+        return breakerMinimumCalls;
+    }
+
+    public void setBreakerMinimumCalls(int breakerMinimumCalls) {
+        this.breakerMinimumCalls = breakerMinimumCalls;
+    }
+
+    public double getBreakerFailureRate() {
+        return breakerFailureRate;
+    }
+
+    public void setBreakerFailureRate(double breakerFailureRate) {
+        this.breakerFailureRate = breakerFailureRate;
+    }
+
+    public Duration getBreakerOpenDuration() {
+        return breakerOpenDuration;
+    }
+
+    public void setBreakerOpenDuration(Duration breakerOpenDuration) {
+        this.breakerOpenDuration = breakerOpenDuration;
+    }
+}
@@ -0,0 +1,116 @@
+package de.ortisoft.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "weather.solar")
+public class SolarConfig {
+    private double geometryLatitudeStep = 0.25;  // Rasterweite der Sonnenstandstabelle in Grad
+    private int geometryCachedRows = 128;  // Breitengradzeilen im Speicher, je Zeile ca. 280 KB
+    private int resolutionMinutes = 60;  // Schrittweite der Ertragsrechnung: 60, 15, 5 oder 1 Minute(n)
+    private boolean vectorized = true;  // Vector API nutzen, falls jdk.incubator.vector geladen ist
+    // Mittlere Bewölkung in % je Monat (Januar bis Dezember), Klimamittel für Mitteleuropa
+    private double[] monthlyCloudCover = {78, 72, 66, 60, 58, 56, 54, 53, 58, 67, 77, 80};
+    private int annualCachedResults = 10_000;  // Jahressimulationen je (Zelle, Anlage) im Speicher
+    private int annualParallelism = Runtime.getRuntime().availableProcessors();  // Threads für Jahressimulation und Ausrichtung
+    private int resultCachedEntries = 10_000;  // gerechnete Prognosetage je (Anlage, Zelle, Vorhersagestand)
+    private PositionModel positionModel = PositionModel.TABLE;  // Sonnenstand: TABLE (Näherung) oder NOAA (genau)
+    private String timeZone = "Europe/Berlin";  // Uhrzeit der Stunden beim NOAA-Sonnenstand
+    // NOAA-Sonnenbahnen je (Zelle, Tag): 24 × 4 Stundenwerte (ca. 0,8 KB), bei feinerer Schrittweite zusätzlich
+    // 4 Werte je Schritt, bei 1 Minute also 1440 × 4 × 8 Byte ≈ 46 KB, zusammen ca. 47 KB je Eintrag
+    private int positionCachedDays = 5_000;
+
+    public enum PositionModel {
+        TABLE,
+        NOAA
+    }
+
+    public double getGeometryLatitudeStep() {
+        return geometryLatitudeStep;
+    }
+
+    public void setGeometryLatitudeStep(double geometryLatitudeStep) {
+        this.geometryLatitudeStep = geometryLatitudeStep;
+    }
+
+    public int getGeometryCachedRows() {
+        return geometryCachedRows;
+    }
+
+    public void setGeometryCachedRows(int geometryCachedRows) {
+        this.geometryCachedRows = geometryCachedRows;
+    }
+
+    public int getResolutionMinutes() {
+        return resolutionMinutes;
+    }
+
+    public void setResolutionMinutes(int resolutionMinutes) {
+        this.resolutionMinutes = resolutionMinutes;
+    }
+
+    public boolean isVectorized() {
+        return vectorized;
+    }
+
+    public void setVectorized(boolean vectorized) {
+        this.vectorized = vectorized;
+    }
+
+    public double[] getMonthlyCloudCover() {
+        return monthlyCloudCover;
+    }
+
+    public void setMonthlyCloudCover(double[] monthlyCloudCover) {
+        this.monthlyCloudCover = monthlyCloudCover;
+    }
+
+    public int getResultCachedEntries() {
+        return resultCachedEntries;
+    }
+
+    public void setResultCachedEntries(int resultCachedEntries) {
+        this.resultCachedEntries = resultCachedEntries;
+    }
+
+    public PositionModel getPositionModel() {
+        return positionModel;
+    }
+
+    public void setPositionModel(PositionModel positionModel) {
+        this.positionModel = positionModel;
+    }
+
+    public String getTimeZone() {
+        return timeZone;
+    }
+
+    public void setTimeZone(String timeZone) {
+        this.timeZone = timeZone;
+    }
+
+    public int getPositionCachedDays() {
+        return positionCachedDays;
+    }
+
+    public void setPositionCachedDays(int positionCachedDays) {
+        this.positionCachedDays = positionCachedDays;
+    }
+
+    public int getAnnualCachedResults() {
+        return annualCachedResults;
+    }
+
+    public void setAnnualCachedResults(int annualCachedResults) {
+        this.annualCachedResults = annualCachedResults;
+    }
+
+    public int getAnnualParallelism() {
+        return annualParallelism;
+    }
+
+    public void setAnnualParallelism(int annualParallelism) {
+        this.annualParallelism = annualParallelism;
+    }
+}
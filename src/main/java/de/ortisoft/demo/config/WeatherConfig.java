@@ -7,6 +7,7 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "weather.api")
 public class WeatherConfig {
     private String key;
+    private String baseUrl = "http://api.openweathermap.org";
 
     public String getKey() {
         return key;
@@ -15,4 +16,12 @@ public class WeatherConfig {
     public void setKey(String key) {
         this.key = key;
     }
-} 
\ No newline at end of file
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+}
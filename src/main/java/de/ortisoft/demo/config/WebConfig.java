@@ -1,14 +1,48 @@
 package de.ortisoft.demo.config;
 
+import io.netty.channel.ChannelOption;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 @Configuration
 public class WebConfig {
+
+    // Ein gemeinsamer Pool für alle OpenWeatherMap-Aufrufe; Metriken unter reactor.netty.connection.provider.*
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider weatherConnectionProvider(HttpClientConfig httpClientConfig) {
+        return ConnectionProvider.builder("openweathermap")
+            .maxConnections(httpClientConfig.getMaxConnections())
+            .pendingAcquireMaxCount(httpClientConfig.getPendingAcquireMaxCount())
+            .pendingAcquireTimeout(httpClientConfig.getPendingAcquireTimeout())
+            .maxIdleTime(httpClientConfig.getMaxIdleTime())
+            .maxLifeTime(httpClientConfig.getMaxLifeTime())
+            .evictInBackground(Duration.ofSeconds(30))
+            .metrics(true)
+            .build();
+    }
+
+    @Bean
+    public HttpClient weatherHttpClient(ConnectionProvider weatherConnectionProvider, HttpClientConfig httpClientConfig) {
+        return HttpClient.create(weatherConnectionProvider)
+            // Accept-Encoding: gzip, Antworten werden beim Lesen dekomprimiert
+            .compress(true)
+            .keepAlive(true)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) httpClientConfig.getConnectTimeout().toMillis())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .responseTimeout(httpClientConfig.getResponseTimeout());
+    }
     
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public WebClient weatherWebClient(WebClient.Builder builder, HttpClient weatherHttpClient, WeatherConfig weatherConfig) {
+        return builder
+            .baseUrl(weatherConfig.getBaseUrl())
+            .clientConnector(new ReactorClientHttpConnector(weatherHttpClient))
+            .build();
     }
-} 
\ No newline at end of file
+}
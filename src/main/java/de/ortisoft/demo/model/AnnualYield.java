@@ -0,0 +1,16 @@
+package de.ortisoft.demo.model;
+
+/**
+ * Ergebnis der Jahressimulation einer Anlage für eine Gitterzelle.
+ *
+ * @param lat            Mittelpunkt der Zelle, für den gerechnet wurde
+ * @param lon            Mittelpunkt der Zelle
+ * @param hours          simulierte Stunden (8760 im Referenzjahr)
+ * @param total          Jahresertrag aller Flächen in kWh
+ * @param specificYield  Jahresertrag je installiertem kWp in kWh/kWp
+ * @param arrayYields    Jahresertrag je Fläche in kWh
+ * @param monthlyYields  Ertrag aller Flächen je Monat in kWh, Januar bis Dezember
+ */
+public record AnnualYield(double lat, double lon, int hours, double total, double specificYield,
+                          double[] arrayYields, double[] monthlyYields) {
+}
@@ -0,0 +1,56 @@
+package de.ortisoft.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Eine Anlage im Flottenauftrag an POST /solar/fleet: Kennung, Standort und Modulflächen.
+ */
+public class FleetSite {
+    private String id;
+    private double lat;
+    private double lon;
+    private List<PvArrayConfig> arrays = new ArrayList<>();
+
+    public FleetSite() {
+    }
+
+    public FleetSite(String id, double lat, double lon, List<PvArrayConfig> arrays) {
+        this.id = id;
+        this.lat = lat;
+        this.lon = lon;
+        this.arrays = arrays;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    public double getLon() {
+        return lon;
+    }
+
+    public void setLon(double lon) {
+        this.lon = lon;
+    }
+
+    public List<PvArrayConfig> getArrays() {
+        return arrays;
+    }
+
+    public void setArrays(List<PvArrayConfig> arrays) {
+        this.arrays = arrays;
+    }
+}
@@ -0,0 +1,18 @@
+package de.ortisoft.demo.model;
+
+import java.util.List;
+
+/**
+ * Ergebnis einer Anlage im Flottenauftrag, eine Zeile im NDJSON-Strom.
+ * Bei ungültiger Konfiguration oder fehlender Vorhersage ist {@code error} gesetzt und {@code days} leer.
+ */
+public record FleetSiteResult(String id, double lat, double lon, String error, List<Day> days) {
+
+    /** Tagesertrag je Modulfläche und gesamt in kWh. */
+    public record Day(String date, double cloudCover, double[] yields, double total) {
+    }
+
+    public static FleetSiteResult failed(FleetSite site, String error) {
+        return new FleetSiteResult(site.getId(), site.getLat(), site.getLon(), error, List.of());
+    }
+}
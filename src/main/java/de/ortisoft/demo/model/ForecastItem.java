@@ -1,40 +0,0 @@
-package de.ortisoft.demo.model;
-
-public class ForecastItem {
-    private Main main;
-    private Weather[] weather;
-    private String dt_txt;
-    private Clouds clouds;
-
-    public Main getMain() {
-        return main;
-    }
-
-    public void setMain(Main main) {
-        this.main = main;
-    }
-
-    public Weather[] getWeather() {
-        return weather;
-    }
-
-    public void setWeather(Weather[] weather) {
-        this.weather = weather;
-    }
-
-    public String getDt_txt() {
-        return dt_txt;
-    }
-
-    public void setDt_txt(String dt_txt) {
-        this.dt_txt = dt_txt;
-    }
-
-    public Clouds getClouds() {
-        return clouds;
-    }
-
-    public void setClouds(Clouds clouds) {
-        this.clouds = clouds;
-    }
-} 
\ No newline at end of file
@@ -1,15 +0,0 @@
-package de.ortisoft.demo.model;
-
-import java.util.List;
-
-public class ForecastResponse {
-    private List<ForecastItem> list;
-
-    public List<ForecastItem> getList() {
-        return list;
-    }
-
-    public void setList(List<ForecastItem> list) {
-        this.list = list;
-    }
-} 
\ No newline at end of file
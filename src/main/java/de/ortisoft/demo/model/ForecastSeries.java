@@ -0,0 +1,358 @@
+package de.ortisoft.demo.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 5-Tage-Vorhersage in Spaltenform: ein Zeitschritt je Index, alle Werte in parallelen primitiven Arrays.
+ * Beschreibungen stehen einmalig in einem kleinen Wörterbuch und werden per Index referenziert.
+ * Zeitpunkte sind UTC-Epochensekunden (wie {@code dt} bei OpenWeatherMap).
+ *
+ * Die Zeitschritte liegen chronologisch sortiert vor. Tage (UTC) sind zusammenhängende Indexbereiche
+ * {@code [getDayStart(d), getDayEnd(d))}; ihre Kennzahlen werden einmal beim Aufbau berechnet
+ * und von Wetter- und Solaransicht gemeinsam genutzt.
+ *
+ * Bewölkung und Temperatur liegen zusätzlich als Stundenreihe vor: von 0 Uhr UTC des ersten bis 24 Uhr
+ * des letzten Tages, zwischen den 3-Stunden-Schritten linear interpoliert und davor bzw. danach mit dem
+ * ersten bzw. letzten Wert fortgeschrieben. Die Reihe entsteht einmal beim Aufbau und wird von allen
+ * Solarrechnungen auf dieser Vorhersage geteilt.
+ */
+public final class ForecastSeries {
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final long SECONDS_PER_HOUR = 3_600L;
+    private static final int HOURS_PER_DAY = 24;
+
+    private final int size;
+    private final long[] epochSeconds;
+    private final double[] temps;
+    private final int[] humidities;
+    private final int[] cloudCovers;
+    private final int[] descriptionIndexes;
+    private final String[] descriptions;
+
+    private final int dayCount;
+    private final long[] dayEpochDays;
+    private final int[] dayStarts;  // dayCount + 1 Einträge, der letzte ist size
+    private final double[] dayMinTemps;
+    private final double[] dayMaxTemps;
+    private final double[] dayAvgCloudCovers;
+    private final double[] dayAvgHumidities;
+    private final int[] dayDescriptionIndexes;
+
+    private final double[] hourlyCloudCovers;  // ab 0 Uhr UTC des ersten Tages, ein Wert je Stunde
+    private final double[] hourlyTemps;
+
+    private ForecastSeries(Builder builder) {
+        this.size = builder.size;
+        int[] order = chronologicalOrder(builder.epochSeconds, size);
+        this.epochSeconds = new long[size];
+        this.temps = new double[size];
+        this.humidities = new int[size];
+        this.cloudCovers = new int[size];
+        this.descriptionIndexes = new int[size];
+        for (int i = 0; i < size; i++) {
+            int source = order[i];
+            epochSeconds[i] = builder.epochSeconds[source];
+            temps[i] = builder.temps[source];
+            humidities[i] = builder.humidities[source];
+            cloudCovers[i] = builder.cloudCovers[source];
+            descriptionIndexes[i] = builder.descriptionIndexes[source];
+        }
+        this.descriptions = builder.descriptions.toArray(new String[0]);
+
+        int days = 0;
+        int[] starts = new int[size + 1];
+        long[] epochDays = new long[size];
+        for (int i = 0; i < size; i++) {
+            long epochDay = Math.floorDiv(epochSeconds[i], SECONDS_PER_DAY);
+            if (days == 0 || epochDays[days - 1] != epochDay) {
+                epochDays[days] = epochDay;
+                starts[days] = i;
+                days++;
+            }
+        }
+        starts[days] = size;
+        this.dayCount = days;
+        this.dayEpochDays = Arrays.copyOf(epochDays, days);
+        this.dayStarts = Arrays.copyOf(starts, days + 1);
+        this.dayMinTemps = new double[days];
+        this.dayMaxTemps = new double[days];
+        this.dayAvgCloudCovers = new double[days];
+        this.dayAvgHumidities = new double[days];
+        this.dayDescriptionIndexes = new int[days];
+
+        int[] descriptionCounts = new int[descriptions.length];
+        for (int day = 0; day < days; day++) {
+            int start = dayStarts[day];
+            int end = dayStarts[day + 1];
+            double minTemp = Double.POSITIVE_INFINITY;
+            double maxTemp = Double.NEGATIVE_INFINITY;
+            long cloudSum = 0;
+            long humiditySum = 0;
+            int modal = descriptionIndexes[start];
+            Arrays.fill(descriptionCounts, 0);
+            for (int i = start; i < end; i++) {
+                minTemp = Math.min(minTemp, temps[i]);
+                maxTemp = Math.max(maxTemp, temps[i]);
+                cloudSum += cloudCovers[i];
+                humiditySum += humidities[i];
+                // Bei Gleichstand gewinnt die zuerst aufgetretene Beschreibung
+                int count = ++descriptionCounts[descriptionIndexes[i]];
+                if (count > descriptionCounts[modal]) {
+                    modal = descriptionIndexes[i];
+                }
+            }
+            int steps = end - start;
+            dayMinTemps[day] = minTemp;
+            dayMaxTemps[day] = maxTemp;
+            dayAvgCloudCovers[day] = (double) cloudSum / steps;
+            dayAvgHumidities[day] = (double) humiditySum / steps;
+            dayDescriptionIndexes[day] = modal;
+        }
+
+        int hours = days == 0 ? 0 : (int) (dayEpochDays[days - 1] - dayEpochDays[0] + 1) * HOURS_PER_DAY;
+        this.hourlyCloudCovers = new double[hours];
+        this.hourlyTemps = new double[hours];
+        long firstHour = days == 0 ? 0 : dayEpochDays[0] * SECONDS_PER_DAY;
+        int next = 0;  // erster Zeitschritt nach der Stunde
+        for (int hour = 0; hour < hours; hour++) {
+            long time = firstHour + hour * SECONDS_PER_HOUR;
+            while (next < size && epochSeconds[next] <= time) {
+                next++;
+            }
+            if (next == 0) {
+                hourlyCloudCovers[hour] = cloudCovers[0];
+                hourlyTemps[hour] = temps[0];
+            } else if (next == size) {
+                hourlyCloudCovers[hour] = cloudCovers[size - 1];
+                hourlyTemps[hour] = temps[size - 1];
+            } else {
+                int prev = next - 1;
+                double t = (double) (time - epochSeconds[prev]) / (epochSeconds[next] - epochSeconds[prev]);
+                hourlyCloudCovers[hour] = cloudCovers[prev] + t * (cloudCovers[next] - cloudCovers[prev]);
+                hourlyTemps[hour] = temps[prev] + t * (temps[next] - temps[prev]);
+            }
+        }
+    }
+
+    private static int[] chronologicalOrder(long[] epochSeconds, int size) {
+        int[] order = new int[size];
+        boolean sorted = true;
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            sorted &= i == 0 || epochSeconds[i - 1] <= epochSeconds[i];
+        }
+        if (!sorted) {
+            // OpenWeatherMap liefert sortiert; nur für den Fall der Fälle
+            order = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparingLong(i -> epochSeconds[i]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        }
+        return order;
+    }
+
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getEpochSecond(int index) {
+        return epochSeconds[index];
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        return LocalDateTime.ofEpochSecond(epochSeconds[index], 0, ZoneOffset.UTC);
+    }
+
+    public LocalDate getDate(int index) {
+        return LocalDate.ofEpochDay(Math.floorDiv(epochSeconds[index], SECONDS_PER_DAY));
+    }
+
+    public double getTemp(int index) {
+        return temps[index];
+    }
+
+    public int getHumidity(int index) {
+        return humidities[index];
+    }
+
+    public int getCloudCover(int index) {
+        return cloudCovers[index];
+    }
+
+    public int getDescriptionIndex(int index) {
+        return descriptionIndexes[index];
+    }
+
+    public String getDescription(int index) {
+        return descriptions[descriptionIndexes[index]];
+    }
+
+    public int getDescriptionCount() {
+        return descriptions.length;
+    }
+
+    public String getDescriptionAt(int descriptionIndex) {
+        return descriptions[descriptionIndex];
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    public LocalDate getDay(int day) {
+        return LocalDate.ofEpochDay(dayEpochDays[day]);
+    }
+
+    /** Erster Zeitschritt des Tages. */
+    public int getDayStart(int day) {
+        return dayStarts[day];
+    }
+
+    /** Erster Zeitschritt nach dem Tag (exklusiv). */
+    public int getDayEnd(int day) {
+        return dayStarts[day + 1];
+    }
+
+    public double getDayMinTemp(int day) {
+        return dayMinTemps[day];
+    }
+
+    public double getDayMaxTemp(int day) {
+        return dayMaxTemps[day];
+    }
+
+    public double getDayAvgCloudCover(int day) {
+        return dayAvgCloudCovers[day];
+    }
+
+    public double getDayAvgHumidity(int day) {
+        return dayAvgHumidities[day];
+    }
+
+    /** Häufigste Beschreibung des Tages. */
+    public String getDayDescription(int day) {
+        return descriptions[dayDescriptionIndexes[day]];
+    }
+
+    /**
+     * Bewölkung je Stunde in der Zeit des Aufrufers: {@code target[h]} ist die Bewölkung um h Uhr am Tag {@code day},
+     * wobei diese Uhrzeit der UTC um {@code utcOffsetHours} voraus ist (wahre Ortszeit: Länge / 15).
+     */
+    public void hourlyCloudCovers(int day, double utcOffsetHours, double[] target) {
+        sample(hourlyCloudCovers, day, utcOffsetHours, target);
+    }
+
+    /** Temperatur je Stunde, wie {@link #hourlyCloudCovers(int, double, double[])}. */
+    public void hourlyTemps(int day, double utcOffsetHours, double[] target) {
+        sample(hourlyTemps, day, utcOffsetHours, target);
+    }
+
+    // Zwischen den Stützstellen der Stundenreihe linear, am Rand festgehalten
+    private void sample(double[] hourly, int day, double utcOffsetHours, double[] target) {
+        int last = hourly.length - 1;
+        double first = (dayEpochDays[day] - dayEpochDays[0]) * HOURS_PER_DAY - utcOffsetHours;
+        for (int hour = 0; hour < target.length; hour++) {
+            double position = Math.max(0, Math.min(last, first + hour));
+            int lower = (int) position;
+            int upper = Math.min(lower + 1, last);
+            double t = position - lower;
+            target[hour] = hourly[lower] + t * (hourly[upper] - hourly[lower]);
+        }
+    }
+
+    public static final class Builder {
+        private int size;
+        private long[] epochSeconds;
+        private double[] temps;
+        private int[] humidities;
+        private int[] cloudCovers;
+        private int[] descriptionIndexes;
+        private final List<String> descriptions = new ArrayList<>();
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            this.epochSeconds = new long[capacity];
+            this.temps = new double[capacity];
+            this.humidities = new int[capacity];
+            this.cloudCovers = new int[capacity];
+            this.descriptionIndexes = new int[capacity];
+        }
+
+        public Builder add(long epochSecond, double temp, int humidity, int cloudCover, String description) {
+            return add(epochSecond, temp, humidity, cloudCover, descriptionIndex(description));
+        }
+
+        public Builder add(long epochSecond, double temp, int humidity, int cloudCover, int descriptionIndex) {
+            if (size == epochSeconds.length) {
+                int capacity = size * 2;
+                epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+                temps = Arrays.copyOf(temps, capacity);
+                humidities = Arrays.copyOf(humidities, capacity);
+                cloudCovers = Arrays.copyOf(cloudCovers, capacity);
+                descriptionIndexes = Arrays.copyOf(descriptionIndexes, capacity);
+            }
+            epochSeconds[size] = epochSecond;
+            temps[size] = temp;
+            humidities[size] = humidity;
+            cloudCovers[size] = cloudCover;
+            descriptionIndexes[size] = descriptionIndex;
+            size++;
+            return this;
+        }
+
+        /**
+         * Index der Beschreibung im Wörterbuch; neue Beschreibungen werden angehängt.
+         */
+        public int descriptionIndex(String description) {
+            int index = descriptions.indexOf(description);
+            if (index < 0) {
+                descriptions.add(description);
+                index = descriptions.size() - 1;
+            }
+            return index;
+        }
+
+        /**
+         * Wie {@link #descriptionIndex(String)}, vergleicht aber direkt auf einem Zeichenpuffer,
+         * sodass für bereits bekannte Beschreibungen kein String entsteht.
+         */
+        public int descriptionIndex(char[] buffer, int offset, int length) {
+            for (int index = 0; index < descriptions.size(); index++) {
+                String known = descriptions.get(index);
+                if (known.length() == length && regionMatches(known, buffer, offset)) {
+                    return index;
+                }
+            }
+            descriptions.add(new String(buffer, offset, length));
+            return descriptions.size() - 1;
+        }
+
+        private static boolean regionMatches(String known, char[] buffer, int offset) {
+            for (int i = 0; i < known.length(); i++) {
+                if (known.charAt(i) != buffer[offset + i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public ForecastSeries build() {
+            return new ForecastSeries(this);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package de.ortisoft.demo.model;
+
+/**
+ * Quantisierte Gitterzelle (Kantenlänge {@code size} in Grad).
+ * Nahe beieinander liegende Koordinaten landen in derselben Zelle und teilen sich Cache-Einträge.
+ */
+public record GridCell(long latIndex, long lonIndex, double size) {
+
+    public static GridCell of(double lat, double lon, double size) {
+        return new GridCell((long) Math.floor(lat / size), (long) Math.floor(lon / size), size);
+    }
+
+    public double getCenterLat() {
+        return (latIndex + 0.5) * size;
+    }
+
+    public double getCenterLon() {
+        return (lonIndex + 0.5) * size;
+    }
+}
@@ -0,0 +1,12 @@
+package de.ortisoft.demo.model;
+
+/**
+ * Jahresertrag je kWp über Ausrichtung und Neigung für eine Gitterzelle, dazu die beste gefundene Ausrichtung.
+ *
+ * @param step           Rasterweite der Fläche in Grad
+ * @param specificYield  kWh/kWp je {@code [neigung / step][azimut / step]}, Azimut 0 bis 360 - step, Neigung 0 bis 90
+ * @param evaluations    Zahl der bewerteten Ausrichtungen (grob und fein)
+ */
+public record OrientationSurface(double lat, double lon, int step, double[][] specificYield,
+                                 int optimumAzimuth, int optimumTilt, double optimumYield, int evaluations) {
+}
@@ -0,0 +1,63 @@
+package de.ortisoft.demo.model;
+
+/**
+ * Eine Modulfläche, wie sie per JSON übergeben wird. Azimut in Grad von Nord (180 = Süd).
+ */
+public class PvArrayConfig {
+    private double kwp;
+    private int azimuth = 180;
+    private int tilt = 35;
+    private double efficiency = 20.0;
+    private double losses = 14.0;
+
+    public PvArrayConfig() {
+    }
+
+    public PvArrayConfig(double kwp, int azimuth, int tilt, double efficiency, double losses) {
+        this.kwp = kwp;
+        this.azimuth = azimuth;
+        this.tilt = tilt;
+        this.efficiency = efficiency;
+        this.losses = losses;
+    }
+
+    public double getKwp() {
+        return kwp;
+    }
+
+    public void setKwp(double kwp) {
+        this.kwp = kwp;
+    }
+
+    public int getAzimuth() {
+        return azimuth;
+    }
+
+    public void setAzimuth(int azimuth) {
+        this.azimuth = azimuth;
+    }
+
+    public int getTilt() {
+        return tilt;
+    }
+
+    public void setTilt(int tilt) {
+        this.tilt = tilt;
+    }
+
+    public double getEfficiency() {
+        return efficiency;
+    }
+
+    public void setEfficiency(double efficiency) {
+        this.efficiency = efficiency;
+    }
+
+    public double getLosses() {
+        return losses;
+    }
+
+    public void setLosses(double losses) {
+        this.losses = losses;
+    }
+}
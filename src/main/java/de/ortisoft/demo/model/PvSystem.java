@@ -0,0 +1,156 @@
+package de.ortisoft.demo.model;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * PV-Anlage mit 1 bis {@value #MAX_ARRAYS} Modulflächen in Spaltenform: Größe, Azimut, Neigung,
+ * Wirkungsgrad und Verluste liegen als parallele Arrays vor, damit der Rechenkern alle Flächen
+ * eines Zeitschritts in einer engen Schleife abarbeitet.
+ */
+public final class PvSystem {
+    public static final int MAX_ARRAYS = 8;
+
+    private final double[] kwp;
+    private final int[] azimuth;
+    private final int[] tilt;
+    private final double[] efficiency;
+    private final double[] losses;
+
+    public PvSystem(double[] kwp, int[] azimuth, int[] tilt, double[] efficiency, double[] losses) {
+        int size = kwp.length;
+        if (size < 1 || size > MAX_ARRAYS) {
+            throw new IllegalArgumentException("Eine Anlage braucht 1 bis " + MAX_ARRAYS + " Modulflächen, nicht " + size);
+        }
+        if (azimuth.length != size || tilt.length != size || efficiency.length != size || losses.length != size) {
+            throw new IllegalArgumentException("Alle Spalten brauchen " + size + " Einträge");
+        }
+        for (int i = 0; i < size; i++) {
+            if (!(kwp[i] > 0)) {
+                throw new IllegalArgumentException("Fläche " + (i + 1) + ": kWp muss positiv sein");
+            }
+            if (azimuth[i] < 0 || azimuth[i] > 360) {
+                throw new IllegalArgumentException("Fläche " + (i + 1) + ": Azimut muss zwischen 0 und 360° liegen");
+            }
+            if (tilt[i] < 0 || tilt[i] > 90) {
+                throw new IllegalArgumentException("Fläche " + (i + 1) + ": Neigung muss zwischen 0 und 90° liegen");
+            }
+            if (!(efficiency[i] > 0 && efficiency[i] <= 100)) {
+                throw new IllegalArgumentException("Fläche " + (i + 1) + ": Wirkungsgrad muss zwischen 0 und 100% liegen");
+            }
+            if (!(losses[i] >= 0 && losses[i] < 100)) {
+                throw new IllegalArgumentException("Fläche " + (i + 1) + ": Verluste müssen zwischen 0 und 100% liegen");
+            }
+        }
+        this.kwp = kwp.clone();
+        this.azimuth = azimuth.clone();
+        this.tilt = tilt.clone();
+        this.efficiency = efficiency.clone();
+        this.losses = losses.clone();
+    }
+
+    public static PvSystem of(List<PvArrayConfig> arrays) {
+        if (arrays == null) {
+            throw new IllegalArgumentException("Keine Modulflächen angegeben");
+        }
+        int size = arrays.size();
+        double[] kwp = new double[size];
+        int[] azimuth = new int[size];
+        int[] tilt = new int[size];
+        double[] efficiency = new double[size];
+        double[] losses = new double[size];
+        for (int i = 0; i < size; i++) {
+            PvArrayConfig array = arrays.get(i);
+            if (array == null) {
+                throw new IllegalArgumentException("Fläche " + (i + 1) + " fehlt");
+            }
+            kwp[i] = array.getKwp();
+            azimuth[i] = array.getAzimuth();
+            tilt[i] = array.getTilt();
+            efficiency[i] = array.getEfficiency();
+            losses[i] = array.getLosses();
+        }
+        return new PvSystem(kwp, azimuth, tilt, efficiency, losses);
+    }
+
+    public static PvSystem of(PvArrayConfig... arrays) {
+        return of(List.of(arrays));
+    }
+
+    public int size() {
+        return kwp.length;
+    }
+
+    public double getKwp(int array) {
+        return kwp[array];
+    }
+
+    public int getAzimuth(int array) {
+        return azimuth[array];
+    }
+
+    public int getTilt(int array) {
+        return tilt[array];
+    }
+
+    public double getEfficiency(int array) {
+        return efficiency[array];
+    }
+
+    public double getLosses(int array) {
+        return losses[array];
+    }
+
+    public double getTotalKwp() {
+        double total = 0;
+        for (double value : kwp) {
+            total += value;
+        }
+        return total;
+    }
+
+    /** kWh je kWp und Stunde für 1 W/m² Strahlung (1 kWp ≈ 5 m²). */
+    public double getYieldFactor(int array) {
+        return 5.0 / 1000.0 * (efficiency[array] / 100.0) * (1.0 - losses[array] / 100.0);
+    }
+
+    /**
+     * Normalisierte Form für Cache-Schlüssel: kWp auf 0,01, Wirkungsgrad und Verluste auf 0,1 gerundet,
+     * Azimut 360° als 0°. Die Reihenfolge der Flächen bleibt erhalten, sie bestimmt die Spalten der Ausgabe.
+     */
+    public PvSystem canonical() {
+        int size = size();
+        double[] roundedKwp = new double[size];
+        int[] normalizedAzimuth = new int[size];
+        double[] roundedEfficiency = new double[size];
+        double[] roundedLosses = new double[size];
+        for (int i = 0; i < size; i++) {
+            roundedKwp[i] = Math.max(0.01, Math.round(kwp[i] * 100.0) / 100.0);
+            normalizedAzimuth[i] = azimuth[i] % 360;
+            roundedEfficiency[i] = Math.max(0.1, Math.round(efficiency[i] * 10.0) / 10.0);
+            roundedLosses[i] = Math.min(99.9, Math.round(losses[i] * 10.0) / 10.0);
+        }
+        return new PvSystem(roundedKwp, normalizedAzimuth, tilt, roundedEfficiency, roundedLosses);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PvSystem that)) {
+            return false;
+        }
+        return Arrays.equals(kwp, that.kwp) && Arrays.equals(azimuth, that.azimuth) && Arrays.equals(tilt, that.tilt)
+            && Arrays.equals(efficiency, that.efficiency) && Arrays.equals(losses, that.losses);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Arrays.hashCode(kwp);
+        hash = 31 * hash + Arrays.hashCode(azimuth);
+        hash = 31 * hash + Arrays.hashCode(tilt);
+        hash = 31 * hash + Arrays.hashCode(efficiency);
+        return 31 * hash + Arrays.hashCode(losses);
+    }
+}
@@ -0,0 +1,264 @@
+package de.ortisoft.demo.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Ergebnis der Solarberechnung für einen Tag: Stundenwerte je Anlage, Tageserträge und Kennzahlen.
+ * Wird vom Rechenkern in einem Durchlauf gefüllt und kann für weitere Tage wiederverwendet werden;
+ * HTML (und künftig JSON) werden nur noch hieraus erzeugt.
+ *
+ * Werte je Anlage und Zeitschritt liegen flach in {@code [anlage * steps + schritt]}.
+ *
+ * Der {@link Workspace} ist der Arbeitsspeicher des Rechenkerns, mit dem Ergebnis angelegt und mit ihm
+ * wiederverwendet, damit ein weiterer Tag ohne neue Arrays gerechnet wird.
+ */
+public final class SolarDayResult {
+    private final int arrayCount;
+    private final int steps;
+
+    private LocalDate date;
+    private double cloudCover;
+    private final double[] sunHeight;
+    private final double[] hourlyCloudCover;
+    private final boolean[] daylight;
+    private final double[] radiation;
+    private final double[] yieldPerKwp;
+    private final double[] yield;
+    private final double[] minRadiation;
+    private final double[] maxRadiation;
+    private final double[] avgRadiation;
+    private final double[] total;
+    private final double[] totalRatio;
+    private final double[] clearSkyRatio;
+    private final double[] dailyYield;
+    private double dayMinRadiation;
+    private double dayMaxRadiation;
+    private double dayAvgRadiation;
+    private double clearSkyDayRatio;
+    private final Workspace workspace;
+
+    public SolarDayResult(int arrayCount, int steps) {
+        this(arrayCount, steps, steps);
+    }
+
+    /**
+     * @param substeps Zeitschritte der Rechnung je Tag, ein Vielfaches von {@code steps} bei feiner Auflösung
+     */
+    public SolarDayResult(int arrayCount, int steps, int substeps) {
+        this.arrayCount = arrayCount;
+        this.steps = steps;
+        this.sunHeight = new double[steps];
+        this.hourlyCloudCover = new double[steps];
+        this.daylight = new boolean[steps];
+        this.radiation = new double[arrayCount * steps];
+        this.yieldPerKwp = new double[arrayCount * steps];
+        this.yield = new double[arrayCount * steps];
+        this.minRadiation = new double[steps];
+        this.maxRadiation = new double[steps];
+        this.avgRadiation = new double[steps];
+        this.total = new double[steps];
+        this.totalRatio = new double[steps];
+        this.clearSkyRatio = new double[steps];
+        this.dailyYield = new double[arrayCount];
+        this.workspace = new Workspace(new double[arrayCount], new double[arrayCount], new double[arrayCount],
+            new double[arrayCount], new double[5], new double[substeps], new double[substeps],
+            new double[arrayCount * substeps]);
+    }
+
+    /**
+     * Zwischenwerte des Rechenkerns; Inhalt nach der Rechnung ohne Bedeutung.
+     *
+     * @param cosTilt     je Fläche cos Neigung
+     * @param northWeight je Fläche sin Neigung · cos Azimut
+     * @param eastWeight  je Fläche sin Neigung · sin Azimut
+     * @param factors     je Fläche Ertrag je kWp und W/m²
+     * @param day         Tageskoeffizienten des Sonnenvektors
+     * @param weight      Strahlungsgewicht je Rechenschritt
+     * @param clearSky    sin(Sonnenhöhe) je Rechenschritt
+     * @param radiation   Strahlung je {@code [fläche * substeps + schritt]}
+     */
+    public record Workspace(double[] cosTilt, double[] northWeight, double[] eastWeight, double[] factors,
+                            double[] day, double[] weight, double[] clearSky, double[] radiation) {
+    }
+
+    public Workspace getWorkspace() {
+        return workspace;
+    }
+
+    /** Setzt alle Werte für einen neuen Tag zurück. */
+    public void reset(LocalDate date, double cloudCover) {
+        this.date = date;
+        this.cloudCover = cloudCover;
+        Arrays.fill(sunHeight, 0);
+        Arrays.fill(hourlyCloudCover, cloudCover);
+        Arrays.fill(daylight, false);
+        Arrays.fill(radiation, 0);
+        Arrays.fill(yieldPerKwp, 0);
+        Arrays.fill(yield, 0);
+        Arrays.fill(minRadiation, 0);
+        Arrays.fill(maxRadiation, 0);
+        Arrays.fill(avgRadiation, 0);
+        Arrays.fill(total, 0);
+        Arrays.fill(totalRatio, 0);
+        Arrays.fill(clearSkyRatio, 0);
+        Arrays.fill(dailyYield, 0);
+        dayMinRadiation = 0;
+        dayMaxRadiation = 0;
+        dayAvgRadiation = 0;
+        clearSkyDayRatio = 0;
+    }
+
+    public int getArrayCount() {
+        return arrayCount;
+    }
+
+    public int getSteps() {
+        return steps;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /** Bewölkung des Tages, wie sie in der Tageszeile angezeigt wird. */
+    public double getCloudCover() {
+        return cloudCover;
+    }
+
+    /** Bewölkung, mit der die Stunde gerechnet wurde. */
+    public double getCloudCover(int step) {
+        return hourlyCloudCover[step];
+    }
+
+    public void setCloudCover(int step, double value) {
+        hourlyCloudCover[step] = value;
+    }
+
+    /** Steht die Sonne in diesem Zeitschritt zumindest zeitweise über dem Horizont? */
+    public boolean isDaylight(int step) {
+        return daylight[step];
+    }
+
+    public void setDaylight(int step, boolean value) {
+        daylight[step] = value;
+    }
+
+    /** Sonnenhöhe in Grad. */
+    public double getSunHeight(int step) {
+        return sunHeight[step];
+    }
+
+    public void setSunHeight(int step, double value) {
+        sunHeight[step] = value;
+    }
+
+    /** Strahlung auf die Modulfläche in W/m². */
+    public double getRadiation(int array, int step) {
+        return radiation[array * steps + step];
+    }
+
+    public void setRadiation(int array, int step, double value) {
+        radiation[array * steps + step] = value;
+    }
+
+    public double getYieldPerKwp(int array, int step) {
+        return yieldPerKwp[array * steps + step];
+    }
+
+    /** Ertrag der Anlage im Zeitschritt in kWh. */
+    public double getYield(int array, int step) {
+        return yield[array * steps + step];
+    }
+
+    public void setYield(int array, int step, double perKwp, double value) {
+        yieldPerKwp[array * steps + step] = perKwp;
+        yield[array * steps + step] = value;
+    }
+
+    /** Kleinste, größte und mittlere Strahlung über alle Anlagen im Zeitschritt. */
+    public double getMinRadiation(int step) {
+        return minRadiation[step];
+    }
+
+    public double getMaxRadiation(int step) {
+        return maxRadiation[step];
+    }
+
+    public double getAvgRadiation(int step) {
+        return avgRadiation[step];
+    }
+
+    public void setRadiationRange(int step, double min, double max, double avg) {
+        minRadiation[step] = min;
+        maxRadiation[step] = max;
+        avgRadiation[step] = avg;
+    }
+
+    /** Gesamtertrag aller Anlagen im Zeitschritt in kWh. */
+    public double getTotal(int step) {
+        return total[step];
+    }
+
+    public void setTotal(int step, double value) {
+        total[step] = value;
+    }
+
+    /** Balkenlängen relativ zum theoretischen Maximum (STC): aktuell, klarer Himmel, Tagesmaximum. */
+    public double getTotalRatio(int step) {
+        return totalRatio[step];
+    }
+
+    public double getClearSkyRatio(int step) {
+        return clearSkyRatio[step];
+    }
+
+    public void setRatios(int step, double totalRatio, double clearSkyRatio) {
+        this.totalRatio[step] = totalRatio;
+        this.clearSkyRatio[step] = clearSkyRatio;
+    }
+
+    public double getClearSkyDayRatio() {
+        return clearSkyDayRatio;
+    }
+
+    public void setClearSkyDayRatio(double clearSkyDayRatio) {
+        this.clearSkyDayRatio = clearSkyDayRatio;
+    }
+
+    /** Tagesertrag der Anlage in kWh. */
+    public double getDailyYield(int array) {
+        return dailyYield[array];
+    }
+
+    public void setDailyYield(int array, double value) {
+        dailyYield[array] = value;
+    }
+
+    public double getTotalDailyYield() {
+        double sum = 0;
+        for (double value : dailyYield) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    /** Kennzahlen der Tagesstrahlung der ersten Anlage (tagsüber, in W/m²). */
+    public double getDayMinRadiation() {
+        return dayMinRadiation;
+    }
+
+    public double getDayMaxRadiation() {
+        return dayMaxRadiation;
+    }
+
+    public double getDayAvgRadiation() {
+        return dayAvgRadiation;
+    }
+
+    public void setDayRadiation(double min, double max, double avg) {
+        this.dayMinRadiation = min;
+        this.dayMaxRadiation = max;
+        this.dayAvgRadiation = avg;
+    }
+}
@@ -0,0 +1,38 @@
+package de.ortisoft.demo.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Anfrage an POST /solar: Standort und beliebig viele Modulflächen.
+ * Breite und Länge sind Pflicht; fehlen sie, bleiben sie {@code null} statt stillschweigend 0.
+ */
+public class SolarRequest {
+    private Double lat;
+    private Double lon;
+    private List<PvArrayConfig> arrays = new ArrayList<>();
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(Double lat) {
+        this.lat = lat;
+    }
+
+    public Double getLon() {
+        return lon;
+    }
+
+    public void setLon(Double lon) {
+        this.lon = lon;
+    }
+
+    public List<PvArrayConfig> getArrays() {
+        return arrays;
+    }
+
+    public void setArrays(List<PvArrayConfig> arrays) {
+        this.arrays = arrays;
+    }
+}
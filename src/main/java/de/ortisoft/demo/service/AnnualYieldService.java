@@ -0,0 +1,171 @@
+package de.ortisoft.demo.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.AnnualYield;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.PvSystem;
+import de.ortisoft.demo.model.SolarDayResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Erwarteter Jahresertrag einer Anlage: Stunde für Stunde über ein Referenzjahr mit derselben Physik wie
+ * die Prognose ({@link SolarDayKernel}), die Bewölkung stammt aus einem Monatsmittel statt aus der Vorhersage.
+ * Die zwölf Monate werden parallel gerechnet, Ergebnisse je (Zelle, Anlage) zwischengespeichert.
+ *
+ * Gerechnet wird auf einem eigenen ForkJoin-Pool: Der Cache startet die Simulation dort, statt sie unter seiner
+ * Sperre im aufrufenden Thread auszuführen, und die parallelen Monate teilen sich diesen Pool statt des
+ * gemeinsamen. {@link OrientationOptimizer} nutzt denselben Pool.
+ */
+@Component
+public class AnnualYieldService {
+    /** Referenzjahr ohne Schalttag: 365 Tage, 8760 Stunden. */
+    static final int REFERENCE_YEAR = 2023;
+    static final int MONTHS = 12;
+
+    private final CacheConfig cacheConfig;
+    private final SolarGeometryTable solarGeometry;
+    private final SolarDayKernel solarDayKernel;
+    private final double[] monthlyCloudCover;
+    private final ForkJoinPool pool;
+    private final AsyncCache<Key, AnnualYield> results;
+
+    public AnnualYieldService(CacheConfig cacheConfig, SolarConfig solarConfig, SolarGeometryTable solarGeometry,
+                              SolarDayKernel solarDayKernel) {
+        if (solarConfig.getMonthlyCloudCover().length != MONTHS) {
+            throw new IllegalArgumentException("weather.solar.monthly-cloud-cover braucht 12 Werte");
+        }
+        this.cacheConfig = cacheConfig;
+        this.solarGeometry = solarGeometry;
+        this.solarDayKernel = solarDayKernel;
+        this.monthlyCloudCover = solarConfig.getMonthlyCloudCover().clone();
+        this.pool = new ForkJoinPool(Math.max(1, solarConfig.getAnnualParallelism()));
+        this.results = Caffeine.newBuilder()
+            .maximumSize(solarConfig.getAnnualCachedResults())
+            .executor(pool)
+            .buildAsync();
+    }
+
+    public Mono<AnnualYield> simulate(double lat, double lon, PvSystem system) {
+        // Gleichwertige Anlagen (z.B. Azimut 360° statt 0°) teilen sich ein Ergebnis, wie in der Prognose
+        Key key = new Key(GridCell.of(lat, lon, cacheConfig.getGridSize()), system.canonical());
+        // Rechnet einige Millisekunden auf dem eigenen Pool, gleichzeitige Anfragen teilen sich dasselbe Ergebnis
+        return Mono.fromFuture(() -> results.get(key, this::simulate));
+    }
+
+    /** Pool der Jahressimulation, auch für die Ausrichtungssuche. */
+    Executor executor() {
+        return pool;
+    }
+
+    AnnualYield simulate(Key key) {
+        GridCell cell = key.cell();
+        PvSystem system = key.system();
+        SolarGeometryTable.Row sun = solarGeometry.forLatitude(cell.getCenterLat());
+        double maxTheoretical = stcYield(system);
+
+        // Je Monat und Fläche, jeder Monat rechnet mit eigenem Ergebnisobjekt
+        double[][] monthly = new double[MONTHS][];
+        IntStream.range(0, MONTHS).parallel()
+            .forEach(month -> monthly[month] = simulateMonth(sun, month, system, maxTheoretical));
+
+        double[] arrayYields = new double[system.size()];
+        double[] monthlyYields = new double[MONTHS];
+        double total = 0;
+        for (int month = 0; month < MONTHS; month++) {
+            for (int a = 0; a < system.size(); a++) {
+                arrayYields[a] += monthly[month][a];
+                monthlyYields[month] += monthly[month][a];
+            }
+            total += monthlyYields[month];
+        }
+        int hours = Year.of(REFERENCE_YEAR).length() * SolarDayKernel.STEPS;
+        return new AnnualYield(cell.getCenterLat(), cell.getCenterLon(), hours, total, total / system.getTotalKwp(),
+            arrayYields, monthlyYields);
+    }
+
+    private double[] simulateMonth(SolarGeometryTable.Row sun, int month, PvSystem system, double maxTheoretical) {
+        YearMonth yearMonth = YearMonth.of(REFERENCE_YEAR, month + 1);
+        double cloudCover = monthlyCloudCover[month];
+        SolarDayResult result = solarDayKernel.newResult(system.size());
+        double[] yields = new double[system.size()];
+        for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+            LocalDate date = yearMonth.atDay(day);
+            solarDayKernel.compute(sun, date, cloudCover, system, 1000.0 * sun.maxSinSunHeight(date), maxTheoretical, result);
+            for (int a = 0; a < yields.length; a++) {
+                yields[a] += result.getDailyYield(a);
+            }
+        }
+        return yields;
+    }
+
+    /**
+     * Tagesstunden des Referenzjahrs für die Zelle als Spalten, Bewölkung aus dem Monatsmittel.
+     * Grundlage, um viele Ausrichtungen ohne erneuten Durchlauf über das Jahr zu bewerten.
+     */
+    SunSeries sunSeries(GridCell cell) {
+        SolarGeometryTable.Row sun = solarGeometry.forLatitude(cell.getCenterLat());
+        int capacity = Year.of(REFERENCE_YEAR).length() * SolarDayKernel.STEPS;
+        double[] weight = new double[capacity];
+        double[] sinHeight = new double[capacity];
+        double[] north = new double[capacity];
+        double[] east = new double[capacity];
+        int size = 0;
+        for (int month = 0; month < MONTHS; month++) {
+            YearMonth yearMonth = YearMonth.of(REFERENCE_YEAR, month + 1);
+            for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+                size = solarDayKernel.hourlyComponents(sun, yearMonth.atDay(day), monthlyCloudCover[month],
+                    weight, sinHeight, north, east, size);
+            }
+        }
+        return new SunSeries(Arrays.copyOf(weight, size), Arrays.copyOf(sinHeight, size),
+            Arrays.copyOf(north, size), Arrays.copyOf(east, size));
+    }
+
+    // Ertrag aller Flächen unter STC, Bezugsgröße der Kennzahlen im Tagesergebnis
+    private static double stcYield(PvSystem system) {
+        double yield = 0;
+        for (int a = 0; a < system.size(); a++) {
+            yield += 1000.0 * system.getYieldFactor(a) * system.getKwp(a);
+        }
+        return yield;
+    }
+
+    @PreDestroy
+    public void close() {
+        pool.shutdown();
+    }
+
+    record Key(GridCell cell, PvSystem system) {
+    }
+
+    /** Strahlung ohne Einfallswinkel und Sonnenvektor je Tagesstunde, siehe {@link SolarDayKernel#hourlyComponents}. */
+    record SunSeries(double[] weight, double[] sinHeight, double[] north, double[] east) {
+
+        /** Jahressumme der Strahlung auf eine Fläche in Wh/m². */
+        double irradiation(int azimuth, int tilt) {
+            double sinTilt = SolarGeometryTable.sinDegrees(tilt);
+            double cosTilt = SolarGeometryTable.cosDegrees(tilt);
+            double northWeight = sinTilt * SolarGeometryTable.cosDegrees(azimuth);
+            double eastWeight = sinTilt * SolarGeometryTable.sinDegrees(azimuth);
+            double sum = 0;
+            for (int i = 0; i < weight.length; i++) {
+                double incidence = sinHeight[i] * cosTilt + north[i] * northWeight + east[i] * eastWeight;
+                sum += weight[i] * Math.max(0, incidence);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package de.ortisoft.demo.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Zwischengespeicherter Upstream-Wert mit Abrufzeitpunkt.
+ * Nach {@code staleAt} gilt der Wert als veraltet, wird aber bis zum Ende der Karenzzeit weiter ausgeliefert.
+ */
+public record CacheEntry<T>(T value, Instant fetchedAt, Instant staleAt) {
+
+    public static <T> CacheEntry<T> of(T value, Instant fetchedAt, Duration softTtl) {
+        return new CacheEntry<>(value, fetchedAt, fetchedAt.plus(softTtl));
+    }
+
+    public boolean isStale(Instant now) {
+        return !now.isBefore(staleAt);
+    }
+
+    public Duration ageAt(Instant now) {
+        return Duration.between(fetchedAt, now);
+    }
+}
@@ -0,0 +1,139 @@
+package de.ortisoft.demo.service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Zählbasierter Circuit Breaker für einen Upstream-Endpunkt.
+ * Überschreitet die Fehlerquote der letzten Aufrufe die Schwelle, schlagen weitere Aufrufe
+ * für die Öffnungsdauer sofort fehl. Danach prüft ein einzelner Probeaufruf, ob der Endpunkt wieder antwortet.
+ */
+public class CircuitBreaker {
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String endpoint;
+    private final int minimumCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private final boolean[] outcomes;  // Ringpuffer, true = Fehler
+
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(String endpoint, int window, int minimumCalls, double failureRate, Duration openDuration) {
+        this.endpoint = endpoint;
+        this.minimumCalls = Math.min(minimumCalls, window);
+        this.failureRate = failureRate;
+        this.openNanos = openDuration.toNanos();
+        this.outcomes = new boolean[window];
+    }
+
+    public <T> Mono<T> protect(Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.<T>error(new CircuitOpenException(endpoint));
+            }
+            return call.get()
+                .doOnSuccess(value -> onSuccess())
+                .doOnError(error -> {
+                    if (error instanceof QuotaExceededException) {
+                        // Nie gesendet: sagt nichts über den Upstream aus
+                        onCancel();
+                    } else if (isFailure(error)) {
+                        onFailure();
+                    } else {
+                        onSuccess();
+                    }
+                })
+                .doOnCancel(this::onCancel);
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    // Client-Fehler (falscher Key, ungültige Koordinaten) sagen nichts über die Gesundheit des Upstreams aus
+    private static boolean isFailure(Throwable error) {
+        if (error instanceof UpstreamException upstream) {
+            return upstream.getStatusCode() >= 500 || upstream.getStatusCode() == 429;
+        }
+        return true;
+    }
+
+    private synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    private synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            reset();
+            return;
+        }
+        record(false);
+    }
+
+    private synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (recorded >= minimumCalls && failures >= failureRate * recorded) {
+            open();
+        }
+    }
+
+    private synchronized void onCancel() {
+        if (state == State.HALF_OPEN) {
+            probeInFlight = false;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        probeInFlight = false;
+    }
+}
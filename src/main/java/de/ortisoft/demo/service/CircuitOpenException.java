@@ -0,0 +1,11 @@
+package de.ortisoft.demo.service;
+
+/**
+ * Der Circuit Breaker eines Endpunkts ist offen; der Aufruf wurde gar nicht erst gesendet.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String endpoint) {
+        super(String.format("OpenWeatherMap (%s) ist vorübergehend nicht erreichbar", endpoint));
+    }
+}
@@ -0,0 +1,67 @@
+package de.ortisoft.demo.service;
+
+/**
+ * Count-Min Sketch mit konservativer Aktualisierung: schätzt Häufigkeiten in festem Speicher.
+ * Die Schätzung ist nie zu niedrig und überschätzt um höchstens e/width der Gesamtzahl
+ * (mit Wahrscheinlichkeit 1 - e^-depth). Nicht threadsicher.
+ */
+public class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final int[] counters;
+    private final long[] seeds;
+
+    public CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.counters = new int[width * depth];
+        this.seeds = new long[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = mix(0x9E3779B97F4A7C15L * (row + 1));
+        }
+    }
+
+    /**
+     * Zählt den Schlüssel einmal und liefert die neue Schätzung.
+     */
+    public long add(long key) {
+        int minimum = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            minimum = Math.min(minimum, counters[slot(row, key)]);
+        }
+        // Konservativ: nur Zähler anheben, die unter der neuen Schätzung liegen
+        int estimate = minimum == Integer.MAX_VALUE ? minimum : minimum + 1;
+        for (int row = 0; row < depth; row++) {
+            int slot = slot(row, key);
+            if (counters[slot] < estimate) {
+                counters[slot] = estimate;
+            }
+        }
+        return estimate;
+    }
+
+    public long estimate(long key) {
+        int minimum = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            minimum = Math.min(minimum, counters[slot(row, key)]);
+        }
+        return minimum;
+    }
+
+    public void halve() {
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] >>>= 1;
+        }
+    }
+
+    private int slot(int row, long key) {
+        return row * width + (int) Long.remainderUnsigned(mix(key ^ seeds[row]), width);
+    }
+
+    // SplitMix64-Finalisierer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
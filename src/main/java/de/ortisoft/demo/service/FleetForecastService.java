@@ -0,0 +1,160 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.FleetConfig;
+import de.ortisoft.demo.model.FleetSite;
+import de.ortisoft.demo.model.FleetSiteResult;
+import de.ortisoft.demo.model.ForecastSeries;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.PvSystem;
+import de.ortisoft.demo.model.SolarDayResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Solarprognose für viele Anlagen auf einmal. Die Anlagen werden nach Gitterzelle gruppiert, damit jede
+ * Vorhersage nur einmal geladen wird; gerechnet wird in Paketen auf einem eigenen ForkJoin-Pool.
+ * Ergebnisse werden in der Reihenfolge ausgeliefert, in der die Pakete fertig werden; Anlagen mit ungültigen
+ * Koordinaten oder Modulflächen werden vorab geprüft und zuerst gemeldet, ohne eine Vorhersage abzurufen.
+ */
+@Component
+public class FleetForecastService {
+    private final CacheConfig cacheConfig;
+    private final FleetConfig fleetConfig;
+    private final WeatherCache weatherCache;
+    private final SolarPositions solarPositions;
+    private final SolarDayKernel solarDayKernel;
+    private final ForkJoinPool pool;
+    private final Scheduler scheduler;
+
+    public FleetForecastService(CacheConfig cacheConfig, FleetConfig fleetConfig, WeatherCache weatherCache,
+                                SolarPositions solarPositions, SolarDayKernel solarDayKernel) {
+        this.cacheConfig = cacheConfig;
+        this.fleetConfig = fleetConfig;
+        this.weatherCache = weatherCache;
+        this.solarPositions = solarPositions;
+        this.solarDayKernel = solarDayKernel;
+        this.pool = new ForkJoinPool(Math.max(1, fleetConfig.getParallelism()));
+        this.scheduler = Schedulers.fromExecutorService(pool);
+    }
+
+    public int getMaxSites() {
+        return fleetConfig.getMaxSites();
+    }
+
+    public Flux<FleetSiteResult> forecast(List<FleetSite> sites) {
+        // Ungültige Anlagen vor Gruppierung und Abruf aussortieren, sie kosten keine Vorhersage
+        List<FleetSiteResult> rejected = new ArrayList<>();
+        Map<GridCell, List<Site>> byCell = new LinkedHashMap<>();
+        for (FleetSite site : sites) {
+            if (!(Math.abs(site.getLat()) <= 90 && Math.abs(site.getLon()) <= 180)) {
+                rejected.add(FleetSiteResult.failed(site, "Ungültige Koordinaten"));
+                continue;
+            }
+            PvSystem system;
+            try {
+                system = PvSystem.of(site.getArrays());
+            } catch (IllegalArgumentException e) {
+                rejected.add(FleetSiteResult.failed(site, e.getMessage()));
+                continue;
+            }
+            byCell.computeIfAbsent(GridCell.of(site.getLat(), site.getLon(), cacheConfig.getGridSize()),
+                cell -> new ArrayList<>()).add(new Site(site, system));
+        }
+        Flux<FleetSiteResult> computed = Flux.fromIterable(byCell.entrySet())
+            // Abrufe begrenzt parallel, gerechnet wird erst, wenn die Vorhersage der Zelle da ist
+            .flatMap(cell -> batchesOf(cell.getKey(), cell.getValue()), fleetConfig.getFetchConcurrency())
+            .flatMapIterable(batches -> batches)
+            .flatMap(batch -> Mono.fromCallable(() -> compute(batch)).subscribeOn(scheduler),
+                Math.max(1, fleetConfig.getParallelism()))
+            .flatMapIterable(results -> results);
+        return Flux.fromIterable(rejected).concatWith(computed);
+    }
+
+    private Mono<List<Batch>> batchesOf(GridCell cell, List<Site> sites) {
+        return weatherCache.getForecast(cell)
+            .map(entry -> split(entry.value(), sites))
+            .defaultIfEmpty(List.of(new Batch(null, "Keine Vorhersage verfügbar", sites)))
+            .onErrorResume(e -> Mono.just(List.of(new Batch(null, "Vorhersage nicht verfügbar: " + e.getMessage(), sites))));
+    }
+
+    private List<Batch> split(ForecastSeries forecast, List<Site> sites) {
+        int batchSize = Math.max(1, fleetConfig.getBatchSize());
+        List<Batch> batches = new ArrayList<>((sites.size() + batchSize - 1) / batchSize);
+        for (int from = 0; from < sites.size(); from += batchSize) {
+            batches.add(new Batch(forecast, null, sites.subList(from, Math.min(sites.size(), from + batchSize))));
+        }
+        return batches;
+    }
+
+    private List<FleetSiteResult> compute(Batch batch) {
+        List<FleetSiteResult> results = new ArrayList<>(batch.sites().size());
+        // Ein Ergebnisobjekt je Flächenzahl, wiederverwendet für alle Anlagen des Pakets
+        SolarDayResult[] dayResults = new SolarDayResult[PvSystem.MAX_ARRAYS + 1];
+        for (Site site : batch.sites()) {
+            if (batch.error() != null) {
+                results.add(FleetSiteResult.failed(site.site(), batch.error()));
+            } else {
+                results.add(computeSite(batch.forecast(), site.site(), site.system(), dayResults));
+            }
+        }
+        return results;
+    }
+
+    private FleetSiteResult computeSite(ForecastSeries forecast, FleetSite site, PvSystem system,
+                                        SolarDayResult[] dayResults) {
+        SolarDayResult result = dayResults[system.size()];
+        if (result == null) {
+            result = solarDayKernel.newResult(system.size());
+            dayResults[system.size()] = result;
+        }
+
+        // STC-Ertrag aller Flächen als Bezugsgröße, wie in der Einzelansicht
+        double maxTheoretical = 0;
+        for (int a = 0; a < system.size(); a++) {
+            maxTheoretical += 1000.0 * system.getYieldFactor(a) * system.getKwp(a);
+        }
+        SunPath sun = solarPositions.forLocation(site.getLat(), site.getLon());
+        int days = Math.min(forecast.getDayCount(), fleetConfig.getDays());
+        List<FleetSiteResult.Day> yields = new ArrayList<>(days);
+        double[] hourlyCloudCover = new double[SolarDayKernel.STEPS];
+        for (int day = 0; day < days; day++) {
+            LocalDate date = forecast.getDay(day);
+            double cloudCover = forecast.getDayAvgCloudCover(day);
+            forecast.hourlyCloudCovers(day, solarPositions.utcOffsetHours(site.getLon(), date), hourlyCloudCover);
+            solarDayKernel.compute(sun, date, cloudCover, hourlyCloudCover, system,
+                1000.0 * sun.maxSinSunHeight(date), maxTheoretical, result);
+            double[] dailyYields = new double[system.size()];
+            for (int a = 0; a < dailyYields.length; a++) {
+                dailyYields[a] = result.getDailyYield(a);
+            }
+            yields.add(new FleetSiteResult.Day(date.toString(), cloudCover, dailyYields, result.getTotalDailyYield()));
+        }
+        return new FleetSiteResult(site.getId(), site.getLat(), site.getLon(), null, yields);
+    }
+
+    @PreDestroy
+    public void close() {
+        scheduler.dispose();
+        pool.shutdown();
+    }
+
+    // Geprüfte Anlage mit ihrer Modulkonfiguration
+    private record Site(FleetSite site, PvSystem system) {
+    }
+
+    // Anlagen einer Zelle mit gemeinsamer Vorhersage oder gemeinsamem Fehler
+    private record Batch(ForecastSeries forecast, String error, List<Site> sites) {
+    }
+}
@@ -0,0 +1,32 @@
+package de.ortisoft.demo.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Lässt Vorhersagen spätestens dann veralten, wenn OpenWeatherMap den nächsten
+ * Vorhersagelauf veröffentlicht hat (Zyklus plus Veröffentlichungsverzug), höchstens aber nach der TTL.
+ */
+public class ForecastCycleExpiry {
+    private final Duration ttl;
+    private final Duration cycle;
+    private final Duration publishDelay;
+
+    public ForecastCycleExpiry(Duration ttl, Duration cycle, Duration publishDelay) {
+        this.ttl = ttl;
+        this.cycle = cycle;
+        this.publishDelay = publishDelay;
+    }
+
+    public static Duration timeToLive(long nowMillis, Duration ttl, Duration cycle, Duration publishDelay) {
+        long cycleMillis = cycle.toMillis();
+        long delayMillis = publishDelay.toMillis();
+        long lastPublication = Math.floorDiv(nowMillis - delayMillis, cycleMillis) * cycleMillis + delayMillis;
+        long untilNextPublication = lastPublication + cycleMillis - nowMillis;
+        return Duration.ofMillis(Math.min(ttl.toMillis(), untilNextPublication));
+    }
+
+    public Duration timeToLive(Instant now) {
+        return timeToLive(now.toEpochMilli(), ttl, cycle, publishDelay);
+    }
+}
@@ -0,0 +1,114 @@
+package de.ortisoft.demo.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import de.ortisoft.demo.model.ForecastSeries;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Liest die Antwort von /data/2.5/forecast Token für Token direkt in eine {@link ForecastSeries}.
+ * Es entsteht kein Objektgraph; verwendet werden nur {@code dt}, {@code main.temp}, {@code main.humidity},
+ * {@code clouds.all} und die erste {@code weather[].description}, alles andere wird übersprungen.
+ */
+@Component
+public class ForecastDecoder {
+    private static final int DEFAULT_CAPACITY = 40;  // 5 Tage × 8 Zeitschritte
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ForecastSeries decode(byte[] payload) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(payload)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            ForecastSeries.Builder builder = null;
+            int expectedSize = DEFAULT_CAPACITY;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("cnt".equals(field) && value == JsonToken.VALUE_NUMBER_INT) {
+                    expectedSize = parser.getIntValue();
+                } else if ("list".equals(field) && value == JsonToken.START_ARRAY) {
+                    builder = ForecastSeries.builder(expectedSize);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        readItem(parser, builder);
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return (builder != null ? builder : ForecastSeries.builder(0)).build();
+        }
+    }
+
+    private void readItem(JsonParser parser, ForecastSeries.Builder builder) throws IOException {
+        long epochSecond = 0;
+        double temp = Double.NaN;
+        int humidity = 0;
+        int cloudCover = 0;
+        int description = -1;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "dt" -> epochSecond = parser.getLongValue();
+                case "main" -> {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String mainField = parser.currentName();
+                        parser.nextToken();
+                        if ("temp".equals(mainField)) {
+                            temp = parser.getDoubleValue();
+                        } else if ("humidity".equals(mainField)) {
+                            humidity = parser.getIntValue();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+                case "clouds" -> {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String cloudsField = parser.currentName();
+                        parser.nextToken();
+                        if ("all".equals(cloudsField)) {
+                            cloudCover = parser.getIntValue();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                }
+                case "weather" -> description = readFirstDescription(parser, builder);
+                default -> {
+                    if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+        builder.add(epochSecond, temp, humidity, cloudCover,
+            description >= 0 ? description : builder.descriptionIndex(""));
+    }
+
+    private int readFirstDescription(JsonParser parser, ForecastSeries.Builder builder) throws IOException {
+        int description = -1;
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (description < 0 && "description".equals(field)) {
+                    description = builder.descriptionIndex(parser.getTextCharacters(),
+                        parser.getTextOffset(), parser.getTextLength());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return description;
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unerwartetes Vorhersageformat: " + actual + " statt " + expected);
+        }
+    }
+}
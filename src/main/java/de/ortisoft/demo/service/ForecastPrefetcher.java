@@ -0,0 +1,73 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.PrefetchConfig;
+import de.ortisoft.demo.config.QuotaConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Instant;
+
+/**
+ * Hält die Vorhersagen der beliebtesten Zellen warm: erneuert sie kurz bevor sie veralten,
+ * in kleinen parallelen Gruppen und mit Hintergrundpriorität. Pro Lauf werden höchstens so viele
+ * Abrufe gestartet, wie der konfigurierte Anteil am Kontingent für ein Intervall hergibt.
+ */
+@Component
+public class ForecastPrefetcher {
+    private final PrefetchConfig prefetchConfig;
+    private final HotCellTracker hotCellTracker;
+    private final WeatherCache weatherCache;
+    private final Clock clock;
+    private final int budgetPerRun;
+    private final Counter prefetched;
+
+    public ForecastPrefetcher(PrefetchConfig prefetchConfig, QuotaConfig quotaConfig, HotCellTracker hotCellTracker,
+                              WeatherCache weatherCache, MeterRegistry meterRegistry, Clock clock) {
+        this.prefetchConfig = prefetchConfig;
+        this.hotCellTracker = hotCellTracker;
+        this.weatherCache = weatherCache;
+        this.clock = clock;
+        double intervalMinutes = prefetchConfig.getInterval().toMillis() / 60_000.0;
+        this.budgetPerRun = (int) (prefetchConfig.getQuotaShare() * quotaConfig.getCallsPerMinute() * intervalMinutes);
+        // Abgerundet auf 0 wäre der Prefetch stillschweigend aus
+        if (prefetchConfig.isEnabled() && budgetPerRun < 1) {
+            throw new IllegalArgumentException("weather.prefetch.quota-share × Kontingent × interval ergibt weniger als "
+                + "einen Abruf je Lauf; Anteil oder Intervall erhöhen oder weather.prefetch.enabled=false setzen");
+        }
+        this.prefetched = meterRegistry.counter("weather.prefetch.requests");
+    }
+
+    @Scheduled(fixedDelayString = "${weather.prefetch.interval:5m}",
+        initialDelayString = "${weather.prefetch.interval:5m}")
+    public void prefetch() {
+        if (prefetchConfig.isEnabled()) {
+            run().subscribe();
+        }
+    }
+
+    public int getBudgetPerRun() {
+        return budgetPerRun;
+    }
+
+    /**
+     * Ein Prefetch-Lauf; liefert die Zahl der erneuerten Vorhersagen.
+     */
+    Mono<Long> run() {
+        // Dieselbe Uhr wie die Ablaufzeiten im WeatherCache
+        Instant horizon = clock.instant().plus(prefetchConfig.getLookahead());
+        return Flux.fromIterable(hotCellTracker.getTopCells())
+            .filter(cell -> weatherCache.isForecastDueBefore(cell, horizon))
+            .take(budgetPerRun)
+            .flatMap(cell -> UpstreamQuota.inBackground(weatherCache.refreshForecast(cell))
+                    .doOnNext(entry -> prefetched.increment())
+                    // Kontingent aus oder Upstream gestört: die Zelle kommt im nächsten Lauf wieder dran
+                    .onErrorResume(error -> Mono.empty()),
+                prefetchConfig.getConcurrency())
+            .count();
+    }
+}
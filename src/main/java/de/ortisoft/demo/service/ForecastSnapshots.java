@@ -0,0 +1,45 @@
+package de.ortisoft.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.model.ForecastSeries;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Merkt sich, mit welchem Vorhersagestand eine Solarprognose gerechnet wurde. Die Antwort trägt ein Token;
+ * ändert der Benutzer nur die Anlagenwerte, rechnet der Server mit diesem Stand neu, ohne Upstream-Abruf.
+ * Der Stand bleibt erhalten, auch wenn der {@link WeatherCache} die Vorhersage inzwischen verdrängt hat.
+ */
+@Component
+public class ForecastSnapshots {
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<String, Snapshot> snapshots;
+
+    public ForecastSnapshots(CacheConfig cacheConfig) {
+        CacheConfig.Spec spec = cacheConfig.getSnapshot();
+        this.snapshots = Caffeine.newBuilder()
+            .maximumSize(spec.getMaximumSize())
+            .expireAfterAccess(spec.getTtl())
+            .build();
+    }
+
+    public String register(double lat, double lon, CacheEntry<ForecastSeries> forecast) {
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        snapshots.put(token, new Snapshot(lat, lon, forecast));
+        return token;
+    }
+
+    public Optional<Snapshot> find(String token) {
+        return Optional.ofNullable(snapshots.getIfPresent(token));
+    }
+
+    public record Snapshot(double lat, double lon, CacheEntry<ForecastSeries> forecast) {
+    }
+}
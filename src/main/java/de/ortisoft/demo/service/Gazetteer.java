@@ -0,0 +1,193 @@
+package de.ortisoft.demo.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Kompaktes, nach Breitengrad sortiertes Ortsverzeichnis in einer memory-mapped Binärdatei.
+ *
+ * Format (Big Endian):
+ * Header  int magic "GZT1", int count, int minLat, int maxLat, int minLon, int maxLon
+ * Records count × (int lat, int lon, int nameOffset), Koordinaten in 1e-5 Grad
+ * Namen   je unsigned short Länge + UTF-8-Bytes, nameOffset relativ zum Beginn dieses Blocks
+ *
+ * Eine Abfrage sucht per Binärsuche das Breitenband um den Punkt und prüft nur dieses.
+ * Erzeugt wird die Datei mit dem Gradle-Task {@code gazetteer} (siehe {@code GazetteerConverter}).
+ */
+public class Gazetteer {
+    private static final int MAGIC = 0x475A5431;  // "GZT1"
+    private static final int HEADER_BYTES = 24;
+    private static final int RECORD_BYTES = 12;
+    private static final double SCALE = 100_000.0;
+    private static final double METERS_PER_DEGREE = Math.PI * 6_371_000.0 / 180.0;
+
+    private final ByteBuffer buffer;
+    private final int count;
+    private final int minLat;
+    private final int maxLat;
+    private final int minLon;
+    private final int maxLon;
+    private final int namesStart;
+
+    private Gazetteer(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Keine Gazetteer-Datei (falsche Kennung)");
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(4);
+        this.minLat = buffer.getInt(8);
+        this.maxLat = buffer.getInt(12);
+        this.minLon = buffer.getInt(16);
+        this.maxLon = buffer.getInt(20);
+        this.namesStart = HEADER_BYTES + count * RECORD_BYTES;
+    }
+
+    public static Gazetteer open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // Die Abbildung bleibt nach dem Schließen des Kanals gültig
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new Gazetteer(mapped);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean covers(double lat, double lon, double maxDistanceMeters) {
+        double marginLat = maxDistanceMeters / METERS_PER_DEGREE;
+        double marginLon = marginLat / Math.max(Math.cos(Math.toRadians(lat)), 0.01);
+        return lat >= minLat / SCALE - marginLat && lat <= maxLat / SCALE + marginLat
+            && lon >= minLon / SCALE - marginLon && lon <= maxLon / SCALE + marginLon;
+    }
+
+    /**
+     * Liefert den Namen des nächstgelegenen Ortes oder {@code null}, wenn im Umkreis keiner liegt.
+     */
+    public String findNearest(double lat, double lon, double maxDistanceMeters) {
+        if (count == 0 || !covers(lat, lon, maxDistanceMeters)) {
+            return null;
+        }
+        double cosLat = Math.cos(Math.toRadians(lat));
+        int latSpan = (int) Math.ceil(maxDistanceMeters / METERS_PER_DEGREE * SCALE);
+        int lonSpan = (int) Math.ceil(latSpan / Math.max(cosLat, 0.01));
+        int latE5 = (int) Math.round(lat * SCALE);
+        int lonE5 = (int) Math.round(lon * SCALE);
+
+        double maxDistanceE5 = maxDistanceMeters / METERS_PER_DEGREE * SCALE;
+        double nearestDistance = maxDistanceE5 * maxDistanceE5;
+        int nearest = -1;
+        for (int i = lowerBound(latE5 - latSpan); i < count; i++) {
+            int position = HEADER_BYTES + i * RECORD_BYTES;
+            int recordLat = buffer.getInt(position);
+            if (recordLat > latE5 + latSpan) {
+                break;
+            }
+            int recordLon = buffer.getInt(position + 4);
+            if (Math.abs(recordLon - lonE5) > lonSpan) {
+                continue;
+            }
+            double dy = recordLat - latE5;
+            double dx = (recordLon - lonE5) * cosLat;
+            double distance = dx * dx + dy * dy;
+            if (distance <= nearestDistance) {
+                nearestDistance = distance;
+                nearest = i;
+            }
+        }
+        return nearest >= 0 ? readName(nearest) : null;
+    }
+
+    // Erster Record mit Breitengrad >= latE5
+    private int lowerBound(int latE5) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (buffer.getInt(HEADER_BYTES + mid * RECORD_BYTES) < latE5) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private String readName(int index) {
+        int offset = namesStart + buffer.getInt(HEADER_BYTES + index * RECORD_BYTES + 8);
+        int length = Short.toUnsignedInt(buffer.getShort(offset));
+        byte[] bytes = new byte[length];
+        buffer.get(offset + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void write(List<Place> places, Path file) throws IOException {
+        List<Place> sorted = new ArrayList<>(places);
+        sorted.sort(Comparator.comparingDouble(Place::lat));
+
+        List<byte[]> names = new ArrayList<>(sorted.size());
+        int namesBytes = 0;
+        for (Place place : sorted) {
+            byte[] name = place.name().getBytes(StandardCharsets.UTF_8);
+            if (name.length > 0xFFFF) {
+                throw new IllegalArgumentException("Ortsname zu lang: " + place.name());
+            }
+            names.add(name);
+            namesBytes += 2 + name.length;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_BYTES + sorted.size() * RECORD_BYTES + namesBytes);
+        int minLat = Integer.MAX_VALUE;
+        int maxLat = Integer.MIN_VALUE;
+        int minLon = Integer.MAX_VALUE;
+        int maxLon = Integer.MIN_VALUE;
+        out.position(HEADER_BYTES);
+        int nameOffset = 0;
+        for (int i = 0; i < sorted.size(); i++) {
+            int lat = (int) Math.round(sorted.get(i).lat() * SCALE);
+            int lon = (int) Math.round(sorted.get(i).lon() * SCALE);
+            minLat = Math.min(minLat, lat);
+            maxLat = Math.max(maxLat, lat);
+            minLon = Math.min(minLon, lon);
+            maxLon = Math.max(maxLon, lon);
+            out.putInt(lat).putInt(lon).putInt(nameOffset);
+            nameOffset += 2 + names.get(i).length;
+        }
+        for (byte[] name : names) {
+            out.putShort((short) name.length).put(name);
+        }
+        out.putInt(0, MAGIC).putInt(4, sorted.size())
+            .putInt(8, minLat).putInt(12, maxLat).putInt(16, minLon).putInt(20, maxLon);
+        Files.write(file, out.array());
+    }
+
+    /**
+     * Liest bewohnte Orte (Feature-Klasse P) aus einem GeoNames-Export, z.B. DE.txt von download.geonames.org.
+     */
+    public static List<Place> readGeoNames(Path tsv) throws IOException {
+        List<Place> places = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(tsv, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split("\t", -1);
+                if (columns.length > 7 && "P".equals(columns[6])) {
+                    places.add(new Place(columns[1], Double.parseDouble(columns[4]), Double.parseDouble(columns[5])));
+                }
+            }
+        }
+        return places;
+    }
+
+    public record Place(String name, double lat, double lon) {
+    }
+}
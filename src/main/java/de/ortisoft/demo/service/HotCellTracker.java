@@ -0,0 +1,94 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.PrefetchConfig;
+import de.ortisoft.demo.model.GridCell;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Zählt, wie oft welche Gitterzelle angefragt wird, und führt die K beliebtesten.
+ * Häufigkeiten kommen aus einem Count-Min Sketch, die Kandidaten liegen in einem Min-Heap,
+ * sodass eine neue Zelle nur die bisher schwächste verdrängen muss.
+ */
+@Component
+public class HotCellTracker {
+    private final CacheConfig cacheConfig;
+    private final int capacity;
+    private final CountMinSketch sketch;
+    private final Map<GridCell, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(Candidate::count));
+
+    public HotCellTracker(CacheConfig cacheConfig, PrefetchConfig prefetchConfig) {
+        this.cacheConfig = cacheConfig;
+        this.capacity = prefetchConfig.getTopK();
+        this.sketch = new CountMinSketch(prefetchConfig.getSketchWidth(), prefetchConfig.getSketchDepth());
+    }
+
+    public void record(double lat, double lon) {
+        record(GridCell.of(lat, lon, cacheConfig.getGridSize()));
+    }
+
+    public synchronized void record(GridCell cell) {
+        long estimate = sketch.add(keyOf(cell));
+        Candidate existing = candidates.get(cell);
+        if (existing != null) {
+            heap.remove(existing);
+        } else if (candidates.size() >= capacity) {
+            if (capacity == 0 || estimate <= heap.peek().count()) {
+                return;
+            }
+            candidates.remove(heap.poll().cell());
+        }
+        Candidate updated = new Candidate(cell, estimate);
+        candidates.put(cell, updated);
+        heap.add(updated);
+    }
+
+    public synchronized long estimate(GridCell cell) {
+        return sketch.estimate(keyOf(cell));
+    }
+
+    /**
+     * Die beliebtesten Zellen, häufigste zuerst.
+     */
+    public synchronized List<GridCell> getTopCells() {
+        List<Candidate> sorted = new ArrayList<>(candidates.values());
+        sorted.sort(Comparator.comparingLong(Candidate::count).reversed());
+        List<GridCell> cells = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            cells.add(candidate.cell());
+        }
+        return cells;
+    }
+
+    @Scheduled(fixedDelayString = "${weather.prefetch.decay-interval:1h}",
+        initialDelayString = "${weather.prefetch.decay-interval:1h}")
+    public synchronized void decay() {
+        sketch.halve();
+        List<Candidate> halved = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates.values()) {
+            halved.add(new Candidate(candidate.cell(), candidate.count() / 2));
+        }
+        candidates.clear();
+        heap.clear();
+        for (Candidate candidate : halved) {
+            candidates.put(candidate.cell(), candidate);
+            heap.add(candidate);
+        }
+    }
+
+    private static long keyOf(GridCell cell) {
+        return cell.latIndex() * 0x9E3779B97F4A7C15L ^ cell.lonIndex();
+    }
+
+    private record Candidate(GridCell cell, long count) {
+    }
+}
@@ -0,0 +1,46 @@
+package de.ortisoft.demo.service;
+
+import java.util.Arrays;
+
+/**
+ * Perzentil der letzten erfolgreichen Antwortzeiten eines Endpunkts.
+ * Das Perzentil wird nur alle paar Messungen neu sortiert, Lesen kostet einen volatile-Zugriff.
+ */
+public class LatencyTracker {
+    static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    private final double percentile;
+    private final long[] samples;
+    private int next;
+    private int count;
+    private int sinceRecompute;
+    private volatile long percentileNanos = -1;
+
+    public LatencyTracker(int window, double percentile) {
+        this.samples = new long[window];
+        this.percentile = percentile;
+    }
+
+    public synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        if (count < samples.length) {
+            count++;
+        }
+        if (count >= MIN_SAMPLES && (++sinceRecompute >= RECOMPUTE_INTERVAL || percentileNanos < 0)) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            percentileNanos = sorted[Math.max(0, Math.min(index, count - 1))];
+        }
+    }
+
+    /**
+     * Perzentil in Nanosekunden oder -1, solange noch zu wenige Messungen vorliegen.
+     */
+    public long getPercentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,113 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.GeoConfig;
+import de.ortisoft.demo.model.GeoResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Räumlicher Index bereits aufgelöster Ortsnamen.
+ * Die Punkte liegen in quadratischen Gitter-Buckets mit der Kantenlänge des Suchradius;
+ * eine Abfrage prüft nur die Buckets, die den Suchkreis überdecken.
+ * Bei Überschreiten der Maximalgröße werden die ältesten Einträge verdrängt.
+ */
+@Component
+public class LocationIndex {
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    private static final double METERS_PER_DEGREE = Math.PI * EARTH_RADIUS_METERS / 180.0;
+
+    private final double radiusMeters;
+    private final double bucketSize;  // in Grad
+    private final int maxEntries;
+    private final Map<Long, List<Entry>> buckets = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public LocationIndex(GeoConfig geoConfig) {
+        this.radiusMeters = geoConfig.getIndexRadiusMeters();
+        this.bucketSize = radiusMeters / METERS_PER_DEGREE;
+        this.maxEntries = geoConfig.getIndexMaxEntries();
+    }
+
+    public GeoResponse findNearest(double lat, double lon) {
+        double cosLat = Math.cos(Math.toRadians(lat));
+        // In Ost-West-Richtung sind Längengrade kürzer, also mehr Buckets abdecken
+        double lonSpan = bucketSize / Math.max(cosLat, 0.01);
+        long minLat = bucketIndex(lat - bucketSize);
+        long maxLat = bucketIndex(lat + bucketSize);
+        long minLon = bucketIndex(lon - lonSpan);
+        long maxLon = bucketIndex(lon + lonSpan);
+
+        Entry nearest = null;
+        double nearestDistance = radiusMeters * radiusMeters;
+        for (long latIndex = minLat; latIndex <= maxLat; latIndex++) {
+            for (long lonIndex = minLon; lonIndex <= maxLon; lonIndex++) {
+                List<Entry> bucket = buckets.get(key(latIndex, lonIndex));
+                if (bucket == null) {
+                    continue;
+                }
+                synchronized (bucket) {
+                    for (Entry entry : bucket) {
+                        // Äquirektangulare Näherung, für wenige hundert Meter ausreichend genau
+                        double dy = (entry.lat - lat) * METERS_PER_DEGREE;
+                        double dx = (entry.lon - lon) * METERS_PER_DEGREE * cosLat;
+                        double distance = dx * dx + dy * dy;
+                        if (distance <= nearestDistance) {
+                            nearest = entry;
+                            nearestDistance = distance;
+                        }
+                    }
+                }
+            }
+        }
+        return nearest != null ? nearest.response : null;
+    }
+
+    public void put(double lat, double lon, GeoResponse response) {
+        Entry entry = new Entry(lat, lon, response);
+        List<Entry> bucket = buckets.computeIfAbsent(key(bucketIndex(lat), bucketIndex(lon)), k -> new ArrayList<>());
+        synchronized (bucket) {
+            bucket.add(entry);
+        }
+        insertionOrder.add(entry);
+        if (size.incrementAndGet() > maxEntries) {
+            evictOldest();
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    private void evictOldest() {
+        Entry oldest = insertionOrder.poll();
+        if (oldest == null) {
+            return;
+        }
+        List<Entry> bucket = buckets.get(key(bucketIndex(oldest.lat), bucketIndex(oldest.lon)));
+        if (bucket != null) {
+            synchronized (bucket) {
+                bucket.remove(oldest);
+            }
+        }
+        size.decrementAndGet();
+    }
+
+    private long bucketIndex(double degrees) {
+        return (long) Math.floor(degrees / bucketSize);
+    }
+
+    private static long key(long latIndex, long lonIndex) {
+        return (latIndex << 32) ^ (lonIndex & 0xffffffffL);
+    }
+
+    private record Entry(double lat, double lon, GeoResponse response) {
+    }
+}
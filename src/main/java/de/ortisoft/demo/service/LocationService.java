@@ -1,61 +1,59 @@
 package de.ortisoft.demo.service;
 
-import de.ortisoft.demo.config.WeatherConfig;
 import de.ortisoft.demo.model.GeoResponse;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 @Service
 public class LocationService {
-    private static final String GEO_API_URL = "http://api.openweathermap.org/geo/1.0/reverse";
-    
-    private final WeatherConfig weatherConfig;
-    private final RestTemplate restTemplate;
-
-    public LocationService(WeatherConfig weatherConfig, RestTemplate restTemplate) {
-        this.weatherConfig = weatherConfig;
-        this.restTemplate = restTemplate;
+    public static final String UNKNOWN_LOCATION = "Unbekannter Ort";
+
+    private final OpenWeatherClient openWeatherClient;
+    private final LocationIndex locationIndex;
+    private final OfflineGeocoder offlineGeocoder;
+
+    public LocationService(OpenWeatherClient openWeatherClient, LocationIndex locationIndex,
+                           OfflineGeocoder offlineGeocoder) {
+        this.openWeatherClient = openWeatherClient;
+        this.locationIndex = locationIndex;
+        this.offlineGeocoder = offlineGeocoder;
     }
 
-    public String getLocationInfo(double lat, double lon) {
-        String url = UriComponentsBuilder.fromUriString(GEO_API_URL)
-            .queryParam("lat", lat)
-            .queryParam("lon", lon)
-            .queryParam("limit", 1)
-            .queryParam("appid", weatherConfig.getKey())
-            .build()
-            .toString();
-
-        try {
-            GeoResponse[] response = restTemplate.getForObject(url, GeoResponse[].class);
-            if (response != null && response.length > 0) {
-                return response[0].getName();
+    public Mono<GeoResponse> getLocation(double lat, double lon) {
+        return Mono.defer(() -> {
+            // Ortsnamen ändern sich auf wenigen hundert Metern kaum: erst im Index nachsehen
+            GeoResponse known = locationIndex.findNearest(lat, lon);
+            if (known != null) {
+                return Mono.just(known);
             }
-        } catch (Exception e) {
-            // Log error and return fallback
-        }
-        return String.format("%.6f°, %.6f°", lat, lon);
+            // Innerhalb Deutschlands beantwortet das Offline-Verzeichnis die Anfrage ohne Netzwerk
+            GeoResponse offline = offlineGeocoder.findNearest(lat, lon);
+            if (offline != null) {
+                return Mono.just(offline);
+            }
+            return openWeatherClient.fetchLocation(lat, lon)
+                .doOnNext(location -> locationIndex.put(lat, lon, location))
+                // Log error and return fallback
+                .onErrorResume(e -> Mono.empty());
+        });
     }
 
-    public String getLocationName(double lat, double lon) {
-        try {
-            String url = UriComponentsBuilder.fromUriString(GEO_API_URL)
-                .queryParam("lat", lat)
-                .queryParam("lon", lon)
-                .queryParam("limit", 1)
-                .queryParam("appid", weatherConfig.getKey())
-                .build()
-                .toString();
-
-            GeoResponse[] response = restTemplate.getForObject(url, GeoResponse[].class);
-            
-            if (response != null && response.length > 0) {
-                return response[0].getName();
-            }
-            return "Unbekannter Ort";
-        } catch (Exception e) {
-            return "Unbekannter Ort";
+    public Mono<String> getLocationInfo(double lat, double lon) {
+        return getLocation(lat, lon)
+            .mapNotNull(GeoResponse::getName)
+            .defaultIfEmpty(String.format("%.6f°, %.6f°", lat, lon));
+    }
+
+    public Mono<String> getLocationName(double lat, double lon) {
+        return getLocation(lat, lon)
+            .map(this::getLocationName)
+            .defaultIfEmpty(UNKNOWN_LOCATION);
+    }
+
+    public String getLocationName(GeoResponse location) {
+        if (location != null && location.getName() != null) {
+            return location.getName();
         }
+        return UNKNOWN_LOCATION;
     }
-} 
\ No newline at end of file
+}
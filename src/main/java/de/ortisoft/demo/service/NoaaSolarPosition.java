@@ -0,0 +1,93 @@
+package de.ortisoft.demo.service;
+
+/**
+ * Sonnenstand nach dem Verfahren des NOAA Solar Calculator (Meeus, Astronomical Algorithms):
+ * scheinbare Sonnenlänge, Schiefe der Ekliptik, Zeitgleichung und Stundenwinkel aus UTC und geografischer
+ * Länge, dazu die atmosphärische Refraktion. Für 1800–2100 genauer als 0,01°; teurer als die Tabelle,
+ * deshalb merkt sich {@link SolarPositions} die Ergebnisse je Zelle und Tag.
+ *
+ * Ausgabe wie in der {@link SolarGeometryTable}: Höhe in Grad, sin(Höhe), Nord- und Ostkomponente.
+ */
+final class NoaaSolarPosition {
+    static final int HEIGHT = 0;
+    static final int SIN_HEIGHT = 1;
+    static final int NORTH = 2;
+    static final int EAST = 3;
+    static final int STRIDE = 4;
+
+    private NoaaSolarPosition() {
+    }
+
+    static void compute(double lat, double lon, long epochSecond, double[] out, int offset) {
+        double julianDay = epochSecond / 86_400.0 + 2_440_587.5;
+        double t = (julianDay - 2_451_545.0) / 36_525.0;  // Julianische Jahrhunderte seit J2000
+
+        double meanLongitude = degrees360(280.46646 + t * (36000.76983 + t * 0.0003032));
+        double meanAnomaly = Math.toRadians(357.52911 + t * (35999.05029 - 0.0001537 * t));
+        double eccentricity = 0.016708634 - t * (0.000042037 + 0.0000001267 * t);
+        double center = Math.sin(meanAnomaly) * (1.914602 - t * (0.004817 + 0.000014 * t))
+            + Math.sin(2 * meanAnomaly) * (0.019993 - 0.000101 * t)
+            + Math.sin(3 * meanAnomaly) * 0.000289;
+        double omega = Math.toRadians(125.04 - 1934.136 * t);
+        double apparentLongitude = Math.toRadians(meanLongitude + center - 0.00569 - 0.00478 * Math.sin(omega));
+        double meanObliquity = 23.0 + (26.0 + (21.448 - t * (46.815 + t * (0.00059 - t * 0.001813))) / 60.0) / 60.0;
+        double obliquity = Math.toRadians(meanObliquity + 0.00256 * Math.cos(omega));
+
+        double sinDec = Math.sin(obliquity) * Math.sin(apparentLongitude);
+        double cosDec = Math.sqrt(1.0 - sinDec * sinDec);
+
+        // Zeitgleichung in Minuten
+        double y = Math.tan(obliquity / 2) * Math.tan(obliquity / 2);
+        double l0 = Math.toRadians(meanLongitude);
+        double equationOfTime = 4.0 * Math.toDegrees(y * Math.sin(2 * l0)
+            - 2 * eccentricity * Math.sin(meanAnomaly)
+            + 4 * eccentricity * y * Math.sin(meanAnomaly) * Math.cos(2 * l0)
+            - 0.5 * y * y * Math.sin(4 * l0)
+            - 1.25 * eccentricity * eccentricity * Math.sin(2 * meanAnomaly));
+
+        // Wahre Ortszeit in Minuten, daraus der Stundenwinkel (0 am wahren Mittag)
+        double trueSolarMinutes = Math.floorMod(epochSecond, 86_400L) / 60.0 + equationOfTime + 4.0 * lon;
+        double hourAngle = Math.toRadians(trueSolarMinutes / 4.0 - 180.0);
+
+        double latRad = Math.toRadians(lat);
+        double sinLat = Math.sin(latRad);
+        double cosLat = Math.cos(latRad);
+        double cosHourAngle = Math.cos(hourAngle);
+        double sinHeight = sinLat * sinDec + cosLat * cosDec * cosHourAngle;
+        double north = sinDec * cosLat - cosDec * sinLat * cosHourAngle;
+        double east = -cosDec * Math.sin(hourAngle);
+
+        // Refraktion hebt die Sonne an, die Richtung bleibt
+        double height = Math.toDegrees(Math.asin(Math.max(-1.0, Math.min(1.0, sinHeight))));
+        double apparentHeight = height + refraction(height);
+        double horizontal = Math.hypot(north, east);
+        double scale = horizontal > 1e-12 ? Math.cos(Math.toRadians(apparentHeight)) / horizontal : 0;
+
+        out[offset + HEIGHT] = apparentHeight;
+        out[offset + SIN_HEIGHT] = Math.sin(Math.toRadians(apparentHeight));
+        out[offset + NORTH] = north * scale;
+        out[offset + EAST] = east * scale;
+    }
+
+    private static double degrees360(double degrees) {
+        double reduced = degrees % 360.0;
+        return reduced < 0 ? reduced + 360.0 : reduced;
+    }
+
+    /** Atmosphärische Refraktion in Grad für die geometrische Sonnenhöhe in Grad (NOAA-Näherung). */
+    static double refraction(double height) {
+        if (height > 85.0) {
+            return 0;
+        }
+        double tanHeight = Math.tan(Math.toRadians(height));
+        double arcSeconds;
+        if (height > 5.0) {
+            arcSeconds = 58.1 / tanHeight - 0.07 / Math.pow(tanHeight, 3) + 0.000086 / Math.pow(tanHeight, 5);
+        } else if (height > -0.575) {
+            arcSeconds = 1735.0 + height * (-518.2 + height * (103.4 + height * (-12.79 + height * 0.711)));
+        } else {
+            arcSeconds = -20.772 / tanHeight;
+        }
+        return arcSeconds / 3600.0;
+    }
+}
@@ -0,0 +1,54 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.GeoConfig;
+import de.ortisoft.demo.model.GeoResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Reverse Geocoding aus dem optionalen Offline-Ortsverzeichnis.
+ * Ist kein Pfad konfiguriert, liefert jede Abfrage {@code null} und die Geo-API übernimmt.
+ */
+@Component
+public class OfflineGeocoder {
+    private static final String COUNTRY = "DE";
+
+    private final Gazetteer gazetteer;
+    private final double maxDistanceMeters;
+
+    public OfflineGeocoder(GeoConfig geoConfig) {
+        this.maxDistanceMeters = geoConfig.getGazetteerMaxDistanceMeters();
+        String path = geoConfig.getGazetteerPath();
+        if (path == null || path.isBlank()) {
+            this.gazetteer = null;
+            return;
+        }
+        try {
+            this.gazetteer = Gazetteer.open(Path.of(path));
+        } catch (IOException e) {
+            // Ein ausdrücklich konfiguriertes Verzeichnis, das fehlt, ist ein Konfigurationsfehler
+            throw new UncheckedIOException("Ortsverzeichnis " + path + " konnte nicht geladen werden", e);
+        }
+    }
+
+    public boolean isEnabled() {
+        return gazetteer != null;
+    }
+
+    public GeoResponse findNearest(double lat, double lon) {
+        if (gazetteer == null) {
+            return null;
+        }
+        String name = gazetteer.findNearest(lat, lon, maxDistanceMeters);
+        if (name == null) {
+            return null;
+        }
+        GeoResponse response = new GeoResponse();
+        response.setName(name);
+        response.setCountry(COUNTRY);
+        return response;
+    }
+}
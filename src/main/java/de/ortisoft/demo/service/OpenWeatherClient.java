@@ -0,0 +1,104 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.ResilienceConfig;
+import de.ortisoft.demo.config.WeatherConfig;
+import de.ortisoft.demo.model.GeoResponse;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Nicht-blockierender Zugriff auf die OpenWeatherMap-Endpunkte.
+ * Wird von WeatherService und LocationService gemeinsam genutzt; gleichzeitige
+ * Abrufe für dieselben Koordinaten werden zu einem Upstream-Aufruf zusammengefasst.
+ * Jeder Endpunkt hat einen eigenen {@link UpstreamGuard} (Circuit Breaker, Frist, Hedging);
+ * alle teilen sich das Abrufkontingent {@link UpstreamQuota}.
+ */
+@Service
+public class OpenWeatherClient {
+    static final String WEATHER_PATH = "/data/2.5/weather";
+    static final String FORECAST_PATH = "/data/2.5/forecast";
+    static final String GEO_PATH = "/geo/1.0/reverse";
+
+    private final WeatherConfig weatherConfig;
+    private final WebClient webClient;
+    private final RequestCoalescer<Coordinates, byte[]> currentWeatherRequests = new RequestCoalescer<>();
+    private final RequestCoalescer<Coordinates, byte[]> forecastRequests = new RequestCoalescer<>();
+    private final RequestCoalescer<Coordinates, GeoResponse> locationRequests = new RequestCoalescer<>();
+    private final UpstreamGuard currentWeatherGuard;
+    private final UpstreamGuard forecastGuard;
+    private final UpstreamGuard locationGuard;
+
+    public OpenWeatherClient(WeatherConfig weatherConfig, WebClient weatherWebClient, ResilienceConfig resilienceConfig,
+                             UpstreamQuota upstreamQuota) {
+        this.weatherConfig = weatherConfig;
+        this.webClient = weatherWebClient;
+        this.currentWeatherGuard = new UpstreamGuard(WEATHER_PATH, resilienceConfig.getCurrentDeadline(),
+            resilienceConfig, upstreamQuota);
+        this.forecastGuard = new UpstreamGuard(FORECAST_PATH, resilienceConfig.getForecastDeadline(),
+            resilienceConfig, upstreamQuota);
+        this.locationGuard = new UpstreamGuard(GEO_PATH, resilienceConfig.getGeoDeadline(),
+            resilienceConfig, upstreamQuota);
+    }
+
+    /**
+     * Rohe JSON-Antwort des Wetter-Endpunkts; dekodiert wird erst im Cache, damit die Bytes unverändert
+     * im {@link ResponseStore} landen.
+     */
+    public Mono<byte[]> fetchCurrentWeather(double lat, double lon) {
+        return currentWeatherRequests.execute(new Coordinates(lat, lon),
+            () -> currentWeatherGuard.call(() -> get(WEATHER_PATH, lat, lon)));
+    }
+
+    public Mono<byte[]> fetchForecast(double lat, double lon) {
+        return forecastRequests.execute(new Coordinates(lat, lon),
+            () -> forecastGuard.call(() -> get(FORECAST_PATH, lat, lon)));
+    }
+
+    public Mono<GeoResponse> fetchLocation(double lat, double lon) {
+        return locationRequests.execute(new Coordinates(lat, lon), () -> getLocation(lat, lon));
+    }
+
+    public CircuitBreaker.State getCircuitState(String path) {
+        return switch (path) {
+            case WEATHER_PATH -> currentWeatherGuard.getCircuitState();
+            case FORECAST_PATH -> forecastGuard.getCircuitState();
+            case GEO_PATH -> locationGuard.getCircuitState();
+            default -> throw new IllegalArgumentException("Unbekannter Endpunkt: " + path);
+        };
+    }
+
+    private Mono<GeoResponse> getLocation(double lat, double lon) {
+        return locationGuard.call(() -> webClient.get()
+            .uri(uriBuilder -> uriBuilder.path(GEO_PATH)
+                .queryParam("lat", lat)
+                .queryParam("lon", lon)
+                .queryParam("limit", 1)
+                .queryParam("appid", weatherConfig.getKey())
+                .build())
+            .retrieve()
+            .onStatus(HttpStatusCode::isError,
+                response -> Mono.error(new UpstreamException(GEO_PATH, response.statusCode().value())))
+            .bodyToMono(GeoResponse[].class))
+            .flatMap(response -> response.length > 0 ? Mono.just(response[0]) : Mono.empty());
+    }
+
+    private Mono<byte[]> get(String path, double lat, double lon) {
+        return webClient.get()
+            .uri(uriBuilder -> uriBuilder.path(path)
+                .queryParam("lat", lat)
+                .queryParam("lon", lon)
+                .queryParam("appid", weatherConfig.getKey())
+                .queryParam("units", "metric")
+                .queryParam("lang", "de")
+                .build())
+            .retrieve()
+            .onStatus(HttpStatusCode::isError,
+                response -> Mono.error(new UpstreamException(path, response.statusCode().value())))
+            .bodyToMono(byte[].class);
+    }
+
+    private record Coordinates(double lat, double lon) {
+    }
+}
@@ -0,0 +1,122 @@
+package de.ortisoft.demo.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.OrientationSurface;
+import de.ortisoft.demo.model.PvArrayConfig;
+import de.ortisoft.demo.model.PvSystem;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.stream.IntStream;
+
+/**
+ * Sucht Azimut und Neigung mit dem höchsten Jahresertrag für einen Standort. Grundlage ist dieselbe
+ * Jahressimulation wie in {@link AnnualYieldService}; die Tagesstunden werden einmal je Zelle aufbereitet,
+ * danach kostet jede Ausrichtung nur eine Summe über rund 4400 Stunden.
+ *
+ * Gesucht wird grob auf einem 10°-Raster und anschließend gradgenau nur um die groben Punkte, die höchstens
+ * {@value #PRUNE_TOLERANCE} (relativ) unter dem besten liegen. Beide Stufen laufen parallel auf dem Pool der
+ * Jahressimulation, gestartet vom Cache außerhalb seiner Sperre.
+ */
+@Component
+public class OrientationOptimizer {
+    static final int COARSE_STEP = 10;
+    static final double PRUNE_TOLERANCE = 0.02;
+
+    private final CacheConfig cacheConfig;
+    private final AnnualYieldService annualYieldService;
+    private final AsyncCache<GridCell, Search> searches;
+
+    public OrientationOptimizer(CacheConfig cacheConfig, SolarConfig solarConfig, AnnualYieldService annualYieldService) {
+        this.cacheConfig = cacheConfig;
+        this.annualYieldService = annualYieldService;
+        this.searches = Caffeine.newBuilder()
+            .maximumSize(solarConfig.getAnnualCachedResults())
+            .executor(annualYieldService.executor())
+            .buildAsync();
+    }
+
+    /**
+     * Wirkungsgrad und Verluste skalieren nur den Ertrag, die beste Ausrichtung hängt allein vom Standort ab.
+     *
+     * @throws IllegalArgumentException bei ungültigem Wirkungsgrad oder ungültigen Verlusten
+     */
+    public Mono<OrientationSurface> optimize(double lat, double lon, double efficiency, double losses) {
+        double yieldFactor = PvSystem.of(new PvArrayConfig(1.0, 180, 35, efficiency, losses)).getYieldFactor(0);
+        GridCell cell = GridCell.of(lat, lon, cacheConfig.getGridSize());
+        return Mono.fromFuture(() -> searches.get(cell, this::search))
+            .map(search -> search.toSurface(cell, yieldFactor));
+    }
+
+    Search search(GridCell cell) {
+        AnnualYieldService.SunSeries series = annualYieldService.sunSeries(cell);
+
+        // Grobe Stufe: ganzes Raster, zugleich die zurückgegebene Ertragsfläche
+        int azimuths = 360 / COARSE_STEP;
+        int tilts = 90 / COARSE_STEP + 1;
+        double[] coarse = new double[tilts * azimuths];
+        IntStream.range(0, coarse.length).parallel()
+            .forEach(i -> coarse[i] = series.irradiation((i % azimuths) * COARSE_STEP, (i / azimuths) * COARSE_STEP));
+        double coarseBest = 0;
+        for (double value : coarse) {
+            coarseBest = Math.max(coarseBest, value);
+        }
+
+        // Feine Stufe: gradgenau um alle groben Punkte nahe am Besten, Azimut rundum, Neigung 0 bis 90
+        boolean[] marked = new boolean[360 * 91];
+        int fineCount = 0;
+        for (int i = 0; i < coarse.length; i++) {
+            if (coarse[i] < coarseBest * (1 - PRUNE_TOLERANCE)) {
+                continue;
+            }
+            int azimuth = (i % azimuths) * COARSE_STEP;
+            int tilt = (i / azimuths) * COARSE_STEP;
+            for (int t = Math.max(0, tilt - COARSE_STEP + 1); t <= Math.min(90, tilt + COARSE_STEP - 1); t++) {
+                for (int da = -COARSE_STEP + 1; da < COARSE_STEP; da++) {
+                    int index = t * 360 + Math.floorMod(azimuth + da, 360);
+                    if (!marked[index]) {
+                        marked[index] = true;
+                        fineCount++;
+                    }
+                }
+            }
+        }
+        int[] fine = new int[fineCount];
+        for (int index = 0, n = 0; index < marked.length; index++) {
+            if (marked[index]) {
+                fine[n++] = index;
+            }
+        }
+        double[] fineValues = new double[fine.length];
+        IntStream.range(0, fine.length).parallel()
+            .forEach(n -> fineValues[n] = series.irradiation(fine[n] % 360, fine[n] / 360));
+
+        int best = 0;
+        for (int n = 1; n < fine.length; n++) {
+            if (fineValues[n] > fineValues[best]) {
+                best = n;
+            }
+        }
+        return new Search(coarse, azimuths, fine[best] % 360, fine[best] / 360, fineValues[best],
+            coarse.length + fine.length);
+    }
+
+    // Ergebnis je Zelle in Wh/m², unabhängig von Wirkungsgrad und Verlusten
+    record Search(double[] coarse, int azimuths, int optimumAzimuth, int optimumTilt, double optimumIrradiation,
+                  int evaluations) {
+
+        OrientationSurface toSurface(GridCell cell, double yieldFactor) {
+            int tilts = coarse.length / azimuths;
+            double[][] specificYield = new double[tilts][azimuths];
+            for (int i = 0; i < coarse.length; i++) {
+                specificYield[i / azimuths][i % azimuths] = coarse[i] * yieldFactor;
+            }
+            return new OrientationSurface(cell.getCenterLat(), cell.getCenterLon(), COARSE_STEP, specificYield,
+                optimumAzimuth, optimumTilt, optimumIrradiation * yieldFactor, evaluations);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.model.GridCell;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.function.Function;
+
+import static de.ortisoft.demo.service.NoaaSolarPosition.EAST;
+import static de.ortisoft.demo.service.NoaaSolarPosition.HEIGHT;
+import static de.ortisoft.demo.service.NoaaSolarPosition.NORTH;
+import static de.ortisoft.demo.service.NoaaSolarPosition.SIN_HEIGHT;
+import static de.ortisoft.demo.service.NoaaSolarPosition.STRIDE;
+
+/**
+ * Sonnenbahn einer Gitterzelle nach {@link NoaaSolarPosition}. Stunde h ist h Uhr in der eingestellten
+ * Zeitzone (Sommerzeit eingeschlossen), nicht wahre Ortszeit. Längengrad und Zeitgleichung verschieben
+ * damit den Sonnenhöchststand, wie er tatsächlich auf der Uhr liegt.
+ *
+ * Die Kurven eines Tages rechnet {@link SolarPositions} einmal je (Zelle, Datum) und hält sie in einem
+ * begrenzten Cache; diese Klasse liest nur daraus. Neben den Werten zum Stundenbeginn liegen die Schritte
+ * der feinen Auflösung des {@link SolarDayKernel} vor, jeweils zur Schrittmitte.
+ */
+public final class PreciseSunPath implements SunPath {
+    private static final int HOURS = SolarGeometryTable.STEPS_PER_DAY;
+
+    private final Function<LocalDate, Day> days;
+    private Day last;  // der Kern fragt je Tag viele Stunden ab, so bleibt es bei einem Cache-Zugriff
+
+    PreciseSunPath(Function<LocalDate, Day> days) {
+        this.days = days;
+    }
+
+    private Day day(LocalDate date) {
+        Day day = last;
+        if (day == null || !day.date().equals(date)) {
+            day = days.apply(date);
+            last = day;
+        }
+        return day;
+    }
+
+    @Override
+    public double sunHeight(LocalDate date, int hour) {
+        return day(date).hourly()[hour * STRIDE + HEIGHT];
+    }
+
+    @Override
+    public double sinSunHeight(LocalDate date, int hour) {
+        return day(date).hourly()[hour * STRIDE + SIN_HEIGHT];
+    }
+
+    @Override
+    public double north(LocalDate date, int hour) {
+        return day(date).hourly()[hour * STRIDE + NORTH];
+    }
+
+    @Override
+    public double east(LocalDate date, int hour) {
+        return day(date).hourly()[hour * STRIDE + EAST];
+    }
+
+    @Override
+    public double maxSunHeight(LocalDate date) {
+        return day(date).maxSunHeight();
+    }
+
+    @Override
+    public double maxSinSunHeight(LocalDate date) {
+        return Math.max(0, Math.sin(Math.toRadians(day(date).maxSunHeight())));
+    }
+
+    @Override
+    public double incidence(LocalDate date, int hour, int azimuth, int tilt) {
+        double[] hourly = day(date).hourly();
+        int offset = hour * STRIDE;
+        if (hourly[offset + HEIGHT] <= 0) {
+            return 0;
+        }
+        double sinTilt = SolarGeometryTable.sinDegrees(tilt);
+        double cosIncidence = hourly[offset + SIN_HEIGHT] * SolarGeometryTable.cosDegrees(tilt)
+            + sinTilt * (hourly[offset + NORTH] * SolarGeometryTable.cosDegrees(azimuth)
+            + hourly[offset + EAST] * SolarGeometryTable.sinDegrees(azimuth));
+        return Math.max(0, cosIncidence);
+    }
+
+    /** Schritte der feinen Auflösung, flach wie die Stundenwerte; nicht verändern. */
+    double[] steps(LocalDate date) {
+        return day(date).steps();
+    }
+
+    /**
+     * Kurven eines Tages.
+     *
+     * @param hourly Werte zum Stundenbeginn, {@code [stunde * STRIDE + wert]}
+     * @param steps  Werte je Schritt zur Schrittmitte, bei stündlicher Auflösung gleich {@code hourly}
+     */
+    record Day(LocalDate date, double[] hourly, double[] steps, double maxSunHeight) {
+
+        static Day compute(GridCell cell, LocalDate date, ZoneId zone, int stepsPerHour) {
+            double lat = cell.getCenterLat();
+            double lon = cell.getCenterLon();
+            long[] hourStarts = new long[HOURS];
+            double[] hourly = new double[HOURS * STRIDE];
+            double maxSunHeight = 0;
+            for (int hour = 0; hour < HOURS; hour++) {
+                // In der Umstellungsnacht gibt es 2 Uhr nicht; atZone schiebt auf 3 Uhr, die Sonne ist ohnehin unter
+                hourStarts[hour] = date.atTime(hour, 0).atZone(zone).toEpochSecond();
+                NoaaSolarPosition.compute(lat, lon, hourStarts[hour], hourly, hour * STRIDE);
+                maxSunHeight = Math.max(maxSunHeight, hourly[hour * STRIDE + HEIGHT]);
+            }
+            double[] steps = hourly;
+            if (stepsPerHour > 1) {
+                int stepSeconds = 3600 / stepsPerHour;
+                steps = new double[HOURS * stepsPerHour * STRIDE];
+                for (int i = 0; i < HOURS * stepsPerHour; i++) {
+                    long time = hourStarts[i / stepsPerHour] + (long) (i % stepsPerHour) * stepSeconds + stepSeconds / 2;
+                    NoaaSolarPosition.compute(lat, lon, time, steps, i * STRIDE);
+                }
+            }
+            return new Day(date, hourly, steps, maxSunHeight);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package de.ortisoft.demo.service;
+
+/**
+ * Das Abrufkontingent reicht nicht, um den Aufruf innerhalb seiner Wartefrist zu senden.
+ * Wird sofort beim Einreihen geworfen, nicht erst nach Ablauf der Frist.
+ */
+public class QuotaExceededException extends RuntimeException {
+
+    public QuotaExceededException(UpstreamQuota.Priority priority) {
+        super(String.format("Abrufkontingent für OpenWeatherMap ausgeschöpft (%s)",
+            priority == UpstreamQuota.Priority.INTERACTIVE ? "Anfrage" : "Hintergrund"));
+    }
+}
@@ -0,0 +1,34 @@
+package de.ortisoft.demo.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Single-Flight für gleichzeitige, identische Abrufe: Alle Aufrufer mit demselben
+ * Schlüssel teilen sich einen laufenden Abruf und bekommen dasselbe Ergebnis
+ * bzw. denselben Fehler. Nach Abschluss startet der nächste Aufruf neu.
+ */
+public class RequestCoalescer<K, V> {
+    private final ConcurrentHashMap<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> share(k, loader)));
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<V> share(K key, Supplier<Mono<V>> loader) {
+        AtomicReference<Mono<V>> self = new AtomicReference<>();
+        Mono<V> shared = Mono.defer(loader)
+            // Nur den eigenen Eintrag entfernen, nie einen bereits neu gestarteten Abruf
+            .doFinally(signal -> inFlight.remove(key, self.get()))
+            .cache();
+        self.set(shared);
+        return shared;
+    }
+}
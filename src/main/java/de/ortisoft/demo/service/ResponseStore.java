@@ -0,0 +1,344 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.model.GridCell;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * Persistenter Speicher der rohen OpenWeatherMap-Antworten, damit ein Neustart mit warmem Cache beginnt.
+ *
+ * Die Datei wird nur angehängt. Jeder Record (Big Endian):
+ * int magic "WRC1", byte kind, long latIndex, long lonIndex, double cellSize,
+ * long fetchedAt (ms), int length, byte[length] payload, int crc32 über kind bis payload.
+ *
+ * Beim ersten Zugriff (oder im Hintergrund nach dem Start) wird die Datei gemappt und ein
+ * Index der jeweils neuesten Antwort je Zelle aufgebaut; ein abgeschnittener Record am Ende
+ * (Absturz beim Schreiben) wird verworfen. Die Kompaktierung schreibt regelmäßig nur die
+ * noch gültigen Records in eine neue Datei.
+ *
+ * Die Datei wird als Ganzes mit int-Offsets gemappt und ist deshalb auf {@link #MAX_FILE_BYTES} begrenzt.
+ * Ist sie voll, werden neue Antworten bis zur nächsten Kompaktierung nicht mehr gespeichert; der Cache im
+ * Speicher arbeitet unverändert weiter.
+ */
+@Component
+public class ResponseStore {
+    public enum Kind { CURRENT, FORECAST }
+
+    public record StoredPayload(byte[] payload, Instant fetchedAt) {
+    }
+
+    private static final int MAGIC = 0x57524331;  // "WRC1"
+    private static final int HEADER_BYTES = 4 + 1 + 8 + 8 + 8 + 8 + 4;
+    private static final int TRAILER_BYTES = 4;
+    static final long MAX_FILE_BYTES = Integer.MAX_VALUE;  // Grenze eines MappedByteBuffer
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseStore.class);
+
+    private final Path path;
+    private final Duration retention;
+    private final Clock clock;
+    private final long maxFileBytes;
+    private final Map<Key, Location> index = new ConcurrentHashMap<>();
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long size;
+    private volatile boolean loaded;
+
+    @Autowired
+    public ResponseStore(CacheConfig cacheConfig, Clock clock) {
+        this(cacheConfig, clock, MAX_FILE_BYTES);
+    }
+
+    ResponseStore(CacheConfig cacheConfig, Clock clock, long maxFileBytes) {
+        String configured = cacheConfig.getDiskPath();
+        this.path = configured == null || configured.isBlank() ? null : Path.of(configured);
+        this.retention = cacheConfig.getDiskRetention();
+        this.clock = clock;
+        this.maxFileBytes = Math.min(maxFileBytes, MAX_FILE_BYTES);
+    }
+
+    public boolean isEnabled() {
+        return path != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (!isEnabled()) {
+            return;
+        }
+        // Index im Hintergrund aufbauen; wer vorher zugreift, lädt selbst
+        Mono.fromRunnable(this::ensureLoaded)
+            .subscribeOn(Schedulers.boundedElastic())
+            .subscribe(null, error -> {
+                // Ohne Index startet der Cache eben kalt
+            });
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Neueste gespeicherte Antwort für die Zelle oder {@code null}, wenn keine innerhalb der Aufbewahrungsdauer liegt.
+     */
+    public StoredPayload findLatest(Kind kind, GridCell cell) {
+        if (!isEnabled()) {
+            return null;
+        }
+        ensureLoaded();
+        // Nachschlagen und Lesen unter derselben Sperre, die Kompaktierung verschiebt Offsets
+        synchronized (this) {
+            Location location = index.get(new Key(kind, cell));
+            if (location == null || isExpired(location.fetchedAtMillis)) {
+                return null;
+            }
+            return new StoredPayload(read(location), Instant.ofEpochMilli(location.fetchedAtMillis));
+        }
+    }
+
+    public void append(Kind kind, GridCell cell, Instant fetchedAt, byte[] payload) {
+        if (!isEnabled()) {
+            return;
+        }
+        ensureLoaded();
+        ByteBuffer record = encode(kind, cell, fetchedAt.toEpochMilli(), payload);
+        synchronized (this) {
+            if (size + record.limit() > maxFileBytes) {
+                // Datei voll: nicht persistieren, die Kompaktierung schafft wieder Platz
+                return;
+            }
+            try {
+                long offset = size;
+                while (record.hasRemaining()) {
+                    channel.write(record, offset + record.position());
+                }
+                size += record.limit();
+                index.merge(new Key(kind, cell), new Location(offset, payload.length, fetchedAt.toEpochMilli()),
+                    (existing, added) -> added.fetchedAtMillis >= existing.fetchedAtMillis ? added : existing);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${weather.cache.disk-compaction-interval:15m}",
+        initialDelayString = "${weather.cache.disk-compaction-interval:15m}")
+    public synchronized void compact() {
+        if (!loaded) {
+            return;
+        }
+        Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        try {
+            Map<Key, Location> live = new HashMap<>();
+            long liveBytes = 0;
+            for (Map.Entry<Key, Location> entry : index.entrySet()) {
+                if (!isExpired(entry.getValue().fetchedAtMillis)) {
+                    live.put(entry.getKey(), entry.getValue());
+                    liveBytes += HEADER_BYTES + entry.getValue().length + TRAILER_BYTES;
+                }
+            }
+            // Erst umschreiben, wenn mindestens die Hälfte der Datei überholt ist
+            if (liveBytes * 2 > size) {
+                return;
+            }
+
+            Map<Key, Location> compactedIndex = new HashMap<>();
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long offset = 0;
+                for (Map.Entry<Key, Location> entry : live.entrySet()) {
+                    Location location = entry.getValue();
+                    ByteBuffer record = encode(entry.getKey().kind, entry.getKey().cell,
+                        location.fetchedAtMillis, read(location));
+                    while (record.hasRemaining()) {
+                        out.write(record);
+                    }
+                    compactedIndex.put(entry.getKey(), new Location(offset, location.length, location.fetchedAtMillis));
+                    offset += record.limit();
+                }
+                out.force(true);
+            }
+            // Neue Datei erst vollständig öffnen und mappen, dann an ihren Platz schieben: scheitert einer der
+            // Schritte, ist die bisherige Datei unberührt und bleibt in Gebrauch
+            Mapping next = open(compacted);
+            try {
+                Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | RuntimeException e) {
+                next.channel().close();
+                throw e;
+            }
+            // Der Kanal der neuen Datei folgt ihr beim Umbenennen
+            FileChannel previous = channel;
+            use(next);
+            index.clear();
+            index.putAll(compactedIndex);
+            try {
+                previous.close();
+            } catch (IOException e) {
+                log.debug("Alter Kanal von {} ließ sich nicht schließen", path, e);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Kompaktierung von {} fehlgeschlagen, die bisherige Datei bleibt in Gebrauch", path, e);
+            try {
+                Files.deleteIfExists(compacted);
+            } catch (IOException ignored) {
+                // Wird beim nächsten Lauf überschrieben
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(false);
+            channel.close();
+        }
+    }
+
+    private boolean isExpired(long fetchedAtMillis) {
+        return fetchedAtMillis < clock.millis() - retention.toMillis();
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            try {
+                if (path.getParent() != null) {
+                    Files.createDirectories(path.getParent());
+                }
+                use(open(path));
+                scan();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            loaded = true;
+        }
+    }
+
+    // Öffnet und mappt die Datei, ohne den Zustand des Speichers zu ändern
+    private Mapping open(Path file) throws IOException {
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long openedSize = opened.size();
+            // Größere Dateien (ältere Versionen) nur bis zur Grenze lesen, der Rest wird beim Scan abgeschnitten
+            return new Mapping(opened, opened.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(openedSize, maxFileBytes)),
+                openedSize);
+        } catch (IOException | RuntimeException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    private void use(Mapping mapping) {
+        channel = mapping.channel();
+        mapped = mapping.mapped();
+        size = mapping.size();
+    }
+
+    private void scan() throws IOException {
+        long offset = 0;
+        long limit = mapped.capacity();
+        while (offset + HEADER_BYTES + TRAILER_BYTES <= limit) {
+            int position = (int) offset;  // < MAX_FILE_BYTES
+            if (mapped.getInt(position) != MAGIC) {
+                break;
+            }
+            int length = mapped.getInt(position + HEADER_BYTES - 4);
+            long end = offset + HEADER_BYTES + length + TRAILER_BYTES;
+            if (length < 0 || end > limit) {
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(mapped.slice(position + 4, HEADER_BYTES - 4 + length));
+            if ((int) crc.getValue() != mapped.getInt((int) end - TRAILER_BYTES)) {
+                break;
+            }
+            Kind kind = Kind.values()[mapped.get(position + 4)];
+            GridCell cell = new GridCell(mapped.getLong(position + 5), mapped.getLong(position + 13),
+                mapped.getDouble(position + 21));
+            long fetchedAt = mapped.getLong(position + 29);
+            if (!isExpired(fetchedAt)) {
+                index.merge(new Key(kind, cell), new Location(offset, length, fetchedAt),
+                    (existing, added) -> added.fetchedAtMillis >= existing.fetchedAtMillis ? added : existing);
+            }
+            offset = end;
+        }
+        if (offset < size) {
+            // Unvollständiger Record vom letzten Lauf: abschneiden, damit neue Records lesbar anschließen
+            channel.truncate(offset);
+            size = offset;
+        }
+    }
+
+    private synchronized byte[] read(Location location) {
+        long end = location.offset + HEADER_BYTES + location.length;
+        if (end > mapped.capacity()) {
+            // Seit dem letzten Mapping angehängt
+            try {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        byte[] payload = new byte[location.length];
+        mapped.get((int) location.offset + HEADER_BYTES, payload);
+        return payload;
+    }
+
+    private static ByteBuffer encode(Kind kind, GridCell cell, long fetchedAtMillis, byte[] payload) {
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + payload.length + TRAILER_BYTES);
+        record.putInt(MAGIC)
+            .put((byte) kind.ordinal())
+            .putLong(cell.latIndex())
+            .putLong(cell.lonIndex())
+            .putDouble(cell.size())
+            .putLong(fetchedAtMillis)
+            .putInt(payload.length)
+            .put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 4, HEADER_BYTES - 4 + payload.length);
+        record.putInt((int) crc.getValue());
+        return record.flip();
+    }
+
+    private record Key(Kind kind, GridCell cell) {
+    }
+
+    private record Location(long offset, int length, long fetchedAtMillis) {
+    }
+
+    private record Mapping(FileChannel channel, MappedByteBuffer mapped, long size) {
+    }
+}
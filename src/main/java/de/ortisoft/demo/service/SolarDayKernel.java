@@ -0,0 +1,320 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.PvSystem;
+import de.ortisoft.demo.model.SolarDayResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Rechenkern für einen Solartag. Liest den Sonnenstand aus der {@link SolarGeometryTable} und füllt
+ * in einem einzigen Durchlauf über die Stunden alle Stundenwerte, Tageserträge und Kennzahlen
+ * in ein {@link SolarDayResult}. Alle Flächen eines {@link PvSystem} teilen sich je Zeitschritt
+ * denselben Sonnenvektor und werden in einer engen Schleife über die Spalten gerechnet.
+ *
+ * Modell wie bisher: Strahlung = 1000 W/m² · sin(Sonnenhöhe) · (1 − Bewölkung · 0,7) · cos(Einfallswinkel),
+ * zwischen 10 und 16 Uhr 10 % Temperaturverlust; Ertrag je kWp = Strahlung/1000 · 5 m² · Wirkungsgrad · (1 − Verluste).
+ * Die Bewölkung kann je Stunde vorgegeben werden (aus {@link de.ortisoft.demo.model.ForecastSeries#hourlyCloudCovers}),
+ * alle Schritte einer Stunde rechnen mit ihrem Wert.
+ *
+ * Bei {@code weather.solar.resolution-minutes} = 60 wird wie bisher je volle Stunde mit dem Stundenwinkel
+ * zum Stundenbeginn gerechnet. Feinere Auflösungen integrieren mit Schritten von 15, 5 oder 1 Minute,
+ * jeweils zur Schrittmitte, und fassen die Schritte zu Stundenzeilen zusammen. Die innere Schleife
+ * läuft dann über den {@link SolarStepIntegrator}, mit Vector API oder skalar. Mit dem genauen Sonnenstand
+ * ({@link PreciseSunPath}) kommen die Schritte aus dessen vorberechneter Kurve.
+ *
+ * Zwischenwerte liegen im Arbeitsspeicher des Ergebnisses ({@link SolarDayResult.Workspace}), ein mit
+ * {@link #newResult} angelegtes und wiederverwendetes Ergebnis rechnet jeden weiteren Tag ohne Allokation.
+ */
+@Component
+public class SolarDayKernel {
+    public static final int STEPS = SolarGeometryTable.STEPS_PER_DAY;
+
+    private final int stepsPerHour;
+    private final SolarStepIntegrator integrator;
+    private final double[] cosHourAngle;
+    private final double[] sinHourAngle;
+    private final double[] stepWeight;
+
+    public SolarDayKernel() {
+        this(60, false);
+    }
+
+    @Autowired
+    public SolarDayKernel(SolarConfig solarConfig) {
+        this(solarConfig.getResolutionMinutes(), solarConfig.isVectorized());
+    }
+
+    SolarDayKernel(int resolutionMinutes, boolean vectorized) {
+        if (resolutionMinutes < 1 || resolutionMinutes > 60 || 60 % resolutionMinutes != 0) {
+            throw new IllegalArgumentException("Auflösung muss 60 teilen: " + resolutionMinutes);
+        }
+        this.stepsPerHour = 60 / resolutionMinutes;
+        SolarStepIntegrator vector = vectorized ? vectorIntegrator() : null;
+        this.integrator = vector != null ? vector : new SolarStepIntegrator.Scalar();
+        int steps = STEPS * stepsPerHour;
+        this.cosHourAngle = new double[steps];
+        this.sinHourAngle = new double[steps];
+        this.stepWeight = new double[steps];
+        for (int i = 0; i < steps; i++) {
+            double hours = (i + 0.5) / stepsPerHour;
+            double hourAngleRad = Math.toRadians((hours - 12) * 15.0);
+            cosHourAngle[i] = Math.cos(hourAngleRad);
+            sinHourAngle[i] = Math.sin(hourAngleRad);
+            int hour = i / stepsPerHour;
+            stepWeight[i] = hour >= 10 && hour <= 16 ? 0.90 : 1.0;
+        }
+    }
+
+    // Nur vorhanden, wenn mit -PvectorApi gebaut und mit --add-modules jdk.incubator.vector gestartet
+    private static SolarStepIntegrator vectorIntegrator() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return null;
+        }
+        try {
+            return (SolarStepIntegrator) Class.forName("de.ortisoft.demo.service.VectorStepIntegrator")
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    public int getStepsPerHour() {
+        return stepsPerHour;
+    }
+
+    boolean isVectorized() {
+        return !(integrator instanceof SolarStepIntegrator.Scalar);
+    }
+
+    /** Ergebnis samt Arbeitsspeicher für diese Auflösung; wiederverwendet rechnet jeder Tag ohne Allokation. */
+    public SolarDayResult newResult(int arrayCount) {
+        return new SolarDayResult(arrayCount, STEPS, cosHourAngle.length);
+    }
+
+    /**
+     * Rechnet den ganzen Tag mit derselben Bewölkung.
+     *
+     * @param maxClearSkyRadiation Strahlung bei klarem Himmel und höchstem Sonnenstand (Referenzbalken)
+     * @param maxTheoretical Ertrag aller Flächen unter STC in kWh, Bezugsgröße der Balken
+     */
+    public void compute(SunPath sun, LocalDate date, double cloudCover, PvSystem system,
+                        double maxClearSkyRadiation, double maxTheoretical, SolarDayResult result) {
+        computeDay(sun, date, cloudCover, null, system, maxClearSkyRadiation, maxTheoretical, result);
+    }
+
+    /**
+     * @param cloudCover Bewölkung des Tages, nur für die Anzeige
+     * @param hourlyCloudCover Bewölkung je Stunde in Sonnenzeit ({@link #STEPS} Werte)
+     * @param maxClearSkyRadiation Strahlung bei klarem Himmel und höchstem Sonnenstand (Referenzbalken)
+     * @param maxTheoretical Ertrag aller Flächen unter STC in kWh, Bezugsgröße der Balken
+     * @param result aus {@link #newResult} mit der Flächenzahl der Anlage
+     */
+    public void compute(SunPath sun, LocalDate date, double cloudCover, double[] hourlyCloudCover,
+                        PvSystem system, double maxClearSkyRadiation, double maxTheoretical, SolarDayResult result) {
+        computeDay(sun, date, cloudCover, hourlyCloudCover, system, maxClearSkyRadiation, maxTheoretical, result);
+    }
+
+    // hourlyCloudCover null: ganzer Tag mit cloudCover
+    private void computeDay(SunPath sun, LocalDate date, double cloudCover, double[] hourlyCloudCover,
+                            PvSystem system, double maxClearSkyRadiation, double maxTheoretical, SolarDayResult result) {
+        int arrayCount = system.size();
+        int steps = cosHourAngle.length;
+        SolarDayResult.Workspace workspace = result.getWorkspace();
+        if (result.getArrayCount() != arrayCount || workspace.weight().length != steps) {
+            throw new IllegalArgumentException("Ergebnis passt nicht zu Anlage oder Auflösung, siehe newResult");
+        }
+        result.reset(date, cloudCover);
+
+        // Neigung und Ausrichtung jeder Fläche als Gewichte auf die Komponenten des Sonnenvektors
+        double[] cosTilt = workspace.cosTilt();
+        double[] northWeight = workspace.northWeight();
+        double[] eastWeight = workspace.eastWeight();
+        double[] factors = workspace.factors();
+        double clearSkyPerWatt = 0;  // Gesamtertrag je W/m² bei senkrechtem Einfall
+        for (int a = 0; a < arrayCount; a++) {
+            double sinTilt = SolarGeometryTable.sinDegrees(system.getTilt(a));
+            cosTilt[a] = SolarGeometryTable.cosDegrees(system.getTilt(a));
+            northWeight[a] = sinTilt * SolarGeometryTable.cosDegrees(system.getAzimuth(a));
+            eastWeight[a] = sinTilt * SolarGeometryTable.sinDegrees(system.getAzimuth(a));
+            factors[a] = system.getYieldFactor(a);
+            clearSkyPerWatt += factors[a] * system.getKwp(a);
+        }
+
+        // Temperaturfaktor und Bewölkung der Stunde je Schritt zusammengefasst
+        double[] weight = workspace.weight();
+        for (int hour = 0; hour < STEPS; hour++) {
+            double cover = hourlyCloudCover != null ? hourlyCloudCover[hour] : cloudCover;
+            double scale = cloudScale(cover);
+            result.setCloudCover(hour, cover);
+            for (int i = hour * stepsPerHour; i < (hour + 1) * stepsPerHour; i++) {
+                weight[i] = scale * stepWeight[i];
+            }
+        }
+        double[] clearSky = workspace.clearSky();
+        double[] radiation = workspace.radiation();
+        if (stepsPerHour == 1) {
+            hourlySteps(sun, date, weight, cosTilt, northWeight, eastWeight, clearSky, radiation);
+        } else if (sun instanceof SolarGeometryTable.Row row) {
+            int dayOfYear = date.getDayOfYear();
+            double sinDec = SolarGeometryTable.sinDeclination(dayOfYear);
+            double cosDec = SolarGeometryTable.cosDeclination(dayOfYear);
+            double[] day = workspace.day();
+            day[0] = row.sinLatitude() * sinDec;
+            day[1] = row.cosLatitude() * cosDec;
+            day[2] = sinDec * row.cosLatitude();
+            day[3] = cosDec * row.sinLatitude();
+            day[4] = cosDec;
+            integrator.integrate(day, cosHourAngle, sinHourAngle, weight,
+                cosTilt, northWeight, eastWeight, clearSky, radiation);
+        } else {
+            curveSteps(((PreciseSunPath) sun).steps(date), weight, cosTilt, northWeight, eastWeight, clearSky, radiation);
+        }
+
+        // Schritte zu Stunden zusammenfassen: Strahlung als Mittel, Ertrag als Summe
+        double dayMin = Double.MAX_VALUE;
+        double dayMax = 0;
+        double daySum = 0;
+        int daylightHours = 0;
+        for (int hour = 0; hour < STEPS; hour++) {
+            int from = hour * stepsPerHour;
+            int to = from + stepsPerHour;
+            double clearSkySum = 0;
+            for (int i = from; i < to; i++) {
+                clearSkySum += clearSky[i];
+            }
+            // Anzeige zum Stundenbeginn, in der Aufgangsstunde nicht negativ
+            result.setSunHeight(hour, Math.max(0, sun.sunHeight(date, hour)));
+            if (clearSkySum <= 0) {
+                continue;
+            }
+            result.setDaylight(hour, true);
+
+            double min = Double.MAX_VALUE;
+            double max = 0;
+            double sum = 0;
+            double total = 0;
+            for (int a = 0; a < arrayCount; a++) {
+                double radiationSum = 0;
+                int offset = a * steps;
+                for (int i = from; i < to; i++) {
+                    radiationSum += radiation[offset + i];
+                }
+                double meanRadiation = radiationSum / stepsPerHour;
+                double perKwp = meanRadiation * factors[a];
+                double yield = perKwp * system.getKwp(a);
+                result.setRadiation(a, hour, meanRadiation);
+                result.setYield(a, hour, perKwp, yield);
+                result.setDailyYield(a, result.getDailyYield(a) + yield);
+                total += yield;
+                min = Math.min(min, meanRadiation);
+                max = Math.max(max, meanRadiation);
+                sum += meanRadiation;
+            }
+            double clearSkyRadiation = 1000.0 * clearSkySum / stepsPerHour;
+            result.setRadiationRange(hour, min, max, sum / arrayCount);
+            result.setTotal(hour, total);
+            result.setRatios(hour, total / maxTheoretical, clearSkyRadiation * clearSkyPerWatt / maxTheoretical);
+
+            double first = result.getRadiation(0, hour);
+            if (first > 0) {
+                dayMin = Math.min(dayMin, first);
+            }
+            dayMax = Math.max(dayMax, first);
+            daySum += first;
+            daylightHours++;
+        }
+
+        result.setDayRadiation(dayMin == Double.MAX_VALUE ? 0 : dayMin, dayMax,
+            daylightHours > 0 ? daySum / daylightHours : 0);
+        result.setClearSkyDayRatio(maxClearSkyRadiation * clearSkyPerWatt / maxTheoretical);
+    }
+
+    /**
+     * Schreibt die Tagesstunden eines Tages als Spalten ab {@code offset}: Strahlung ohne Einfallswinkel
+     * ({@code weight}) und Sonnenvektor. Die Strahlung einer Fläche ist dann
+     * {@code weight · max(0, sinHeight · cos Neigung + north · sin Neigung cos Azimut + east · sin Neigung sin Azimut)},
+     * genau wie in der stündlichen Rechnung von {@link #compute}.
+     *
+     * @return Position hinter der letzten geschriebenen Stunde
+     */
+    public int hourlyComponents(SolarGeometryTable.Row sun, LocalDate date, double cloudCover,
+                                double[] weight, double[] sinHeight, double[] north, double[] east, int offset) {
+        double scale = cloudScale(cloudCover);
+        for (int hour = 0; hour < STEPS; hour++) {
+            if (sun.sunHeight(date, hour) <= 0) {
+                continue;
+            }
+            double sin = sun.sinSunHeight(date, hour);
+            weight[offset] = scale * stepWeight[hour * stepsPerHour] * sin;
+            sinHeight[offset] = sin;
+            north[offset] = sun.north(date, hour);
+            east[offset] = sun.east(date, hour);
+            offset++;
+        }
+        return offset;
+    }
+
+    // 30% Minimum bei voller Bewölkung
+    private static double cloudScale(double cloudCover) {
+        return 1000.0 * (1.0 - (cloudCover / 100.0) * 0.70);
+    }
+
+    // Stündlich wie bisher: Sonnenvektor zum Stundenbeginn aus der Tabelle, alle Flächen teilen ihn
+    private void hourlySteps(SunPath sun, LocalDate date, double[] weight,
+                             double[] cosTilt, double[] northWeight, double[] eastWeight,
+                             double[] clearSky, double[] radiation) {
+        int arrayCount = cosTilt.length;
+        for (int hour = 0; hour < STEPS; hour++) {
+            if (sun.sunHeight(date, hour) <= 0) {
+                // Arbeitsspeicher wird wiederverwendet, Nachtwerte daher ausdrücklich löschen
+                clearSky[hour] = 0;
+                for (int a = 0; a < arrayCount; a++) {
+                    radiation[a * STEPS + hour] = 0;
+                }
+                continue;
+            }
+            double sinHeight = sun.sinSunHeight(date, hour);
+            double north = sun.north(date, hour);
+            double east = sun.east(date, hour);
+            double base = weight[hour] * sinHeight;
+            clearSky[hour] = sinHeight;
+            for (int a = 0; a < arrayCount; a++) {
+                double incidence = sinHeight * cosTilt[a] + north * northWeight[a] + east * eastWeight[a];
+                radiation[a * STEPS + hour] = base * Math.max(0, incidence);
+            }
+        }
+    }
+
+    // Feine Schritte aus einer vorberechneten Sonnenbahn (NOAA), Sonnenvektor je Schritt aus der Kurve
+    private static void curveSteps(double[] curve, double[] weight,
+                                   double[] cosTilt, double[] northWeight, double[] eastWeight,
+                                   double[] clearSky, double[] radiation) {
+        int steps = weight.length;
+        if (curve.length != steps * NoaaSolarPosition.STRIDE) {
+            throw new IllegalStateException("Sonnenbahn passt nicht zur Auflösung des Rechenkerns");
+        }
+        int arrayCount = cosTilt.length;
+        for (int i = 0; i < steps; i++) {
+            int offset = i * NoaaSolarPosition.STRIDE;
+            if (curve[offset + NoaaSolarPosition.HEIGHT] <= 0) {
+                clearSky[i] = 0;
+                for (int a = 0; a < arrayCount; a++) {
+                    radiation[a * steps + i] = 0;
+                }
+                continue;
+            }
+            double sinHeight = curve[offset + NoaaSolarPosition.SIN_HEIGHT];
+            double north = curve[offset + NoaaSolarPosition.NORTH];
+            double east = curve[offset + NoaaSolarPosition.EAST];
+            double base = weight[i] * sinHeight;
+            clearSky[i] = sinHeight;
+            for (int a = 0; a < arrayCount; a++) {
+                double incidence = sinHeight * cosTilt[a] + north * northWeight[a] + east * eastWeight[a];
+                radiation[a * steps + i] = base * Math.max(0, incidence);
+            }
+        }
+    }
+}
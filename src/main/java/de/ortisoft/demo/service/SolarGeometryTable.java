@@ -0,0 +1,199 @@
+package de.ortisoft.demo.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import de.ortisoft.demo.config.SolarConfig;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Vorberechneter Sonnenstand je quantisiertem Breitengrad × Tag des Jahres × Stunde.
+ * Eine Zeile (ein Breitengrad) wird beim ersten Zugriff gebaut und liegt danach als flaches
+ * {@code double[]} vor; Anfragen lesen nur noch Tabellenwerte, ohne Winkelfunktionen.
+ *
+ * Das Modell entspricht der bisherigen Rechnung: Deklination 23,45° · sin(360/365 · (Tag − 81)),
+ * Stundenwinkel (Stunde − 12) · 15°, Azimut von Nord im Uhrzeigersinn.
+ *
+ * Genauigkeit: Der Breitengrad wird auf das nächste Vielfache von {@code step} gerundet, der Fehler ist
+ * also höchstens step/2. Eine Änderung des Breitengrads dreht den Sonnenvektor um die Ost-West-Achse
+ * um genau diesen Winkel. Damit weichen Sonnenhöhe und Einfallswinkel auf jeder Modulfläche um
+ * höchstens step/2 ab. Die Strahlung bei 1000 W/m² weicht um höchstens 1000 · π/180 · step/2 W/m² ab;
+ * bei 0,25° sind das 0,125° bzw. 2,2 W/m². Ausgenommen ist nur die Stunde, in der die Sonne zwischen
+ * echtem und gerundetem Breitengrad den Horizont kreuzt, denn dort schaltet der Ertrag hart auf 0.
+ * Der Azimut selbst ist nahe dem Zenit ungenauer, wird aber nur über diese Komponenten verwendet.
+ */
+@Component
+public class SolarGeometryTable {
+    public static final int DAYS = 366;
+    public static final int STEPS_PER_DAY = 24;
+
+    // Werte je (Tag, Stunde) in einer Zeile
+    private static final int HEIGHT = 0;
+    private static final int SIN_HEIGHT = 1;
+    private static final int NORTH = 2;  // cos(Höhe) · cos(Azimut)
+    private static final int EAST = 3;   // cos(Höhe) · sin(Azimut)
+    private static final int STRIDE = 4;
+
+    private static final double[] SIN_DEGREES = new double[360];
+    private static final double[] COS_DEGREES = new double[360];
+    private static final double[] SIN_DECLINATION = new double[DAYS + 1];
+    private static final double[] COS_DECLINATION = new double[DAYS + 1];
+
+    static {
+        for (int degree = 0; degree < 360; degree++) {
+            SIN_DEGREES[degree] = Math.sin(Math.toRadians(degree));
+            COS_DEGREES[degree] = Math.cos(Math.toRadians(degree));
+        }
+        for (int day = 1; day <= DAYS; day++) {
+            double declinationRad = Math.toRadians(23.45 * Math.sin(Math.toRadians((360.0 / 365.0) * (day - 81))));
+            SIN_DECLINATION[day] = Math.sin(declinationRad);
+            COS_DECLINATION[day] = Math.cos(declinationRad);
+        }
+    }
+
+    private final double step;
+    private final LoadingCache<Integer, Row> rows;
+
+    public SolarGeometryTable(SolarConfig solarConfig) {
+        this(solarConfig.getGeometryLatitudeStep(), solarConfig.getGeometryCachedRows());
+    }
+
+    SolarGeometryTable(double step, int cachedRows) {
+        if (step <= 0) {
+            throw new IllegalArgumentException("Rasterweite muss positiv sein: " + step);
+        }
+        this.step = step;
+        this.rows = Caffeine.newBuilder()
+            .maximumSize(cachedRows)
+            .build(index -> new Row(index * step - 90.0));
+    }
+
+    public double getStep() {
+        return step;
+    }
+
+    /**
+     * Zeile für den nächstgelegenen Tabellenbreitengrad. Einmal je Berechnung holen und weiterreichen.
+     */
+    public Row forLatitude(double lat) {
+        double clamped = Math.max(-90.0, Math.min(90.0, lat));
+        return rows.get((int) Math.round((clamped + 90.0) / step));
+    }
+
+    /** sin für ganze Grad (Modulneigung und -azimut), beliebiges Vorzeichen. */
+    public static double sinDegrees(int degrees) {
+        return SIN_DEGREES[Math.floorMod(degrees, 360)];
+    }
+
+    /** cos für ganze Grad (Modulneigung und -azimut), beliebiges Vorzeichen. */
+    public static double cosDegrees(int degrees) {
+        return COS_DEGREES[Math.floorMod(degrees, 360)];
+    }
+
+    /** sin der Sonnendeklination am Tag des Jahres (1–366). */
+    public static double sinDeclination(int dayOfYear) {
+        return SIN_DECLINATION[dayOfYear];
+    }
+
+    public static double cosDeclination(int dayOfYear) {
+        return COS_DECLINATION[dayOfYear];
+    }
+
+    public static final class Row implements SunPath {
+        private final double latitude;
+        private final double sinLat;
+        private final double cosLat;
+        private final double[] values = new double[DAYS * STEPS_PER_DAY * STRIDE];
+
+        Row(double latitude) {
+            this.latitude = latitude;
+            double latRad = Math.toRadians(latitude);
+            this.sinLat = Math.sin(latRad);
+            this.cosLat = Math.cos(latRad);
+            for (int day = 1; day <= DAYS; day++) {
+                double sinDec = SIN_DECLINATION[day];
+                double cosDec = COS_DECLINATION[day];
+                for (int hour = 0; hour < STEPS_PER_DAY; hour++) {
+                    double hourAngleRad = Math.toRadians((hour - 12) * 15.0);
+                    double sinHeight = sinLat * sinDec + cosLat * cosDec * Math.cos(hourAngleRad);
+                    int offset = offsetOf(day, hour);
+                    values[offset + HEIGHT] = Math.toDegrees(Math.asin(sinHeight));
+                    values[offset + SIN_HEIGHT] = sinHeight;
+                    // Horizontale Komponenten des Sonnenvektors, ohne Division durch cos(Höhe)
+                    values[offset + NORTH] = sinDec * cosLat - cosDec * sinLat * Math.cos(hourAngleRad);
+                    values[offset + EAST] = -cosDec * Math.sin(hourAngleRad);
+                }
+            }
+        }
+
+        private static int offsetOf(int dayOfYear, int hour) {
+            return ((dayOfYear - 1) * STEPS_PER_DAY + hour) * STRIDE;
+        }
+
+        public double getLatitude() {
+            return latitude;
+        }
+
+        public double sinLatitude() {
+            return sinLat;
+        }
+
+        public double cosLatitude() {
+            return cosLat;
+        }
+
+        /** Sonnenhöhe in Grad, negativ unter dem Horizont. */
+        public double sunHeight(LocalDate date, int hour) {
+            return values[offsetOf(date.getDayOfYear(), hour) + HEIGHT];
+        }
+
+        public double sinSunHeight(LocalDate date, int hour) {
+            return values[offsetOf(date.getDayOfYear(), hour) + SIN_HEIGHT];
+        }
+
+        /** Nordkomponente des Sonnenvektors, cos(Höhe) · cos(Azimut). */
+        public double north(LocalDate date, int hour) {
+            return values[offsetOf(date.getDayOfYear(), hour) + NORTH];
+        }
+
+        /** Ostkomponente des Sonnenvektors, cos(Höhe) · sin(Azimut). */
+        public double east(LocalDate date, int hour) {
+            return values[offsetOf(date.getDayOfYear(), hour) + EAST];
+        }
+
+        public double maxSunHeight(LocalDate date) {
+            double max = 0;
+            int offset = offsetOf(date.getDayOfYear(), 0);
+            for (int hour = 0; hour < STEPS_PER_DAY; hour++, offset += STRIDE) {
+                max = Math.max(max, values[offset + HEIGHT]);
+            }
+            return max;
+        }
+
+        /** sin der höchsten Sonnenhöhe des Tages, 0 wenn die Sonne nicht aufgeht. */
+        public double maxSinSunHeight(LocalDate date) {
+            double max = 0;
+            int offset = offsetOf(date.getDayOfYear(), 0);
+            for (int hour = 0; hour < STEPS_PER_DAY; hour++, offset += STRIDE) {
+                max = Math.max(max, values[offset + SIN_HEIGHT]);
+            }
+            return max;
+        }
+
+        /**
+         * Kosinus des Einfallswinkels auf eine Fläche mit ganzzahliger Neigung und Azimut (0 = Nord),
+         * 0 wenn die Sonne unter dem Horizont oder hinter der Fläche steht.
+         */
+        public double incidence(LocalDate date, int hour, int azimuth, int tilt) {
+            int offset = offsetOf(date.getDayOfYear(), hour);
+            if (values[offset + HEIGHT] <= 0) {
+                return 0;
+            }
+            double sinTilt = sinDegrees(tilt);
+            double cosIncidence = values[offset + SIN_HEIGHT] * cosDegrees(tilt)
+                + sinTilt * (values[offset + NORTH] * cosDegrees(azimuth) + values[offset + EAST] * sinDegrees(azimuth));
+            return Math.max(0, cosIncidence);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package de.ortisoft.demo.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.GridCell;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * Wählt das Sonnenstandsmodell ({@code weather.solar.position-model}) und liefert den {@link SunPath} für einen Ort.
+ *
+ * {@code TABLE}: die {@link SolarGeometryTable}, Stunde = wahre Ortszeit, ohne Längengrad und Zeitgleichung.
+ * {@code NOAA}: {@link PreciseSunPath} für den Mittelpunkt der Gitterzelle, Stunde = Uhrzeit in
+ * {@code weather.solar.time-zone}. Die Kurven eines Tages werden je (Zelle, Datum) einmal gerechnet
+ * und in einem begrenzten Cache gehalten, danach kostet eine Anfrage so wenig wie mit der Tabelle.
+ */
+@Component
+public class SolarPositions {
+    private final SolarGeometryTable table;
+    private final SolarConfig.PositionModel model;
+    private final ZoneId zone;
+    private final double gridSize;
+    private final LoadingCache<Key, PreciseSunPath.Day> days;
+
+    public SolarPositions(SolarGeometryTable table, SolarConfig solarConfig, CacheConfig cacheConfig) {
+        this.table = table;
+        this.model = solarConfig.getPositionModel();
+        this.zone = ZoneId.of(solarConfig.getTimeZone());
+        this.gridSize = cacheConfig.getGridSize();
+        int stepsPerHour = 60 / solarConfig.getResolutionMinutes();
+        this.days = Caffeine.newBuilder()
+            .maximumSize(solarConfig.getPositionCachedDays())
+            .build(key -> PreciseSunPath.Day.compute(key.cell(), key.date(), zone, stepsPerHour));
+    }
+
+    public SolarConfig.PositionModel getModel() {
+        return model;
+    }
+
+    public SunPath forLocation(double lat, double lon) {
+        if (model == SolarConfig.PositionModel.TABLE) {
+            return table.forLatitude(lat);
+        }
+        GridCell cell = GridCell.of(lat, lon, gridSize);
+        return new PreciseSunPath(date -> days.get(new Key(cell, date)));
+    }
+
+    /**
+     * Wie weit die Stunden des {@link SunPath} an diesem Tag der UTC voraus sind, zum Lesen der
+     * Vorhersage-Stundenreihe: wahre Ortszeit (Länge / 15) bzw. Zonenzeit um die Mittagszeit.
+     */
+    public double utcOffsetHours(double lon, LocalDate date) {
+        if (model == SolarConfig.PositionModel.TABLE) {
+            return lon / 15.0;
+        }
+        return zone.getRules().getOffset(date.atTime(12, 0)).getTotalSeconds() / 3600.0;
+    }
+
+    long cachedDays() {
+        return days.estimatedSize();
+    }
+
+    record Key(GridCell cell, LocalDate date) {
+    }
+}
@@ -0,0 +1,80 @@
+package de.ortisoft.demo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.PvSystem;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Gerechnete Solarprognosen, geschlüsselt nach normalisierter Anlage ({@link PvSystem#canonical()}),
+ * Gitterzelle und Vorhersagestand (Abrufzeitpunkt der Vorhersage). Wer dieselbe Anlage in derselben
+ * Zelle anfragt, bekommt das Ergebnis ohne erneute Rechnung.
+ *
+ * Kommt eine neue Vorhersage für eine Zelle an, werden die Einträge älterer Stände dieser Zelle entfernt;
+ * gültig wären sie ohnehin nicht mehr, weil der Vorhersagestand Teil des Schlüssels ist. Der neueste Stand
+ * je Zelle wird mitgeführt: Anfragen zu älteren Ständen (Neuberechnung aus einem alten Vorhersagestand)
+ * werden gerechnet, aber nicht mehr gespeichert.
+ */
+@Component
+public class SolarResultCache {
+    private final Cache<Key, String> results;
+    private final Cache<GridCell, Instant> latestVersions;
+
+    public SolarResultCache(SolarConfig solarConfig, WeatherCache weatherCache, MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+            .maximumSize(solarConfig.getResultCachedEntries())
+            .recordStats()
+            .build();
+        this.latestVersions = Caffeine.newBuilder()
+            .maximumSize(solarConfig.getResultCachedEntries())
+            .build();
+        weatherCache.onForecastIngested((cell, entry) -> invalidateBefore(cell, entry.fetchedAt()));
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "weather.solar.results");
+    }
+
+    /**
+     * @param config bereits normalisierte Anlage
+     */
+    public String get(GridCell cell, PvSystem config, Instant forecastVersion, Supplier<String> compute) {
+        if (isOutdated(recordVersion(cell, forecastVersion), forecastVersion)) {
+            return compute.get();
+        }
+        Key key = new Key(cell, config, forecastVersion);
+        String result = results.get(key, k -> compute.get());
+        // Kam während der Rechnung ein neuerer Stand an, hat invalidateBefore diesen Eintrag verpasst
+        if (isOutdated(latestVersions.getIfPresent(cell), forecastVersion)) {
+            results.invalidate(key);
+        }
+        return result;
+    }
+
+    void invalidateBefore(GridCell cell, Instant forecastVersion) {
+        recordVersion(cell, forecastVersion);
+        results.asMap().keySet()
+            .removeIf(key -> key.cell().equals(cell) && key.forecastVersion().isBefore(forecastVersion));
+    }
+
+    // Neuester bekannter Stand der Zelle
+    private Instant recordVersion(GridCell cell, Instant forecastVersion) {
+        return latestVersions.asMap().merge(cell, forecastVersion,
+            (known, version) -> version.isAfter(known) ? version : known);
+    }
+
+    private static boolean isOutdated(Instant latest, Instant forecastVersion) {
+        return latest != null && latest.isAfter(forecastVersion);
+    }
+
+    long size() {
+        return results.estimatedSize();
+    }
+
+    record Key(GridCell cell, PvSystem config, Instant forecastVersion) {
+    }
+}
@@ -0,0 +1,63 @@
+package de.ortisoft.demo.service;
+
+/**
+ * Innere Schleife der feinen Ertragsrechnung: Sonnenvektor und Strahlung je Zeitschritt eines Tages.
+ *
+ * Für feste Breite φ und Deklination δ ist der Sonnenvektor linear in cos ω und sin ω des Stundenwinkels:
+ * sin h = sin φ sin δ + cos φ cos δ · cos ω, Nord = sin δ cos φ − cos δ sin φ · cos ω, Ost = −cos δ · sin ω.
+ * Mit vorberechneten cos ω/sin ω je Schritt bleibt pro Schritt nur Multiplizieren und Addieren.
+ */
+interface SolarStepIntegrator {
+
+    /**
+     * @param day           Tageskoeffizienten {@code {sinφ·sinδ, cosφ·cosδ, sinδ·cosφ, cosδ·sinφ, cosδ}}
+     * @param cosHourAngle  cos ω je Schritt
+     * @param sinHourAngle  sin ω je Schritt
+     * @param weight        1000 W/m² · Bewölkungsfaktor · Temperaturfaktor je Schritt
+     * @param cosTilt       je Fläche cos Neigung
+     * @param northWeight   je Fläche sin Neigung · cos Azimut
+     * @param eastWeight    je Fläche sin Neigung · sin Azimut
+     * @param clearSky      Ausgabe: max(0, sin h) je Schritt
+     * @param radiation     Ausgabe: Strahlung in W/m² je {@code [fläche * n + schritt]}
+     */
+    void integrate(double[] day, double[] cosHourAngle, double[] sinHourAngle, double[] weight,
+                   double[] cosTilt, double[] northWeight, double[] eastWeight,
+                   double[] clearSky, double[] radiation);
+
+    /** Skalare Rechnung für die Schritte {@code [from, to)}, auch als Rest der Vektorschleife. */
+    static void integrateScalar(int from, int to, double[] day, double[] cosHourAngle, double[] sinHourAngle,
+                                double[] weight, double[] cosTilt, double[] northWeight, double[] eastWeight,
+                                double[] clearSky, double[] radiation) {
+        int steps = cosHourAngle.length;
+        int arrayCount = cosTilt.length;
+        for (int i = from; i < to; i++) {
+            double sinHeight = day[0] + day[1] * cosHourAngle[i];
+            if (sinHeight <= 0) {
+                clearSky[i] = 0;
+                for (int a = 0; a < arrayCount; a++) {
+                    radiation[a * steps + i] = 0;
+                }
+                continue;
+            }
+            double north = day[2] - day[3] * cosHourAngle[i];
+            double east = -day[4] * sinHourAngle[i];
+            double base = weight[i] * sinHeight;
+            clearSky[i] = sinHeight;
+            for (int a = 0; a < arrayCount; a++) {
+                double incidence = sinHeight * cosTilt[a] + north * northWeight[a] + east * eastWeight[a];
+                radiation[a * steps + i] = base * Math.max(0, incidence);
+            }
+        }
+    }
+
+    /** Rechnet ohne Vector API. */
+    final class Scalar implements SolarStepIntegrator {
+        @Override
+        public void integrate(double[] day, double[] cosHourAngle, double[] sinHourAngle, double[] weight,
+                              double[] cosTilt, double[] northWeight, double[] eastWeight,
+                              double[] clearSky, double[] radiation) {
+            integrateScalar(0, cosHourAngle.length, day, cosHourAngle, sinHourAngle, weight,
+                cosTilt, northWeight, eastWeight, clearSky, radiation);
+        }
+    }
+}
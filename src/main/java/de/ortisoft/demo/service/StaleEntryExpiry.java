@@ -0,0 +1,40 @@
+package de.ortisoft.demo.service;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Entfernt einen Eintrag erst nach Ablauf der Karenzzeit hinter seinem weichen Ablaufzeitpunkt.
+ * Bis dahin liefert der Cache den veralteten Wert aus und aktualisiert ihn im Hintergrund.
+ */
+public class StaleEntryExpiry<K, V> implements Expiry<K, CacheEntry<V>> {
+    private final Duration grace;
+    private final Clock clock;
+
+    public StaleEntryExpiry(Duration grace, Clock clock) {
+        this.grace = grace;
+        this.clock = clock;
+    }
+
+    private long remainingNanos(CacheEntry<V> entry) {
+        Duration remaining = Duration.between(clock.instant(), entry.staleAt().plus(grace));
+        return Math.max(0, remaining.toNanos());
+    }
+
+    @Override
+    public long expireAfterCreate(K key, CacheEntry<V> value, long currentTime) {
+        return remainingNanos(value);
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, CacheEntry<V> value, long currentTime, long currentDuration) {
+        return remainingNanos(value);
+    }
+
+    @Override
+    public long expireAfterRead(K key, CacheEntry<V> value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+}
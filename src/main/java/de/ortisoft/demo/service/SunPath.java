@@ -0,0 +1,33 @@
+package de.ortisoft.demo.service;
+
+import java.time.LocalDate;
+
+/**
+ * Sonnenstand an einem Ort je Tag und Stunde, so wie ihn der {@link SolarDayKernel} liest.
+ * Die {@link SolarGeometryTable} liefert die bisherige Näherung in wahrer Ortszeit, {@link PreciseSunPath}
+ * den Sonnenstand nach NOAA in der eingestellten Zeitzone. Welche verwendet wird, entscheidet {@link SolarPositions}.
+ */
+public sealed interface SunPath permits SolarGeometryTable.Row, PreciseSunPath {
+
+    /** Sonnenhöhe in Grad, negativ unter dem Horizont. */
+    double sunHeight(LocalDate date, int hour);
+
+    double sinSunHeight(LocalDate date, int hour);
+
+    /** Nordkomponente des Sonnenvektors, cos(Höhe) · cos(Azimut). */
+    double north(LocalDate date, int hour);
+
+    /** Ostkomponente des Sonnenvektors, cos(Höhe) · sin(Azimut). */
+    double east(LocalDate date, int hour);
+
+    double maxSunHeight(LocalDate date);
+
+    /** sin der höchsten Sonnenhöhe des Tages, 0 wenn die Sonne nicht aufgeht. */
+    double maxSinSunHeight(LocalDate date);
+
+    /**
+     * Kosinus des Einfallswinkels auf eine Fläche mit ganzzahliger Neigung und Azimut (0 = Nord),
+     * 0 wenn die Sonne unter dem Horizont oder hinter der Fläche steht.
+     */
+    double incidence(LocalDate date, int hour, int azimuth, int tilt);
+}
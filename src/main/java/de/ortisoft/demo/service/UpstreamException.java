@@ -0,0 +1,18 @@
+package de.ortisoft.demo.service;
+
+/**
+ * Fehlerantwort von OpenWeatherMap. Die Meldung enthält bewusst keine URL,
+ * damit der API-Key nicht in der HTML-Ausgabe landet.
+ */
+public class UpstreamException extends RuntimeException {
+    private final int statusCode;
+
+    public UpstreamException(String endpoint, int statusCode) {
+        super(String.format("OpenWeatherMap (%s) antwortete mit Status %d", endpoint, statusCode));
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
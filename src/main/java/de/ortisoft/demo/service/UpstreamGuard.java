@@ -0,0 +1,74 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.ResilienceConfig;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.function.Supplier;
+
+/**
+ * Schutzschicht um die Aufrufe eines OpenWeatherMap-Endpunkts:
+ * Circuit Breaker, Abrufkontingent, Gesamtfrist und ein Hedge-Aufruf, sobald der erste Versuch
+ * langsamer als das konfigurierte Perzentil der letzten Antwortzeiten ist.
+ * Die Wartezeit auf ein Token zählt nicht zur Frist.
+ */
+public class UpstreamGuard {
+    private final String endpoint;
+    private final Duration deadline;
+    private final boolean hedging;
+    private final long minHedgeDelayNanos;
+    private final CircuitBreaker circuitBreaker;
+    private final LatencyTracker latencyTracker;
+    private final UpstreamQuota quota;
+
+    public UpstreamGuard(String endpoint, Duration deadline, ResilienceConfig config, UpstreamQuota quota) {
+        this.endpoint = endpoint;
+        this.quota = quota;
+        this.deadline = deadline;
+        this.hedging = config.isHedging();
+        this.minHedgeDelayNanos = config.getMinHedgeDelay().toNanos();
+        this.circuitBreaker = new CircuitBreaker(endpoint, config.getBreakerWindow(),
+            config.getBreakerMinimumCalls(), config.getBreakerFailureRate(), config.getBreakerOpenDuration());
+        this.latencyTracker = new LatencyTracker(config.getLatencyWindow(), config.getHedgePercentile());
+    }
+
+    public <T> Mono<T> call(Supplier<Mono<T>> attempt) {
+        return circuitBreaker.protect(() -> quota.acquire()
+            .then(hedged(attempt)
+                .timeout(deadline, Mono.error(() -> new UpstreamTimeoutException(endpoint, deadline)))));
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private <T> Mono<T> hedged(Supplier<Mono<T>> attempt) {
+        long percentile = latencyTracker.getPercentileNanos();
+        if (!hedging || percentile < 0) {
+            return timed(attempt);
+        }
+        // Schlägt der erste Versuch fehl, bevor der Hedge startet, entfällt der Hedge
+        Sinks.One<Boolean> primaryFailed = Sinks.one();
+        Mono<T> primary = timed(attempt)
+            .doOnError(error -> primaryFailed.tryEmitValue(true));
+        Mono<T> hedge = Mono.delay(Duration.ofNanos(Math.max(percentile, minHedgeDelayNanos)))
+            .takeUntilOther(primaryFailed.asMono())
+            // Ein Hedge ist optional und wartet nie auf das Kontingent
+            .filter(tick -> quota.tryAcquire())
+            .flatMap(tick -> timed(attempt));
+        return Mono.firstWithValue(primary, hedge)
+            // Beide Versuche ohne Wert: den Fehler des ersten Versuchs weiterreichen
+            .onErrorMap(NoSuchElementException.class,
+                error -> error.getSuppressed().length > 0 ? error.getSuppressed()[0] : error);
+    }
+
+    private <T> Mono<T> timed(Supplier<Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.get()
+                .doOnNext(value -> latencyTracker.record(System.nanoTime() - start));
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.QuotaConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token Bucket für alle ausgehenden OpenWeatherMap-Aufrufe.
+ * Wartende Aufrufe werden nach Priorität bedient: Benutzeranfragen vor Hintergrundarbeit
+ * (Aktualisierung, Prefetch). Ist absehbar, dass ein Aufruf seine Wartefrist nicht
+ * einhalten kann, wird er sofort mit {@link QuotaExceededException} abgelehnt.
+ *
+ * Die Priorität kommt aus dem Reactor-Kontext, siehe {@link #inBackground(Mono)}.
+ */
+@Component
+public class UpstreamQuota {
+    public enum Priority { INTERACTIVE, BACKGROUND }
+
+    static final String PRIORITY_KEY = UpstreamQuota.class.getName() + ".priority";
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long interactiveMaxWaitNanos;
+    private final long backgroundMaxWaitNanos;
+    private final Scheduler scheduler = Schedulers.parallel();
+    private final ArrayDeque<Waiter> interactive = new ArrayDeque<>();
+    private final ArrayDeque<Waiter> background = new ArrayDeque<>();
+    private final Counter interactiveRejections;
+    private final Counter backgroundRejections;
+
+    private double tokens;
+    private long lastRefill = System.nanoTime();
+    private boolean drainScheduled;
+
+    public UpstreamQuota(QuotaConfig config, MeterRegistry meterRegistry) {
+        this.capacity = Math.max(1, config.getBurst());
+        this.tokensPerNano = config.getCallsPerMinute() / (double) TimeUnit.MINUTES.toNanos(1);
+        this.interactiveMaxWaitNanos = config.getInteractiveMaxWait().toNanos();
+        this.backgroundMaxWaitNanos = config.getBackgroundMaxWait().toNanos();
+        this.tokens = capacity;
+
+        Gauge.builder("weather.upstream.quota.tokens", this, UpstreamQuota::getAvailableTokens)
+            .description("Verfügbare OWM-Aufrufe im Token Bucket")
+            .register(meterRegistry);
+        Gauge.builder("weather.upstream.quota.queue", this, quota -> quota.getQueueDepth(Priority.INTERACTIVE))
+            .tag("priority", "interactive")
+            .register(meterRegistry);
+        Gauge.builder("weather.upstream.quota.queue", this, quota -> quota.getQueueDepth(Priority.BACKGROUND))
+            .tag("priority", "background")
+            .register(meterRegistry);
+        this.interactiveRejections = meterRegistry.counter("weather.upstream.quota.rejected", "priority", "interactive");
+        this.backgroundRejections = meterRegistry.counter("weather.upstream.quota.rejected", "priority", "background");
+    }
+
+    /**
+     * Führt einen Aufruf mit Hintergrundpriorität aus.
+     */
+    public static <T> Mono<T> inBackground(Mono<T> call) {
+        return call.contextWrite(Context.of(PRIORITY_KEY, Priority.BACKGROUND));
+    }
+
+    /**
+     * Wartet auf ein Token mit der Priorität aus dem Reactor-Kontext (Standard: Benutzeranfrage).
+     */
+    public Mono<Void> acquire() {
+        return Mono.deferContextual(context -> acquire(context.getOrDefault(PRIORITY_KEY, Priority.INTERACTIVE)));
+    }
+
+    public Mono<Void> acquire(Priority priority) {
+        return Mono.create(sink -> {
+            boolean granted = false;
+            boolean rejected = false;
+            Waiter waiter = null;
+            synchronized (this) {
+                refill();
+                ArrayDeque<Waiter> queue = queueOf(priority);
+                // Benutzeranfragen warten nur auf Benutzeranfragen, Hintergrundarbeit auf alles
+                int ahead = priority == Priority.INTERACTIVE ? interactive.size() : interactive.size() + background.size();
+                if (ahead == 0 && tokens >= 1) {
+                    tokens -= 1;
+                    granted = true;
+                } else {
+                    long maxWait = priority == Priority.INTERACTIVE ? interactiveMaxWaitNanos : backgroundMaxWaitNanos;
+                    long expectedWait = (long) ((ahead + 1 - tokens) / tokensPerNano);
+                    if (expectedWait > maxWait) {
+                        rejected = true;
+                    } else {
+                        waiter = new Waiter(sink, priority, System.nanoTime() + maxWait);
+                        queue.addLast(waiter);
+                        scheduleDrain();
+                    }
+                }
+            }
+            if (granted) {
+                sink.success();
+            } else if (rejected) {
+                reject(sink, priority);
+            } else {
+                Waiter queued = waiter;
+                sink.onCancel(() -> remove(queued));
+            }
+        });
+    }
+
+    /**
+     * Nimmt ein Token nur, wenn es sofort verfügbar ist und keine Benutzeranfrage wartet.
+     * Für optionale Aufrufe wie Hedges, die nie warten sollen.
+     */
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (interactive.isEmpty() && tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized double getAvailableTokens() {
+        refill();
+        return tokens;
+    }
+
+    public synchronized int getQueueDepth(Priority priority) {
+        return queueOf(priority).size();
+    }
+
+    private ArrayDeque<Waiter> queueOf(Priority priority) {
+        return priority == Priority.INTERACTIVE ? interactive : background;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+
+    private synchronized void remove(Waiter waiter) {
+        queueOf(waiter.priority).remove(waiter);
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled) {
+            return;
+        }
+        drainScheduled = true;
+        long untilNextToken = (long) Math.ceil(Math.max(0, 1 - tokens) / tokensPerNano);
+        scheduler.schedule(this::drain, Math.max(untilNextToken, TimeUnit.MILLISECONDS.toNanos(1)), TimeUnit.NANOSECONDS);
+    }
+
+    private void drain() {
+        List<Waiter> granted = new ArrayList<>();
+        List<Waiter> expired = new ArrayList<>();
+        synchronized (this) {
+            drainScheduled = false;
+            refill();
+            long now = System.nanoTime();
+            for (ArrayDeque<Waiter> queue : List.of(interactive, background)) {
+                while (!queue.isEmpty() && queue.peekFirst().deadline < now) {
+                    expired.add(queue.pollFirst());
+                }
+            }
+            while (tokens >= 1 && (!interactive.isEmpty() || !background.isEmpty())) {
+                granted.add(interactive.isEmpty() ? background.pollFirst() : interactive.pollFirst());
+                tokens -= 1;
+            }
+            if (!interactive.isEmpty() || !background.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+        // Signale außerhalb der Sperre, Abonnenten starten hier ihren HTTP-Aufruf
+        granted.forEach(waiter -> waiter.sink.success());
+        expired.forEach(waiter -> reject(waiter.sink, waiter.priority));
+    }
+
+    private void reject(MonoSink<Void> sink, Priority priority) {
+        (priority == Priority.INTERACTIVE ? interactiveRejections : backgroundRejections).increment();
+        sink.error(new QuotaExceededException(priority));
+    }
+
+    private record Waiter(MonoSink<Void> sink, Priority priority, long deadline) {
+    }
+}
@@ -0,0 +1,13 @@
+package de.ortisoft.demo.service;
+
+import java.time.Duration;
+
+/**
+ * OpenWeatherMap hat innerhalb der Frist des Aufrufs nicht geantwortet.
+ */
+public class UpstreamTimeoutException extends RuntimeException {
+
+    public UpstreamTimeoutException(String endpoint, Duration deadline) {
+        super(String.format("OpenWeatherMap (%s) antwortete nicht innerhalb von %d ms", endpoint, deadline.toMillis()));
+    }
+}
@@ -0,0 +1,43 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.HttpClientConfig;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Wärmt beim Start Event-Loop, DNS-Auflösung und einige Keep-Alive-Verbindungen
+ * zu OpenWeatherMap vor, damit die erste Nutzeranfrage keinen TCP-Aufbau bezahlt.
+ */
+@Component
+public class UpstreamWarmup {
+    private final HttpClientConfig httpClientConfig;
+    private final HttpClient weatherHttpClient;
+    private final WebClient weatherWebClient;
+
+    public UpstreamWarmup(HttpClientConfig httpClientConfig, HttpClient weatherHttpClient, WebClient weatherWebClient) {
+        this.httpClientConfig = httpClientConfig;
+        this.weatherHttpClient = weatherHttpClient;
+        this.weatherWebClient = weatherWebClient;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmup() {
+        if (!httpClientConfig.isWarmup()) {
+            return;
+        }
+        weatherHttpClient.warmup()
+            .thenMany(Flux.range(0, httpClientConfig.getWarmupConnections())
+                .flatMap(i -> weatherWebClient.head()
+                    .uri("/")
+                    .retrieve()
+                    .toBodilessEntity()
+                    // Der Statuscode ist egal, es geht nur um die offene Verbindung im Pool
+                    .onErrorResume(e -> Mono.empty())))
+            .subscribe();
+    }
+}
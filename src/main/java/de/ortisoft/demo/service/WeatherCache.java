@@ -0,0 +1,241 @@
+package de.ortisoft.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.model.ForecastSeries;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.WeatherResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Cache für aktuelles Wetter und 5-Tage-Vorhersage, geschlüsselt nach Gitterzelle.
+ * Abgerufen wird immer für den Zellmittelpunkt, damit benachbarte Kartenklicks dieselben Daten teilen.
+ * Gleichzeitige Fehlzugriffe auf dieselbe Zelle teilen sich einen Abruf.
+ *
+ * Nach dem weichen Ablauf wird ein Eintrag noch für die Karenzzeit ausgeliefert und dabei
+ * im Hintergrund neu geladen (stale-while-revalidate). Warten muss nur, wer eine kalte Zelle anfragt.
+ *
+ * Jede Upstream-Antwort wird roh im {@link ResponseStore} abgelegt. Nach einem Neustart
+ * beantwortet der Cache Fehlzugriffe zuerst von dort und aktualisiert veraltete Werte im Hintergrund.
+ *
+ * Vorhersagen liest der {@link ForecastDecoder} ohne Objektgraph direkt in eine {@link ForecastSeries}.
+ */
+@Service
+public class WeatherCache {
+    private final CacheConfig cacheConfig;
+    private final ResponseStore responseStore;
+    private final Clock clock;
+    private final Revalidating<WeatherResponse> currentWeather;
+    private final Revalidating<ForecastSeries> forecasts;
+
+    public WeatherCache(OpenWeatherClient openWeatherClient, CacheConfig cacheConfig, ResponseStore responseStore,
+                        ObjectMapper objectMapper, ForecastDecoder forecastDecoder, MeterRegistry meterRegistry,
+                        Clock clock) {
+        this.cacheConfig = cacheConfig;
+        this.responseStore = responseStore;
+        this.clock = clock;
+
+        CacheConfig.Spec currentSpec = cacheConfig.getCurrent();
+        Duration currentTtl = currentSpec.getTtl();
+        this.currentWeather = new Revalidating<>(ResponseStore.Kind.CURRENT,
+            payload -> objectMapper.readValue(payload, WeatherResponse.class),
+            buildCache(currentSpec), currentSpec.getStaleGrace(),
+            openWeatherClient::fetchCurrentWeather, now -> currentTtl);
+
+        CacheConfig.Spec forecastSpec = cacheConfig.getForecast();
+        ForecastCycleExpiry forecastExpiry = new ForecastCycleExpiry(forecastSpec.getTtl(),
+            cacheConfig.getForecastCycle(), cacheConfig.getForecastPublishDelay());
+        this.forecasts = new Revalidating<>(ResponseStore.Kind.FORECAST, forecastDecoder::decode,
+            buildCache(forecastSpec), forecastSpec.getStaleGrace(),
+            openWeatherClient::fetchForecast, forecastExpiry::timeToLive);
+
+        // Treffer, Fehlzugriffe und Verdrängungen unter cache.* (Actuator /metrics)
+        CaffeineCacheMetrics.monitor(meterRegistry, currentWeather.cache.synchronous(), "weather.current");
+        CaffeineCacheMetrics.monitor(meterRegistry, forecasts.cache.synchronous(), "weather.forecast");
+    }
+
+    private <V> AsyncCache<GridCell, CacheEntry<V>> buildCache(CacheConfig.Spec spec) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+            .maximumSize(spec.getMaximumSize());
+        if (spec.isRecordStats()) {
+            builder.recordStats();
+        }
+        return builder
+            .expireAfter(new StaleEntryExpiry<GridCell, V>(spec.getStaleGrace(), clock))
+            .buildAsync();
+    }
+
+    public GridCell cellOf(double lat, double lon) {
+        return GridCell.of(lat, lon, cacheConfig.getGridSize());
+    }
+
+    public Mono<CacheEntry<WeatherResponse>> getCurrentWeather(double lat, double lon) {
+        return currentWeather.get(cellOf(lat, lon));
+    }
+
+    public Mono<CacheEntry<ForecastSeries>> getForecast(double lat, double lon) {
+        return forecasts.get(cellOf(lat, lon));
+    }
+
+    public Mono<CacheEntry<ForecastSeries>> getForecast(GridCell cell) {
+        return forecasts.get(cell);
+    }
+
+    /**
+     * Fehlt die Vorhersage der Zelle oder veraltet sie vor {@code horizon}? Lädt nichts nach.
+     */
+    public boolean isForecastDueBefore(GridCell cell, Instant horizon) {
+        return forecasts.isDueBefore(cell, horizon);
+    }
+
+    /**
+     * Wird nach jedem Abruf einer neuen Vorhersage vom Upstream aufgerufen, mit Zelle und neuem Eintrag.
+     */
+    public void onForecastIngested(BiConsumer<GridCell, CacheEntry<ForecastSeries>> listener) {
+        forecasts.listeners.add(listener);
+    }
+
+    /**
+     * Lädt die Vorhersage der Zelle neu, sofern nicht schon eine Aktualisierung läuft.
+     */
+    public Mono<CacheEntry<ForecastSeries>> refreshForecast(GridCell cell) {
+        return forecasts.refreshNow(cell);
+    }
+
+    @FunctionalInterface
+    private interface PayloadDecoder<V> {
+        V decode(byte[] payload) throws IOException;
+    }
+
+    private final class Revalidating<V> {
+        private final ResponseStore.Kind kind;
+        private final PayloadDecoder<V> decoder;
+        private final AsyncCache<GridCell, CacheEntry<V>> cache;
+        private final Duration grace;
+        private final BiFunction<Double, Double, Mono<byte[]>> loader;
+        private final Function<Instant, Duration> softTtl;
+        private final Set<GridCell> refreshing = ConcurrentHashMap.newKeySet();
+        private final List<BiConsumer<GridCell, CacheEntry<V>>> listeners = new CopyOnWriteArrayList<>();
+
+        Revalidating(ResponseStore.Kind kind, PayloadDecoder<V> decoder, AsyncCache<GridCell, CacheEntry<V>> cache, Duration grace,
+                     BiFunction<Double, Double, Mono<byte[]>> loader, Function<Instant, Duration> softTtl) {
+            this.kind = kind;
+            this.decoder = decoder;
+            this.cache = cache;
+            this.grace = grace;
+            this.loader = loader;
+            this.softTtl = softTtl;
+        }
+
+        Mono<CacheEntry<V>> get(GridCell cell) {
+            // suppressCancel: ein abbrechender Client darf den gemeinsamen Abruf nicht abbrechen
+            return Mono.fromFuture(() -> cache.get(cell, (key, executor) ->
+                    restore(key).switchIfEmpty(Mono.defer(() -> load(key))).toFuture()), true)
+                .doOnNext(entry -> {
+                    if (entry.isStale(clock.instant())) {
+                        refresh(cell);
+                    }
+                });
+        }
+
+        // Kalte Zelle: erst die gespeicherte Antwort vom letzten Lauf, solange sie noch in der Karenzzeit liegt
+        private Mono<CacheEntry<V>> restore(GridCell cell) {
+            if (!responseStore.isEnabled()) {
+                return Mono.empty();
+            }
+            return Mono.fromCallable(() -> responseStore.findLatest(kind, cell))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(stored -> CacheEntry.of(decode(stored.payload()), stored.fetchedAt(),
+                    softTtl.apply(stored.fetchedAt())))
+                .filter(entry -> clock.instant().isBefore(entry.staleAt().plus(grace)))
+                // Unlesbare oder fehlende Datei: dann eben vom Upstream
+                .onErrorResume(error -> Mono.empty());
+        }
+
+        private Mono<CacheEntry<V>> load(GridCell cell) {
+            return loader.apply(cell.getCenterLat(), cell.getCenterLon())
+                .map(payload -> {
+                    Instant now = clock.instant();
+                    CacheEntry<V> entry = CacheEntry.of(decode(payload), now, softTtl.apply(now));
+                    persist(cell, now, payload);
+                    listeners.forEach(listener -> listener.accept(cell, entry));
+                    return entry;
+                });
+        }
+
+        private void persist(GridCell cell, Instant fetchedAt, byte[] payload) {
+            if (!responseStore.isEnabled()) {
+                return;
+            }
+            Mono.fromRunnable(() -> responseStore.append(kind, cell, fetchedAt, payload))
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(null, error -> {
+                    // Persistenz ist nur ein Startvorteil, Schreibfehler brechen keine Anfrage ab
+                });
+        }
+
+        private V decode(byte[] payload) {
+            try {
+                return decoder.decode(payload);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        boolean isDueBefore(GridCell cell, Instant horizon) {
+            CompletableFuture<CacheEntry<V>> future = cache.getIfPresent(cell);
+            if (future == null) {
+                return true;
+            }
+            if (!future.isDone()) {
+                // Wird gerade geladen
+                return false;
+            }
+            if (future.isCompletedExceptionally()) {
+                return true;
+            }
+            CacheEntry<V> entry = future.getNow(null);
+            return entry == null || entry.staleAt().isBefore(horizon);
+        }
+
+        Mono<CacheEntry<V>> refreshNow(GridCell cell) {
+            return Mono.defer(() -> {
+                // Nur eine Aktualisierung je Zelle, egal wie viele Anfragen den veralteten Wert sehen
+                if (!refreshing.add(cell)) {
+                    return Mono.empty();
+                }
+                return load(cell)
+                    .doOnNext(entry -> cache.put(cell, CompletableFuture.completedFuture(entry)))
+                    .doFinally(signal -> refreshing.remove(cell));
+            });
+        }
+
+        private void refresh(GridCell cell) {
+            // Läuft mit Hintergrundpriorität: Benutzeranfragen bekommen das Kontingent zuerst
+            UpstreamQuota.inBackground(refreshNow(cell))
+                .subscribe(null, error -> {
+                    // Fehlgeschlagen: der veraltete Wert bleibt bis zum Ende der Karenzzeit gültig
+                });
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.model.ForecastSeries;
+import de.ortisoft.demo.model.GeoResponse;
+import de.ortisoft.demo.model.WeatherResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hält die Upstream-Daten einer einzelnen Anfrage.
+ * Jede Ressource wird beim ersten Abonnement genau einmal geladen und danach
+ * von allen Renderern (Wetter, Vorhersage, Solar) gemeinsam genutzt.
+ */
+public class WeatherFetchContext {
+    private final double lat;
+    private final double lon;
+    private final Mono<CacheEntry<WeatherResponse>> currentWeather;
+    private final Mono<CacheEntry<ForecastSeries>> forecast;
+    private final Mono<GeoResponse> location;
+
+    WeatherFetchContext(double lat, double lon,
+                        Mono<CacheEntry<WeatherResponse>> currentWeather,
+                        Mono<CacheEntry<ForecastSeries>> forecast,
+                        Mono<GeoResponse> location) {
+        this.lat = lat;
+        this.lon = lon;
+        // cache() merkt sich Wert, Leerergebnis oder Fehler für alle weiteren Abonnenten
+        this.currentWeather = currentWeather.cache();
+        this.forecast = forecast.cache();
+        this.location = location.cache();
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLon() {
+        return lon;
+    }
+
+    public Mono<WeatherResponse> getCurrentWeather() {
+        return currentWeather.map(CacheEntry::value);
+    }
+
+    public Mono<CacheEntry<WeatherResponse>> getCurrentWeatherEntry() {
+        return currentWeather;
+    }
+
+    public Mono<ForecastSeries> getForecast() {
+        return forecast.map(CacheEntry::value);
+    }
+
+    public Mono<CacheEntry<ForecastSeries>> getForecastEntry() {
+        return forecast;
+    }
+
+    public Mono<GeoResponse> getLocation() {
+        return location;
+    }
+}
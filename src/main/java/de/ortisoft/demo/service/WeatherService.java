@@ -1,55 +1,69 @@
 package de.ortisoft.demo.service;
 
-import de.ortisoft.demo.config.WeatherConfig;
+import de.ortisoft.demo.config.CacheConfig;
 import de.ortisoft.demo.model.WeatherResponse;
-import de.ortisoft.demo.model.ForecastResponse;
-import de.ortisoft.demo.model.ForecastItem;
-import de.ortisoft.demo.model.GeoResponse;
+import de.ortisoft.demo.model.ForecastSeries;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.PvSystem;
+import de.ortisoft.demo.model.SolarDayResult;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 import java.util.Locale;
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.DoubleSummaryStatistics;
+import java.util.Optional;
 
 @Service
 public class WeatherService {
-    private static final String WEATHER_API_URL = "http://api.openweathermap.org/data/2.5/weather";
-    private static final String FORECAST_API_URL = "http://api.openweathermap.org/data/2.5/forecast";
-    private static final String GEO_API_URL = "http://api.openweathermap.org/geo/1.0/reverse";
-    
-    private final WeatherConfig weatherConfig;
-    private final RestTemplate restTemplate;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd.MM. HH:mm", Locale.GERMAN);
+    private final WeatherCache weatherCache;
     private final LocationService locationService;
-
-    public WeatherService(WeatherConfig weatherConfig, LocationService locationService) {
-        this.weatherConfig = weatherConfig;
-        this.restTemplate = new RestTemplate();
+    private final SolarPositions solarPositions;
+    private final SolarDayKernel solarDayKernel;
+    private final SolarResultCache solarResults;
+    private final CacheConfig cacheConfig;
+    private final ForecastSnapshots forecastSnapshots;
+    private final Clock clock;
+
+    public WeatherService(WeatherCache weatherCache, LocationService locationService,
+                          SolarPositions solarPositions, SolarDayKernel solarDayKernel,
+                          SolarResultCache solarResults, CacheConfig cacheConfig, ForecastSnapshots forecastSnapshots,
+                          Clock clock) {
+        this.weatherCache = weatherCache;
         this.locationService = locationService;
+        this.solarPositions = solarPositions;
+        this.solarDayKernel = solarDayKernel;
+        this.solarResults = solarResults;
+        this.cacheConfig = cacheConfig;
+        this.forecastSnapshots = forecastSnapshots;
+        this.clock = clock;
+    }
+
+    public WeatherFetchContext createFetchContext(double lat, double lon) {
+        return new WeatherFetchContext(lat, lon,
+            weatherCache.getCurrentWeather(lat, lon),
+            weatherCache.getForecast(lat, lon),
+            locationService.getLocation(lat, lon));
     }
 
-    public String getForecastByCoordinates(double lat, double lon) {
+    public Mono<String> getForecastByCoordinates(double lat, double lon) {
+        return getForecastByCoordinates(createFetchContext(lat, lon));
+    }
+
+    public Mono<String> getForecastByCoordinates(WeatherFetchContext context) {
+        return context.getForecast()
+            .map(this::renderForecast)
+            .defaultIfEmpty("<p>Vorhersagedaten konnten nicht abgerufen werden.</p>")
+            .onErrorResume(e -> Mono.just(String.format("<p>Fehler beim Abrufen der Vorhersage: %s</p>", e.getMessage())));
+    }
+
+    private String renderForecast(ForecastSeries series) {
         try {
-            String locationName = locationService.getLocationInfo(lat, lon);
-            String url = UriComponentsBuilder.fromUriString(FORECAST_API_URL)
-                .queryParam("lat", lat)
-                .queryParam("lon", lon)
-                .queryParam("appid", weatherConfig.getKey())
-                .queryParam("units", "metric")
-                .queryParam("lang", "de")
-                .build()
-                .toString();
-
-            ForecastResponse response = restTemplate.getForObject(url, ForecastResponse.class);
-
-            if (response != null && response.getList() != null && !response.getList().isEmpty()) {
+            if (series != null && !series.isEmpty()) {
                 StringBuilder forecast = new StringBuilder();
                 forecast.append(String.format("""
                     <div class="forecast">
@@ -57,86 +71,49 @@ public class WeatherService {
                         <div class="forecast-days">
                     """));
                 
-                // Gruppiere Vorhersagen nach Tagen
-                Map<LocalDate, List<ForecastItem>> dailyForecasts = response.getList().stream()
-                    .collect(Collectors.groupingBy(item -> 
-                        LocalDateTime.parse(item.getDt_txt(), 
-                            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-                        .toLocalDate()
-                    ));
-                
-                // Sortiere die Tage und zeige die ersten 5
-                dailyForecasts.keySet().stream()
-                    .sorted()
-                    .limit(5)
-                    .forEach(date -> {
-                        List<ForecastItem> dayForecasts = dailyForecasts.get(date);
-                        
-                        // Berechne Tages-Zusammenfassung
-                        DoubleSummaryStatistics tempStats = dayForecasts.stream()
-                            .mapToDouble(item -> item.getMain().getTemp())
-                            .summaryStatistics();
-                        
-                        // Durchschnittliche Bewölkung berechnen
-                        double avgCloudCover = dayForecasts.stream()
-                            .mapToInt(item -> item.getClouds().getAll())
-                            .average()
-                            .orElse(0);
-                        
-                        // Durchschnittliche Luftfeuchtigkeit berechnen
-                        double avgHumidity = dayForecasts.stream()
-                            .mapToInt(item -> item.getMain().getHumidity())
-                            .average()
-                            .orElse(0);
-                        
-                        // Häufigste Wetterbeschreibung finden
-                        String commonDescription = dayForecasts.stream()
-                            .map(item -> item.getWeather()[0].getDescription())
-                            .collect(Collectors.groupingBy(desc -> desc, Collectors.counting()))
-                            .entrySet().stream()
-                            .max(Map.Entry.comparingByValue())
-                            .map(Map.Entry::getKey)
-                            .orElse("");
-                        
-                        String dayName = date.format(DateTimeFormatter.ofPattern("EEEE", Locale.GERMAN));
-                        String dateStr = date.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
-                        
-                        // Haupteintrag für den Tag
-                        forecast.append(String.format("""
-                            <div class="forecast-day">
-                                <div class="day-summary" onclick="toggleDetails('%s')">
-                                    <div class="day-header">
-                                        <span class="day-name">%s, %s</span>
-                                        <span class="temp-range">🌡 %.1f°C bis %.1f°C</span>
-                                        <span class="description">%s</span>
-                                        <span class="cloud-cover">☁ %.0f%% Bewölkung</span>
-                                        <span class="humidity">💧 %.0f%% Luftfeuchte</span>
-                                    </div>
-                                    <span class="toggle-icon">▼</span>
+                // Tage liegen sortiert in der Serie, Kennzahlen sind beim Einlesen berechnet; zeige die ersten 5
+                int days = Math.min(series.getDayCount(), 5);
+                for (int day = 0; day < days; day++) {
+                    LocalDate date = series.getDay(day);
+                    
+                    String dayName = date.format(DateTimeFormatter.ofPattern("EEEE", Locale.GERMAN));
+                    String dateStr = date.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+                    
+                    // Haupteintrag für den Tag
+                    forecast.append(String.format("""
+                        <div class="forecast-day">
+                            <div class="day-summary" onclick="toggleDetails('%s')">
+                                <div class="day-header">
+                                    <span class="day-name">%s, %s</span>
+                                    <span class="temp-range">🌡 %.1f°C bis %.1f°C</span>
+                                    <span class="description">%s</span>
+                                    <span class="cloud-cover">☁ %.0f%% Bewölkung</span>
+                                    <span class="humidity">💧 %.0f%% Luftfeuchte</span>
                                 </div>
-                                <div class="day-details" id="details-%s" style="display: none;">
-                                    <table>
-                                        <tr>
-                                            <th>Uhrzeit</th>
-                                            <th>Temperatur</th>
-                                            <th>Beschreibung</th>
-                                            <th>Bewölkung</th>
-                                            <th>Luftfeuchtigkeit</th>
-                                        </tr>
-                        """, 
+                                <span class="toggle-icon">▼</span>
+                            </div>
+                            <div class="day-details" id="details-%s" style="display: none;">
+                                <table>
+                                    <tr>
+                                        <th>Uhrzeit</th>
+                                        <th>Temperatur</th>
+                                        <th>Beschreibung</th>
+                                        <th>Bewölkung</th>
+                                        <th>Luftfeuchtigkeit</th>
+                                    </tr>
+                    """,
                         date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
                         dayName, dateStr,
-                        tempStats.getMin(), tempStats.getMax(),
-                        commonDescription,
-                        avgCloudCover,
-                        avgHumidity,
+                        series.getDayMinTemp(day), series.getDayMaxTemp(day),
+                        series.getDayDescription(day),
+                        series.getDayAvgCloudCover(day),
+                        series.getDayAvgHumidity(day),
                         date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd"))
                     ));
                     
                     // Details für jede Vorhersage des Tages
-                    dayForecasts.forEach(item -> {
-                        LocalDateTime dateTime = LocalDateTime.parse(item.getDt_txt(), 
-                            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+                    for (int item = series.getDayStart(day); item < series.getDayEnd(day); item++) {
+                        LocalDateTime dateTime = series.getDateTime(item);
                         
                         forecast.append(String.format("""
                             <tr>
@@ -148,19 +125,19 @@ public class WeatherService {
                             </tr>
                             """,
                             dateTime.format(DateTimeFormatter.ofPattern("HH:mm")),
-                            item.getMain().getTemp(),
-                            item.getWeather()[0].getDescription(),
-                            item.getClouds().getAll(),
-                            item.getMain().getHumidity()
+                            series.getTemp(item),
+                            series.getDescription(item),
+                            series.getCloudCover(item),
+                            series.getHumidity(item)
                         ));
-                    });
+                    }
                     
                     forecast.append("""
                                 </table>
                             </div>
                         </div>
                         """);
-                    });
+                }
                 
                 forecast.append("</div>");
                 
@@ -495,14 +472,14 @@ public class WeatherService {
     }
 
     @Deprecated
-    public String getSolarData(double lat, double lon, double kwp, int azimuth, int tilt) {
+    public Mono<String> getSolarData(double lat, double lon, double kwp, int azimuth, int tilt) {
         return getSolarData(lat, lon, 
             kwp, azimuth, tilt, 20.0, 14.0,  // Standardwerte für efficiency und losses
             kwp, azimuth, tilt, 20.0, 14.0); // Gleiche Werte für zweite Anlage
     }
 
     @Deprecated
-    public String getSolarData(double lat, double lon, 
+    public Mono<String> getSolarData(double lat, double lon, 
                              double kwp1, int azimuth1, int tilt1,
                              double kwp2, int azimuth2, int tilt2) {
         return getSolarData(lat, lon,
@@ -510,58 +487,115 @@ public class WeatherService {
             kwp2, azimuth2, tilt2, 20.0, 14.0);
     }
 
-    public String getSolarData(double lat, double lon, 
+    public Mono<String> getSolarData(double lat, double lon, 
+                             double kwp1, int azimuth1, int tilt1, double efficiency1, double losses1,
+                             double kwp2, int azimuth2, int tilt2, double efficiency2, double losses2) {
+        return getSolarData(createFetchContext(lat, lon),
+            kwp1, azimuth1, tilt1, efficiency1, losses1,
+            kwp2, azimuth2, tilt2, efficiency2, losses2);
+    }
+
+    public Mono<String> getSolarData(WeatherFetchContext context,
                              double kwp1, int azimuth1, int tilt1, double efficiency1, double losses1,
                              double kwp2, int azimuth2, int tilt2, double efficiency2, double losses2) {
+        PvSystem system;
+        try {
+            system = twoArrays(kwp1, azimuth1, tilt1, efficiency1, losses1, kwp2, azimuth2, tilt2, efficiency2, losses2);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(String.format("<p>Fehler beim Abrufen der Solardaten: %s</p>", e.getMessage()));
+        }
+        return getSolarData(context, system);
+    }
+
+    /**
+     * Rechnet die Solarprognose mit dem Vorhersagestand einer früheren Antwort neu, ohne Upstream-Abruf.
+     * Leer, wenn das Token unbekannt oder abgelaufen ist.
+     */
+    public Mono<String> recomputeSolarData(String snapshotToken,
+                             double kwp1, int azimuth1, int tilt1, double efficiency1, double losses1,
+                             double kwp2, int azimuth2, int tilt2, double efficiency2, double losses2) {
+        PvSystem system;
+        try {
+            system = twoArrays(kwp1, azimuth1, tilt1, efficiency1, losses1, kwp2, azimuth2, tilt2, efficiency2, losses2);
+        } catch (IllegalArgumentException e) {
+            return Mono.just(String.format("<p>Fehler beim Abrufen der Solardaten: %s</p>", e.getMessage()));
+        }
+        return recomputeSolarData(snapshotToken, system);
+    }
+
+    public Mono<String> recomputeSolarData(String snapshotToken, PvSystem system) {
+        PvSystem config = system.canonical();
+        return Mono.justOrEmpty(forecastSnapshots.find(snapshotToken))
+            .map(snapshot -> renderSolarData(snapshot.lat(), snapshot.lon(), snapshot.forecast(), config, snapshotToken));
+    }
+
+    private static PvSystem twoArrays(double kwp1, int azimuth1, int tilt1, double efficiency1, double losses1,
+                                      double kwp2, int azimuth2, int tilt2, double efficiency2, double losses2) {
+        return new PvSystem(new double[] {kwp1, kwp2}, new int[] {azimuth1, azimuth2}, new int[] {tilt1, tilt2},
+            new double[] {efficiency1, efficiency2}, new double[] {losses1, losses2});
+    }
+
+    public Mono<String> getSolarData(double lat, double lon, PvSystem system) {
+        return getSolarData(createFetchContext(lat, lon), system);
+    }
+
+    public Mono<String> getSolarData(WeatherFetchContext context, PvSystem system) {
+        // Normalisiert, damit gleiche Anlagen denselben Cache-Eintrag treffen
+        PvSystem config = system.canonical();
+        // Die Solarprognose braucht nur die Vorhersage; fehlt sie, werden nur die Tageszeilen weggelassen
+        return context.getForecastEntry()
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .map(entry -> renderSolarData(context.getLat(), context.getLon(), entry.orElse(null), config,
+                // Token für die Neuberechnung mit genau diesem Vorhersagestand
+                entry.map(forecast -> forecastSnapshots.register(context.getLat(), context.getLon(), forecast)).orElse(null)))
+            .onErrorResume(e -> Mono.just(String.format("<p>Fehler beim Abrufen der Solardaten: %s</p>", e.getMessage())));
+    }
+
+    private String renderSolarData(double lat, double lon, CacheEntry<ForecastSeries> forecastEntry, PvSystem system,
+                                   String snapshotToken) {
         try {
             StringBuilder solarInfo = new StringBuilder();
-            
-            // Hole die aktuelle Bewölkung
-            String url = UriComponentsBuilder.fromUriString(WEATHER_API_URL)
-                .queryParam("lat", lat)
-                .queryParam("lon", lon)
-                .queryParam("appid", weatherConfig.getKey())
-                .queryParam("units", "metric")
-                .queryParam("lang", "de")
-                .build()
-                .toString();
-
-            WeatherResponse currentWeather = restTemplate.getForObject(url, WeatherResponse.class);
-            double currentCloudCover = currentWeather != null && currentWeather.getClouds() != null ? 
-                currentWeather.getClouds().getAll() : 0;
-
-            // Berechnungsfaktoren anpassen
-            double factor1 = calculateSolarFactor(azimuth1, tilt1) * (efficiency1/100.0) * (1.0 - losses1/100.0);
-            double factor2 = calculateSolarFactor(azimuth2, tilt2) * (efficiency2/100.0) * (1.0 - losses2/100.0);
 
-            solarInfo.append("""
-                <div class="category">
-                """);
+            if (snapshotToken != null) {
+                solarInfo.append(String.format("""
+                    <div class="category" data-snapshot="%s">
+                    """, snapshotToken));
+            } else {
+                solarInfo.append("""
+                    <div class="category">
+                    """);
+            }
             
             // Füge Einstellungen hinzu
             solarInfo.append(createSolarSettingsHtml());
             
             // Berechne beide maximalen Erträge
-            double maxTheoretical = calculateMaxTheoretical(kwp1, efficiency1, losses1, 
-                                                          kwp2, efficiency2, losses2);
+            double maxTheoretical = calculateMaxTheoretical(system);
+
+            // Gerechnet wird für den Zellmittelpunkt, damit Kopf und zwischengespeicherte Tage für die ganze Zelle gelten
+            GridCell cell = GridCell.of(lat, lon, cacheConfig.getGridSize());
+            SunPath sun = solarPositions.forLocation(cell.getCenterLat(), cell.getCenterLon());
 
             // Finde die maximale Sonnenhöhe des Tages
-            final double maxSunHeight = calculateMaxSunHeight(lat, LocalDate.now());
+            final double maxSunHeight = sun.maxSunHeight(LocalDate.now());
 
             // Berechne die maximale theoretische Strahlung bei klarem Himmel
-            double maxClearSkyRadiation = 1000.0 * Math.sin(Math.toRadians(maxSunHeight));
+            final double maxClearSkyRadiation = 1000.0 * sun.maxSinSunHeight(LocalDate.now());
 
-            // Berechne den maximalen Ertrag basierend auf der maximalen Sonnenhöhe
-            double maxDayYield1 = calculateHourlyYield(maxClearSkyRadiation, efficiency1, losses1) * kwp1;
-            double maxDayYield2 = calculateHourlyYield(maxClearSkyRadiation, efficiency2, losses2) * kwp2;
-            double maxDayTotal = maxDayYield1 + maxDayYield2;
+            // Ertrag bei dieser Strahlung ohne Einfallswinkel, also für senkrecht zur Sonne stehende Flächen
+            double maxDayTotal = 0;
+            for (int a = 0; a < system.size(); a++) {
+                maxDayTotal += calculateHourlyYield(maxClearSkyRadiation, system.getEfficiency(a), system.getLosses(a))
+                    * system.getKwp(a);
+            }
 
             solarInfo.append(String.format("""
                 <div class="max-theoretical">
                     <h3>Maximaler Anlagenertrag</h3>
                     <div class="max-yield-info">
                         <div>Maximaler theoretischer Stundenertrag unter STC-Bedingungen (1000 W/m², 25°C): %.2f kWh</div>
-                        <div>Maximaler Stundenertrag bei optimaler Ausrichtung (180° (Süd)) und Neigung (35°), klarem Himmel sowie maximaler Sonnenhöhe heute (%.1f°, %.0f W/m²): %.2f kWh</div>
+                        <div>Maximaler Stundenertrag bei klarem Himmel und senkrechtem Einfall auf alle Flächen, zur höchsten Sonnenhöhe heute (%.1f°, %.0f W/m² Strahlung): %.2f kWh</div>
                     </div>
                 </div>
                 """, maxTheoretical, maxSunHeight, maxClearSkyRadiation, maxDayTotal));
@@ -574,91 +608,9 @@ public class WeatherService {
                     <div class="forecast-days">
                 """);
 
-            // Vorhersagedaten abrufen
-            String forecastUrl = UriComponentsBuilder.fromUriString(FORECAST_API_URL)
-                .queryParam("lat", lat)
-                .queryParam("lon", lon)
-                .queryParam("appid", weatherConfig.getKey())
-                .queryParam("units", "metric")
-                .queryParam("lang", "de")
-                .build()
-                .toString();
-
-            ForecastResponse forecastResponse = restTemplate.getForObject(forecastUrl, ForecastResponse.class);
-            
-            if (forecastResponse != null && forecastResponse.getList() != null) {
-                // Gruppiere Vorhersagen nach Tagen
-                Map<LocalDate, List<ForecastItem>> dailyForecasts = forecastResponse.getList().stream()
-                    .collect(Collectors.groupingBy(item -> 
-                        LocalDateTime.parse(item.getDt_txt(), 
-                            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))
-                        .toLocalDate()
-                    ));
-                
-                // Sortiere die Tage und zeige die ersten 5
-                dailyForecasts.keySet().stream()
-                    .sorted()
-                    .limit(5)
-                    .forEach(date -> {
-                        List<ForecastItem> dayForecasts = dailyForecasts.get(date);
-                        double avgCloudCover = dayForecasts.stream()
-                            .mapToInt(item -> item.getClouds().getAll())
-                            .average()
-                            .orElse(0);
-                        
-                        double maxRadiation = calculateHourlyRadiation(lat, date, 12, avgCloudCover, azimuth1, tilt1);
-                        double avgRadiation = calculateAverageRadiation(lat, date, avgCloudCover, azimuth1, tilt1);
-                        double dailyYield1 = calculateDailyYield(lat, lon, avgCloudCover, date, azimuth1, tilt1, kwp1, efficiency1, losses1);
-                        double dailyYield2 = calculateDailyYield(lat, lon, avgCloudCover, date, azimuth2, tilt2, kwp2, efficiency2, losses2);
-                        
-                        String dayName = date.format(DateTimeFormatter.ofPattern("EEEE", Locale.GERMAN));
-                        String dateStr = date.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
-                        
-                        solarInfo.append(String.format("""
-                            <div class="forecast-day">
-                                <div class="day-summary" onclick="toggleDetails('solar-%s')">
-                                    <div class="day-header">
-                                        <span class="day-name">%s, %s</span>
-                                        <span class="cloud-cover">☁ %.0f%%</span>
-                                        <span class="radiation">☀ %.0f - %.0f W/m² | Ø %.0f W/m²</span>
-                                        <span class="yield">⚡ Anlage 1 (%.1f kWp): %.1f kWh</span>
-                                        <span class="yield">⚡ Anlage 2 (%.1f kWp): %.1f kWh</span>
-                                        <span class="total-yield">💡 Gesamt: %.1f kWh</span>
-                                    </div>
-                                    <span class="toggle-icon">▼</span>
-                                </div>
-                                <div class="day-details" id="details-solar-%s" style="display: none;">
-                                    <table>
-                                        <tr>
-                                            <th>Uhrzeit</th>
-                                            <th>Sonnenhöhe</th>
-                                            <th>Bewölkung</th>
-                                            <th>Strahlung (min-max | Ø)</th>
-                                            <th>Anlage 1 (kWh/kWp)</th>
-                                            <th>Anlage 1 (kWh)</th>
-                                            <th>Anlage 2 (kWh/kWp)</th>
-                                            <th>Anlage 2 (kWh)</th>
-                                            <th>Gesamt (kWh)</th>
-                                        </tr>
-                                        %s
-                                    </table>
-                                </div>
-                            </div>
-                            """,
-                            date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
-                            dayName, dateStr,
-                            avgCloudCover,
-                            calculateMinRadiation(lat, date, avgCloudCover, azimuth1, tilt1), maxRadiation, avgRadiation,
-                            kwp1, dailyYield1,
-                            kwp2, dailyYield2,
-                            dailyYield1 + dailyYield2,
-                            date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
-                            generateHourlyRows(lat, date, avgCloudCover, 
-                                kwp1, azimuth1, tilt1, efficiency1, losses1,
-                                kwp2, azimuth2, tilt2, efficiency2, losses2,
-                                maxSunHeight)
-                        ));
-                    });
+            if (forecastEntry != null) {
+                solarInfo.append(solarResults.get(cell, system, forecastEntry.fetchedAt(),
+                    () -> renderSolarDays(sun, cell.getCenterLon(), forecastEntry.value(), system, maxTheoretical)));
             }
 
             solarInfo.append("""
@@ -671,8 +623,7 @@ public class WeatherService {
                             <ul>
                                 <li>Grundstrahlung: Theoretische maximale Strahlung bei klarem Himmel (ca. 1000 W/m²)</li>
                                 <li>Bewölkung: Aus OpenWeatherMap-API (0-100%), reduziert die Strahlung um bis zu 75%</li>
-                                <li>Ausrichtung (Azimut): 180° (Süd) ist optimal, Ost/West reduziert die effektive Strahlung um bis zu 30%</li>
-                                <li>Neigung: 35° ist optimal, Abweichungen reduzieren die effektive Strahlung um bis zu 20%</li>
+                                <li>Ausrichtung (Azimut) und Neigung: Einfallswinkel aus dem Sonnenstand; die beste Ausrichtung hängt vom Standort ab (/solar/optimize)</li>
                             </ul>
                         </li>
                         <li>Anlagenertrag (kWh) = Strahlung × Anlagengröße × Wirkungsgrad × (1 - Verluste) × Zeit
@@ -693,71 +644,66 @@ public class WeatherService {
         }
     }
 
-    private double calculateSunHeight(double lat, LocalDate date, int hour) {
-        double dayOfYear = date.getDayOfYear();
-        double declination = 23.45 * Math.sin(Math.toRadians((360.0/365.0) * (dayOfYear - 81)));
-        double latRad = Math.toRadians(lat);
-        double hourAngle = (hour - 12) * 15; // 15° pro Stunde
-        double hourAngleRad = Math.toRadians(hourAngle);
-        double declinationRad = Math.toRadians(declination);
-        
-        double sinHeight = Math.sin(latRad) * Math.sin(declinationRad) +
-                          Math.cos(latRad) * Math.cos(declinationRad) * Math.cos(hourAngleRad);
-        
-        return Math.toDegrees(Math.asin(sinHeight));
-    }
-
-    private double calculateSunAzimuth(double lat, LocalDate date, int hour) {
-        double dayOfYear = date.getDayOfYear();
-        double declination = 23.45 * Math.sin(Math.toRadians((360.0/365.0) * (dayOfYear - 81)));
-        double latRad = Math.toRadians(lat);
-        double decRad = Math.toRadians(declination);
-        double hourAngle = (hour - 12) * 15;
-        double hourAngleRad = Math.toRadians(hourAngle);
-        
-        // Berechne Sonnenhöhe
-        double sinHeight = Math.sin(latRad) * Math.sin(decRad) +
-                          Math.cos(latRad) * Math.cos(decRad) * Math.cos(hourAngleRad);
-        double sunHeight = Math.asin(sinHeight);
-        
-        // Wenn die Sonne unter dem Horizont ist, gib 0 zurück
-        if (Math.toDegrees(sunHeight) <= 0) {
-            return 0;
-        }
-        
-        // Berechne Azimut
-        double cosAzimuth = (Math.sin(decRad) - Math.sin(latRad) * sinHeight) /
-                           (Math.cos(latRad) * Math.cos(sunHeight));
-        
-        // Begrenze cosAzimuth auf [-1, 1] um NaN zu vermeiden
-        cosAzimuth = Math.max(-1, Math.min(1, cosAzimuth));
-        
-        double azimuth = Math.toDegrees(Math.acos(cosAzimuth));
-        if (hour > 12) {
-            azimuth = 360 - azimuth;
+    // Prognosetage für eine Anlage: der teure Teil, je (Anlage, Zelle, Vorhersagestand) nur einmal gerechnet
+    private String renderSolarDays(SunPath sun, double lon, ForecastSeries forecast, PvSystem system,
+                                   double maxTheoretical) {
+        StringBuilder days = new StringBuilder();
+        // Tage und ihre mittlere Bewölkung stammen aus der Vorhersageserie; zeige die ersten 5
+        int dayCount = Math.min(forecast.getDayCount(), 5);
+        // Ein Ergebnisobjekt für alle Tage, der Kern füllt es je Tag in einem Durchlauf
+        SolarDayResult result = solarDayKernel.newResult(system.size());
+        double[] hourlyCloudCover = new double[SolarDayKernel.STEPS];
+        for (int day = 0; day < dayCount; day++) {
+            LocalDate date = forecast.getDay(day);
+            double avgCloudCover = forecast.getDayAvgCloudCover(day);
+            // Gerechnet wird mit der Bewölkung der jeweiligen Stunde, der Tagesmittelwert dient nur der Anzeige
+            forecast.hourlyCloudCovers(day, solarPositions.utcOffsetHours(lon, date), hourlyCloudCover);
+            // Referenzbalken aus dem Sonnenhöchststand dieses Tages, nur von Zelle und Datum abhängig
+            solarDayKernel.compute(sun, date, avgCloudCover, hourlyCloudCover, system,
+                1000.0 * sun.maxSinSunHeight(date), maxTheoretical, result);
+            
+            String dayName = date.format(DateTimeFormatter.ofPattern("EEEE", Locale.GERMAN));
+            String dateStr = date.format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
+            
+            days.append(String.format("""
+                <div class="forecast-day">
+                    <div class="day-summary" onclick="toggleDetails('solar-%s')">
+                        <div class="day-header">
+                            <span class="day-name">%s, %s</span>
+                            <span class="cloud-cover">☁ %.0f%%</span>
+                            <span class="radiation">☀ %.0f - %.0f W/m² | Ø %.0f W/m²</span>
+                            %s
+                            <span class="total-yield">💡 Gesamt: %.1f kWh</span>
+                        </div>
+                        <span class="toggle-icon">▼</span>
+                    </div>
+                    <div class="day-details" id="details-solar-%s" style="display: none;">
+                        <table>
+                            <tr>
+                                <th>Uhrzeit</th>
+                                <th>Sonnenhöhe</th>
+                                <th>Bewölkung</th>
+                                <th>Strahlung (min-max | Ø)</th>
+                                %s
+                                <th>Gesamt (kWh)</th>
+                            </tr>
+                            %s
+                        </table>
+                    </div>
+                </div>
+                """,
+                date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
+                dayName, dateStr,
+                avgCloudCover,
+                result.getDayMinRadiation(), result.getDayMaxRadiation(), result.getDayAvgRadiation(),
+                generateDailyYields(system, result),
+                result.getTotalDailyYield(),
+                date.format(DateTimeFormatter.ofPattern("yyyy-MM-dd")),
+                generateArrayHeaders(system),
+                generateHourlyRows(result)
+            ));
         }
-        
-        return azimuth;
-    }
-
-    private double calculateOrientationFactor(double sunHeight, double sunAzimuth, 
-                                            double panelAzimuth, double panelTilt) {
-        // Wenn die Sonne unter dem Horizont ist, kein Ertrag
-        if (sunHeight <= 0) return 0;
-        
-        // Umrechnung in Radiant
-        double sunHeightRad = Math.toRadians(sunHeight);
-        double sunAzimuthRad = Math.toRadians(sunAzimuth);
-        double panelAzimuthRad = Math.toRadians(panelAzimuth);
-        double panelTiltRad = Math.toRadians(panelTilt);
-        
-        // Berechnung des Einfallswinkels
-        double cosIncidence = Math.sin(sunHeightRad) * Math.cos(panelTiltRad) +
-                            Math.cos(sunHeightRad) * Math.sin(panelTiltRad) * 
-                            Math.cos(sunAzimuthRad - panelAzimuthRad);
-        
-        // Korrektur für negative Werte (Rückseite des Panels)
-        return Math.max(0, cosIncidence);
+        return days.toString();
     }
 
     public double calculateHourlyYield(double radiation, double efficiency, double losses) {
@@ -771,58 +717,6 @@ public class WeatherService {
         return kwhPerKwp * (efficiency/100.0) * (1.0 - losses/100.0);
     }
 
-    private double calculateHourlyRadiation(double lat, LocalDate date, int hour, double cloudCover, int azimuth, int tilt) {
-        double sunHeight = calculateSunHeight(lat, date, hour);
-        if (sunHeight <= 0) return 0;
-        
-        double sunAzimuth = calculateSunAzimuth(lat, date, hour);
-        
-        // "Eine Sonneneinstrahlung von 1.000 Watt pro m²" (STC)
-        double maxRadiation = 1000.0 * Math.sin(Math.toRadians(sunHeight));
-        
-        // Bewölkungs-Faktor
-        // "Grundsätzlich funktioniert Photovoltaik auch im Schatten"
-        double cloudFactor = 1.0 - (cloudCover / 100.0) * 0.70; // 30% Minimum bei voller Bewölkung
-        
-        // Ausrichtungs- und Neigungsfaktor
-        // "In Deutschland ist bei einem Dach mit südlicher Ausrichtung ein 
-        // Neigungswinkel zwischen 30 und 45 Grad ideal"
-        double orientationFactor = calculateOrientationFactor(sunHeight, sunAzimuth, azimuth, tilt);
-        
-        // Temperatureinfluss
-        // "Sobald die Solarzellen eine höhere Temperatur als die 25 °C erreichen, 
-        // sinkt die Leistung um 0,3 - 0,4% pro Grad"
-        double tempFactor = 1.0;  // Standardtemperatur
-        if (hour >= 10 && hour <= 16) {  // Während der heißen Tageszeit
-            tempFactor = 0.90;    // Annahme: ca. 10% Verlust durch Temperatur
-        }
-        
-        return maxRadiation * cloudFactor * orientationFactor * tempFactor;
-    }
-
-    private double calculateDailyYield(double lat, double lon, double avgCloudCover, LocalDate date, 
-                                     int azimuth, int tilt, double kwp, double efficiency, double losses) {
-        double dailyYield = 0;
-        for (int hour = 0; hour < 24; hour++) {
-            double hourlyRadiation = calculateHourlyRadiation(lat, date, hour, avgCloudCover, azimuth, tilt);
-            dailyYield += calculateHourlyYield(hourlyRadiation, efficiency, losses) * kwp;
-        }
-        return dailyYield;
-    }
-
-    private double calculateAverageRadiation(double lat, LocalDate date, double avgCloudCover, int azimuth, int tilt) {
-        double totalRadiation = 0;
-        int dayHours = 0;
-        for (int hour = 0; hour < 24; hour++) {
-            double sunHeight = calculateSunHeight(lat, date, hour);
-            if (sunHeight > 0) {
-                totalRadiation += calculateHourlyRadiation(lat, date, hour, avgCloudCover, azimuth, tilt);
-                dayHours++;
-            }
-        }
-        return dayHours > 0 ? totalRadiation / dayHours : 0;
-    }
-
     public String getWeatherAndForecast() {
         return """
             <!DOCTYPE html>
@@ -1516,10 +1410,53 @@ public class WeatherService {
                         const losses1 = document.getElementById('losses1').value;
                         const losses2 = document.getElementById('losses2').value;
 
+                        // Gleicher Standort, nur Anlagenwerte geändert: mit dem Vorhersagestand der letzten Antwort neu rechnen
+                        const solarCategory = document.querySelector('#solar-data .category[data-snapshot]');
+                        if (solarCategory && lat === window.lastLat && lng === window.lastLon) {
+                            const params = new URLSearchParams({
+                                snapshot: solarCategory.dataset.snapshot,
+                                kwp1, azimuth1, tilt1, efficiency1, losses1,
+                                kwp2, azimuth2, tilt2, efficiency2, losses2
+                            });
+                            recomputeSolar(params)
+                                .catch(error => {
+                                    // Stand abgelaufen oder Server neu gestartet: alles neu laden
+                                    console.log('Neuberechnung nicht möglich, lade neu:', error);
+                                    loadWeatherData(lat, lng, kwp1, kwp2, azimuth1, azimuth2, tilt1, tilt2, efficiency1, efficiency2, losses1, losses2);
+                                });
+                            return;
+                        }
+
                         // Lade die kompletten Wetterdaten neu
                         loadWeatherData(lat, lng, kwp1, kwp2, azimuth1, azimuth2, tilt1, tilt2, efficiency1, efficiency2, losses1, losses2);
                     }
 
+                    function recomputeSolar(params) {
+                        return fetch(`/solar/recompute?${params}`)
+                            .then(response => {
+                                if (!response.ok) {
+                                    throw new Error('Status ' + response.status);
+                                }
+                                return response.text();
+                            })
+                            .then(html => {
+                                // Die Antwort enthält das Formular mit Standardwerten: Eingaben übernehmen
+                                const inputIds = ['kwp1', 'azimuth1', 'tilt1', 'efficiency1', 'losses1',
+                                                  'kwp2', 'azimuth2', 'tilt2', 'efficiency2', 'losses2'];
+                                document.getElementById('solar-data').innerHTML = html;
+                                inputIds.forEach(id => {
+                                    const input = document.getElementById(id);
+                                    if (input) input.value = params.get(id);
+                                });
+                                window.currentKwp1 = params.get('kwp1');
+                                window.currentKwp2 = params.get('kwp2');
+                                window.currentEfficiency1 = params.get('efficiency1');
+                                window.currentEfficiency2 = params.get('efficiency2');
+                                window.currentLosses1 = params.get('losses1');
+                                window.currentLosses2 = params.get('losses2');
+                            });
+                    }
+
                     // Karte initialisieren
                     const map = L.map('map').setView([51.165691, 10.451526], 6);
                     
@@ -1654,7 +1591,33 @@ public class WeatherService {
             """;
     }
 
-    public String getWeatherByCoordinates(double lat, double lon, String clientTime, int clientOffset) {
+    public Mono<String> getWeatherByCoordinates(double lat, double lon, String clientTime, int clientOffset) {
+        return getWeatherByCoordinates(createFetchContext(lat, lon), clientTime, clientOffset);
+    }
+
+    public Mono<String> getWeatherByCoordinates(WeatherFetchContext context, String clientTime, int clientOffset) {
+        Mono<String> locationName = context.getLocation()
+            .map(locationService::getLocationName)
+            .defaultIfEmpty(LocationService.UNKNOWN_LOCATION);
+
+        // Aktuelles Wetter, Ort und Vorhersage laufen parallel
+        // Alter der Vorhersage nur als Metadatum; Fehler meldet bereits der Vorhersage-Renderer
+        Mono<Optional<CacheEntry<ForecastSeries>>> forecastEntry = context.getForecastEntry()
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .onErrorReturn(Optional.empty());
+
+        return Mono.zip(context.getCurrentWeatherEntry(), locationName, getForecastByCoordinates(context), forecastEntry)
+            .map(tuple -> renderCurrentWeather(tuple.getT1(), tuple.getT4().orElse(null), tuple.getT2(), tuple.getT3(),
+                clientTime, clientOffset))
+            .defaultIfEmpty("<p>Wetterdaten konnten nicht abgerufen werden.</p>")
+            .onErrorResume(e -> Mono.just(String.format("<p>Fehler beim Abrufen der Wetterdaten: %s</p>", e.getMessage())));
+    }
+
+    private String renderCurrentWeather(CacheEntry<WeatherResponse> weatherEntry, CacheEntry<ForecastSeries> forecastEntry,
+                                        String locationName, String forecastHtml,
+                                        String clientTime, int clientOffset) {
+        WeatherResponse response = weatherEntry.value();
         try {
             // Parse client time
             LocalDateTime clientDateTime = LocalDateTime.parse(clientTime, DateTimeFormatter.ISO_DATE_TIME)
@@ -1664,22 +1627,10 @@ public class WeatherService {
             LocalDate clientDate = clientDateTime.toLocalDate();
             int clientHour = clientDateTime.getHour();
             
-            String url = UriComponentsBuilder.fromUriString(WEATHER_API_URL)
-                .queryParam("lat", lat)
-                .queryParam("lon", lon)
-                .queryParam("appid", weatherConfig.getKey())
-                .queryParam("units", "metric")
-                .queryParam("lang", "de")
-                .build()
-                .toString();
-
-            WeatherResponse response = restTemplate.getForObject(url, WeatherResponse.class);
-            
             if (response != null && response.getMain() != null && response.getWeather() != null 
                 && response.getWeather().length > 0) {
-                String locationName = locationService.getLocationName(lat, lon);
                 return String.format("""
-                    <div class="category">
+                    <div class="category" %s>
                         <div class="location-info" data-location="%s"></div>
                         <div class="current-weather">
                             <h3>Aktuelles Wetter</h3>
@@ -1701,12 +1652,13 @@ public class WeatherService {
                         %s
                     </div>
                     """,
+                    renderFreshness(weatherEntry, forecastEntry),
                     locationName,
                     response.getMain().getTemp(),
                     response.getWeather()[0].getDescription(),
                     response.getClouds().getAll(),
                     response.getMain().getHumidity(),
-                    getForecastByCoordinates(lat, lon)
+                    forecastHtml
                 );
             }
             return "<p>Wetterdaten konnten nicht abgerufen werden.</p>";
@@ -1715,57 +1667,54 @@ public class WeatherService {
         }
     }
 
-    private String generateHourlyRows(double lat, LocalDate date, double avgCloudCover,
-                                    double kwp1, int azimuth1, int tilt1, double efficiency1, double losses1,
-                                    double kwp2, int azimuth2, int tilt2, double efficiency2, double losses2,
-                                    double maxSunHeight) {  // Neuer Parameter
-        // Berechne maximalen theoretischen Stundenertrag (STC)
-        double maxTheoretical = calculateMaxTheoretical(kwp1, efficiency1, losses1,
-                                                      kwp2, efficiency2, losses2);
-        
+    // Alter der Daten in Sekunden; data-stale markiert Werte, die gerade im Hintergrund erneuert werden.
+    // Dieselbe Uhr wie im WeatherCache, sonst widerspräche die Anzeige der Staleness des Caches
+    private String renderFreshness(CacheEntry<WeatherResponse> weatherEntry, CacheEntry<ForecastSeries> forecastEntry) {
+        Instant now = clock.instant();
+        boolean stale = weatherEntry.isStale(now);
+        StringBuilder attributes = new StringBuilder()
+            .append("data-weather-age=\"").append(weatherEntry.ageAt(now).toSeconds()).append('"');
+        if (forecastEntry != null) {
+            stale |= forecastEntry.isStale(now);
+            attributes.append(" data-forecast-age=\"").append(forecastEntry.ageAt(now).toSeconds()).append('"');
+        }
+        return attributes.append(" data-stale=\"").append(stale).append('"').toString();
+    }
+
+    private String generateDailyYields(PvSystem system, SolarDayResult result) {
+        StringBuilder spans = new StringBuilder();
+        for (int a = 0; a < system.size(); a++) {
+            spans.append(String.format("<span class=\"yield\">⚡ Anlage %d (%.1f kWp): %.1f kWh</span>",
+                a + 1, system.getKwp(a), result.getDailyYield(a)));
+        }
+        return spans.toString();
+    }
+
+    private String generateArrayHeaders(PvSystem system) {
+        StringBuilder headers = new StringBuilder();
+        for (int a = 1; a <= system.size(); a++) {
+            headers.append(String.format("<th>Anlage %d (kWh/kWp)</th><th>Anlage %d (kWh)</th>", a, a));
+        }
+        return headers.toString();
+    }
+
+    private String generateHourlyRows(SolarDayResult result) {
         StringBuilder rows = new StringBuilder();
-        for (int hour = 0; hour < 24; hour++) {
-            double sunHeight = calculateSunHeight(lat, date, hour);
-            if (sunHeight > 0) {
-                double hourlyRadiation1 = calculateHourlyRadiation(lat, date, hour, avgCloudCover, azimuth1, tilt1);
-                double hourlyRadiation2 = calculateHourlyRadiation(lat, date, hour, avgCloudCover, azimuth2, tilt2);
-                
-                double hourlyYield1 = calculateHourlyYield(hourlyRadiation1, efficiency1, losses1);
-                double hourlyYield2 = calculateHourlyYield(hourlyRadiation2, efficiency2, losses2);
-                
-                double minHourlyRadiation = Math.min(hourlyRadiation1, hourlyRadiation2);
-                double maxHourlyRadiation = Math.max(hourlyRadiation1, hourlyRadiation2);
-                double avgHourlyRadiation = (hourlyRadiation1 + hourlyRadiation2) / 2.0;
-                
-                double hourlyTotal = (hourlyYield1 * kwp1) + (hourlyYield2 * kwp2);
-                
-                // Berechne den maximalen Ertrag für diese Stunde basierend auf der Sonnenhöhe
-                double maxRadiationForHour = 1000.0 * Math.sin(Math.toRadians(Math.max(0, sunHeight)));
-                double maxYield1ForHour = calculateHourlyYield(maxRadiationForHour, efficiency1, losses1) * kwp1;
-                double maxYield2ForHour = calculateHourlyYield(maxRadiationForHour, efficiency2, losses2) * kwp2;
-                double maxTotalForHour = maxYield1ForHour + maxYield2ForHour;
-                
-                // Berechne den maximalen Tagesertrag (wie in der Übersicht)
-                double maxDayRadiation = 1000.0 * Math.sin(Math.toRadians(maxSunHeight));
-                double maxDayYield1 = calculateHourlyYield(maxDayRadiation, efficiency1, losses1) * kwp1;
-                double maxDayYield2 = calculateHourlyYield(maxDayRadiation, efficiency2, losses2) * kwp2;
-                double maxDayTotal = maxDayYield1 + maxDayYield2;
-                
-                // Berechne die Balkenbreiten (0-140px)
-                double currentWidth = (hourlyTotal / maxTheoretical) * 140.0;
-                double maxHourWidth = (maxTotalForHour / maxTheoretical) * 140.0;
-                double maxDayWidth = (maxDayTotal / maxTheoretical) * 140.0;
-                
+        for (int hour = 0; hour < result.getSteps(); hour++) {
+            if (result.isDaylight(hour)) {
+                StringBuilder arrayCells = new StringBuilder();
+                for (int a = 0; a < result.getArrayCount(); a++) {
+                    arrayCells.append(String.format("<td>%.3f kWh/kWp</td><td>%.2f kWh</td>",
+                        result.getYieldPerKwp(a, hour), result.getYield(a, hour)));
+                }
+                // Balkenbreiten (0-140px) relativ zum theoretischen Maximum
                 rows.append(String.format("""
                     <tr>
                         <td>%02d:00</td>
                         <td>%.1f°</td>
                         <td>%.0f%%</td>
                         <td>%.0f - %.0f W/m² | Ø %.0f W/m²</td>
-                        <td>%.3f kWh/kWp</td>
-                        <td>%.2f kWh</td>
-                        <td>%.3f kWh/kWp</td>
-                        <td>%.2f kWh</td>
+                        %s
                         <td>%.2f kWh</td>
                         <td class="chart-cell">
                             <div class="bar-container">
@@ -1776,56 +1725,18 @@ public class WeatherService {
                         </td>
                     </tr>
                     """,
-                    hour, sunHeight, avgCloudCover,
-                    minHourlyRadiation, maxHourlyRadiation, avgHourlyRadiation,
-                    hourlyYield1, hourlyYield1 * kwp1,
-                    hourlyYield2, hourlyYield2 * kwp2,
-                    hourlyTotal,
-                    maxHourWidth, maxDayWidth, currentWidth   // Nur die Balkenbreiten
+                    hour, result.getSunHeight(hour), result.getCloudCover(hour),
+                    result.getMinRadiation(hour), result.getMaxRadiation(hour), result.getAvgRadiation(hour),
+                    arrayCells,
+                    result.getTotal(hour),
+                    result.getClearSkyRatio(hour) * 140.0, result.getClearSkyDayRatio() * 140.0,
+                    result.getTotalRatio(hour) * 140.0
                 ));
             }
         }
         return rows.toString();
     }
 
-    private double calculateMinRadiation(double lat, LocalDate date, double avgCloudCover, int azimuth, int tilt) {
-        double minRadiation = Double.MAX_VALUE;
-        boolean hasDaylight = false;
-        
-        for (int hour = 0; hour < 24; hour++) {
-            double sunHeight = calculateSunHeight(lat, date, hour);
-            if (sunHeight > 0) {
-                hasDaylight = true;
-                double radiation = calculateHourlyRadiation(lat, date, hour, avgCloudCover, azimuth, tilt);
-                if (radiation > 0) {
-                    minRadiation = Math.min(minRadiation, radiation);
-                }
-            }
-        }
-        return hasDaylight ? minRadiation : 0;
-    }
-
-    private double getCurrentDayYield(double lat, LocalDate clientDate, double cloudCover, 
-                                    int azimuth, int tilt, double kwp, double efficiency, double losses, int clientHour) {
-        double yield = 0;
-        for (int hour = 0; hour <= clientHour; hour++) {
-            double radiation = calculateHourlyRadiation(lat, clientDate, hour, cloudCover, azimuth, tilt);
-            yield += calculateHourlyYield(radiation, efficiency, losses) * kwp;
-        }
-        return yield;
-    }
-
-    private double getCurrentPower(double lat, LocalDate clientDate, int clientHour, 
-                                 double cloudCover, int azimuth, int tilt, double kwp) {
-        double radiation = getCurrentRadiation(lat, clientDate, clientHour, cloudCover, azimuth, tilt);
-        return (radiation / 1000.0) * kwp * 0.96;
-    }
-
-    private double getCurrentRadiation(double lat, LocalDate clientDate, int clientHour, 
-                                     double cloudCover, int azimuth, int tilt) {
-        return calculateHourlyRadiation(lat, clientDate, clientHour, cloudCover, azimuth, tilt);
-    }
-
     private String createSolarSettingsHtml() {
         return """
             <div class="settings">
@@ -1892,40 +1803,15 @@ public class WeatherService {
             """;
     }
 
-    private double calculateSolarFactor(int azimuth, int tilt) {
-        // Optimale Ausrichtung ist Süd (180°) mit 35° Neigung
-        double optimalAzimuth = 180.0;
-        double optimalTilt = 35.0;
-        
-        // Berechne Abweichung von der optimalen Ausrichtung
-        double azimuthDiff = Math.abs(azimuth - optimalAzimuth);
-        double tiltDiff = Math.abs(tilt - optimalTilt);
-        
-        // Faktor basierend auf der Abweichung (vereinfachte Berechnung)
-        double azimuthFactor = 1.0 - (azimuthDiff / 180.0) * 0.3;  // max 30% Verlust durch Azimuth
-        double tiltFactor = 1.0 - (tiltDiff / 90.0) * 0.2;         // max 20% Verlust durch Tilt
-        
-        return azimuthFactor * tiltFactor;
-    }
-
-    private double calculateMaxTheoretical(double kwp1, double efficiency1, double losses1,
-                                     double kwp2, double efficiency2, double losses2) {
+    private double calculateMaxTheoretical(PvSystem system) {
         // STC-Bedingungen: 1000 W/m², 25°C
         double maxRadiation = 1000.0;
-        
-        // Berechne maximalen Ertrag für beide Anlagen unter STC
-        double maxYield1 = calculateHourlyYield(maxRadiation, efficiency1, losses1) * kwp1;
-        double maxYield2 = calculateHourlyYield(maxRadiation, efficiency2, losses2) * kwp2;
-        
-        return maxYield1 + maxYield2;
-    }
 
-    private double calculateMaxSunHeight(double lat, LocalDate date) {
-        double maxHeight = 0;
-        for (int hour = 0; hour < 24; hour++) {
-            double sunHeight = calculateSunHeight(lat, date, hour);
-            maxHeight = Math.max(maxHeight, sunHeight);
+        // Summe der maximalen Erträge aller Flächen unter STC
+        double maxYield = 0;
+        for (int a = 0; a < system.size(); a++) {
+            maxYield += calculateHourlyYield(maxRadiation, system.getEfficiency(a), system.getLosses(a)) * system.getKwp(a);
         }
-        return maxHeight;
+        return maxYield;
     }
 } 
\ No newline at end of file
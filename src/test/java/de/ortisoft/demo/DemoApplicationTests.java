@@ -1,7 +1,21 @@
 package de.ortisoft.demo;
 
+import de.ortisoft.demo.model.PvArrayConfig;
+import de.ortisoft.demo.model.SolarRequest;
+import de.ortisoft.demo.service.AnnualYieldService;
+import de.ortisoft.demo.service.FleetForecastService;
+import de.ortisoft.demo.service.HotCellTracker;
+import de.ortisoft.demo.service.OrientationOptimizer;
+import de.ortisoft.demo.service.WeatherService;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @SpringBootTest
 class DemoApplicationTests {
@@ -10,4 +24,36 @@ class DemoApplicationTests {
 	void contextLoads() {
 	}
 
+	@Test
+	void shouldRejectSolarRequestWithoutLocation() {
+		// Arrange
+		WeatherService weatherService = mock(WeatherService.class);
+		HotCellTracker hotCellTracker = mock(HotCellTracker.class);
+		AnnualYieldService annualYieldService = mock(AnnualYieldService.class);
+		DemoApplication application = new DemoApplication(weatherService, hotCellTracker,
+			mock(FleetForecastService.class), annualYieldService, mock(OrientationOptimizer.class));
+		SolarRequest request = new SolarRequest();
+		request.setLat(52.52);
+		request.setArrays(List.of(new PvArrayConfig(4.8, 180, 35, 20, 14)));
+
+		// Act & Assert
+		assertThrows(ResponseStatusException.class, () -> application.postSolarData(request));
+		assertThrows(ResponseStatusException.class, () -> application.postAnnualYield(request));
+		verifyNoInteractions(weatherService, hotCellTracker, annualYieldService);
+	}
+
+	@Test
+	void shouldRejectOrientationSearchOutsideValidCoordinates() {
+		// Arrange
+		OrientationOptimizer orientationOptimizer = mock(OrientationOptimizer.class);
+		DemoApplication application = new DemoApplication(mock(WeatherService.class), mock(HotCellTracker.class),
+			mock(FleetForecastService.class), mock(AnnualYieldService.class), orientationOptimizer);
+
+		// Act & Assert
+		assertThrows(ResponseStatusException.class, () -> application.getOptimalOrientation(1e6, 13.40, 20.0, 14.0).block());
+		assertThrows(ResponseStatusException.class, () -> application.getOptimalOrientation(Double.NaN, 13.40, 20.0, 14.0).block());
+		assertThrows(ResponseStatusException.class, () -> application.getOptimalOrientation(52.52, 181.0, 20.0, 14.0).block());
+		verifyNoInteractions(orientationOptimizer);
+	}
+
 }
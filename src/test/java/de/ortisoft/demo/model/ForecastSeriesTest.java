@@ -0,0 +1,98 @@
+package de.ortisoft.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForecastSeriesTest {
+
+    private static long epoch(int day, int hour) {
+        return LocalDateTime.of(2024, 6, day, hour, 0).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    @Test
+    void shouldPrecomputeDayBucketsAndAggregates() {
+        // Arrange
+        ForecastSeries.Builder builder = ForecastSeries.builder(8);
+        builder.add(epoch(1, 18), 20.0, 60, 10, "Klar");
+        builder.add(epoch(1, 21), 16.0, 70, 30, "Bedeckt");
+        builder.add(epoch(2, 0), 14.0, 80, 50, "Regen");
+        builder.add(epoch(2, 3), 12.0, 90, 70, "Bedeckt");
+        builder.add(epoch(2, 6), 13.0, 85, 90, "Bedeckt");
+
+        // Act
+        ForecastSeries series = builder.build();
+
+        // Assert
+        assertEquals(2, series.getDayCount());
+        assertEquals(LocalDate.of(2024, 6, 1), series.getDay(0));
+        assertEquals(0, series.getDayStart(0));
+        assertEquals(2, series.getDayEnd(0));
+        assertEquals(2, series.getDayStart(1));
+        assertEquals(5, series.getDayEnd(1));
+        assertEquals(12.0, series.getDayMinTemp(1));
+        assertEquals(14.0, series.getDayMaxTemp(1));
+        assertEquals(70.0, series.getDayAvgCloudCover(1), 1e-9);
+        assertEquals(85.0, series.getDayAvgHumidity(1), 1e-9);
+        assertEquals("Bedeckt", series.getDayDescription(1));
+        assertEquals("Klar", series.getDayDescription(0), "Gleichstand: erste Beschreibung des Tages");
+    }
+
+    @Test
+    void shouldInterpolateHourlyTimelineBetweenSteps() {
+        // Arrange
+        ForecastSeries series = ForecastSeries.builder(3)
+            .add(epoch(1, 6), 10.0, 60, 90, "Bedeckt")
+            .add(epoch(1, 9), 16.0, 60, 30, "Wolkig")
+            .add(epoch(1, 12), 22.0, 60, 0, "Klar")
+            .build();
+        double[] cloudCovers = new double[24];
+        double[] temps = new double[24];
+        double[] shifted = new double[24];
+
+        // Act
+        series.hourlyCloudCovers(0, 0, cloudCovers);
+        series.hourlyTemps(0, 0, temps);
+        series.hourlyCloudCovers(0, 1.0, shifted);
+
+        // Assert
+        assertEquals(90.0, cloudCovers[0], 1e-9, "Vor dem ersten Schritt gilt der erste Wert");
+        assertEquals(90.0, cloudCovers[6], 1e-9);
+        assertEquals(70.0, cloudCovers[7], 1e-9);
+        assertEquals(50.0, cloudCovers[8], 1e-9);
+        assertEquals(20.0, cloudCovers[10], 1e-9);
+        assertEquals(0.0, cloudCovers[23], 1e-9, "Nach dem letzten Schritt gilt der letzte Wert");
+        assertEquals(18.0, temps[10], 1e-9);
+        assertEquals(cloudCovers[7], shifted[8], 1e-9, "UTC+1: 8 Uhr ist 7 Uhr UTC");
+    }
+
+    @Test
+    void shouldSortUnorderedSteps() {
+        // Arrange
+        ForecastSeries.Builder builder = ForecastSeries.builder(2);
+        builder.add(epoch(2, 0), 14.0, 80, 50, "Regen");
+        builder.add(epoch(1, 21), 16.0, 70, 30, "Bedeckt");
+
+        // Act
+        ForecastSeries series = builder.build();
+
+        // Assert
+        assertEquals(epoch(1, 21), series.getEpochSecond(0));
+        assertEquals("Bedeckt", series.getDescription(0));
+        assertEquals(2, series.getDayCount());
+    }
+
+    @Test
+    void shouldHandleEmptySeries() {
+        // Act
+        ForecastSeries series = ForecastSeries.builder(0).build();
+
+        // Assert
+        assertTrue(series.isEmpty());
+        assertEquals(0, series.getDayCount());
+    }
+}
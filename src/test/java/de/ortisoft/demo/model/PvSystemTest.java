@@ -0,0 +1,86 @@
+package de.ortisoft.demo.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PvSystemTest {
+
+    @Test
+    void shouldStoreArraysAsColumns() {
+        // Act
+        PvSystem system = PvSystem.of(
+            new PvArrayConfig(4.8, 90, 18, 20, 14),
+            new PvArrayConfig(2.4, 270, 30, 22, 10),
+            new PvArrayConfig(1.0, 180, 35, 20, 0));
+
+        // Assert
+        assertEquals(3, system.size());
+        assertEquals(2.4, system.getKwp(1));
+        assertEquals(270, system.getAzimuth(1));
+        assertEquals(30, system.getTilt(1));
+        assertEquals(8.2, system.getTotalKwp(), 1e-12);
+        assertEquals(5.0 / 1000.0 * 0.20, system.getYieldFactor(2), 1e-15);
+    }
+
+    @Test
+    void shouldUseDefaultsFromJsonConfig() {
+        // Arrange
+        PvArrayConfig config = new PvArrayConfig();
+        config.setKwp(3.0);
+
+        // Act
+        PvSystem system = PvSystem.of(List.of(config));
+
+        // Assert
+        assertEquals(180, system.getAzimuth(0));
+        assertEquals(35, system.getTilt(0));
+        assertEquals(20.0, system.getEfficiency(0));
+        assertEquals(14.0, system.getLosses(0));
+    }
+
+    @Test
+    void shouldCompareByValue() {
+        // Arrange
+        PvSystem system = PvSystem.of(new PvArrayConfig(4.8, 90, 18, 20, 14));
+
+        // Act & Assert
+        assertEquals(system, PvSystem.of(new PvArrayConfig(4.8, 90, 18, 20, 14)));
+        assertEquals(system.hashCode(), PvSystem.of(new PvArrayConfig(4.8, 90, 18, 20, 14)).hashCode());
+        assertNotEquals(system, PvSystem.of(new PvArrayConfig(4.8, 90, 19, 20, 14)));
+    }
+
+    @Test
+    void shouldNormalizeToCanonicalForm() {
+        // Act
+        PvSystem canonical = PvSystem.of(new PvArrayConfig(4.8049, 360, 18, 19.96, 14.04)).canonical();
+
+        // Assert
+        assertEquals(4.80, canonical.getKwp(0));
+        assertEquals(0, canonical.getAzimuth(0));
+        assertEquals(20.0, canonical.getEfficiency(0));
+        assertEquals(14.0, canonical.getLosses(0));
+        assertEquals(canonical, PvSystem.of(new PvArrayConfig(4.8, 0, 18, 20, 14)).canonical());
+    }
+
+    @Test
+    void shouldRejectInvalidSystems() {
+        // Arrange
+        List<PvArrayConfig> tooMany = new ArrayList<>();
+        for (int i = 0; i <= PvSystem.MAX_ARRAYS; i++) {
+            tooMany.add(new PvArrayConfig(1.0, 180, 35, 20, 14));
+        }
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> PvSystem.of(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> PvSystem.of(tooMany));
+        assertThrows(IllegalArgumentException.class, () -> PvSystem.of(new PvArrayConfig(0, 180, 35, 20, 14)));
+        assertThrows(IllegalArgumentException.class, () -> PvSystem.of(new PvArrayConfig(1.0, 400, 35, 20, 14)));
+        assertThrows(IllegalArgumentException.class, () -> PvSystem.of(new PvArrayConfig(1.0, 180, 95, 20, 14)));
+        assertThrows(IllegalArgumentException.class, () -> PvSystem.of(new PvArrayConfig(1.0, 180, 35, 0, 14)));
+        assertThrows(IllegalArgumentException.class, () -> PvSystem.of(new PvArrayConfig(1.0, 180, 35, 20, 100)));
+    }
+}
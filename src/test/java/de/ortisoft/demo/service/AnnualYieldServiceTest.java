@@ -0,0 +1,118 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.AnnualYield;
+import de.ortisoft.demo.model.PvArrayConfig;
+import de.ortisoft.demo.model.PvSystem;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnnualYieldServiceTest {
+
+    private final SolarConfig solarConfig = new SolarConfig();
+    private final AnnualYieldService service = new AnnualYieldService(new CacheConfig(), solarConfig,
+        new SolarGeometryTable(0.25, 16), new SolarDayKernel());
+
+    @Test
+    void shouldSimulateEveryHourOfTheReferenceYear() {
+        // Arrange
+        PvSystem system = PvSystem.of(
+            new PvArrayConfig(4.8, 90, 18, 20, 14),
+            new PvArrayConfig(4.8, 270, 18, 20, 14));
+
+        // Act
+        AnnualYield yield = service.simulate(52.52, 13.40, system).block();
+
+        // Assert
+        assertNotNull(yield);
+        assertEquals(8760, yield.hours());
+        assertEquals(12, yield.monthlyYields().length);
+        assertEquals(yield.total(), Arrays.stream(yield.monthlyYields()).sum(), 1e-6);
+        assertEquals(yield.total(), yield.arrayYields()[0] + yield.arrayYields()[1], 1e-6);
+        assertEquals(yield.total() / 9.6, yield.specificYield(), 1e-9);
+        assertTrue(yield.monthlyYields()[5] > 3 * yield.monthlyYields()[11], "Juni liefert deutlich mehr als Dezember");
+    }
+
+    @Test
+    void shouldPreferSouthFacingArrays() {
+        // Act
+        AnnualYield south = service.simulate(48.14, 11.58, PvSystem.of(new PvArrayConfig(5.0, 180, 35, 20, 14))).block();
+        AnnualYield north = service.simulate(48.14, 11.58, PvSystem.of(new PvArrayConfig(5.0, 0, 35, 20, 14))).block();
+
+        // Assert
+        assertNotNull(south);
+        assertNotNull(north);
+        assertTrue(south.total() > 2 * north.total());
+    }
+
+    @Test
+    void shouldReuseResultForSameCellAndSystem() {
+        // Arrange: beide Punkte liegen in derselben 0,05°-Zelle
+        PvSystem first = PvSystem.of(new PvArrayConfig(5.0, 180, 35, 20, 14));
+        PvSystem same = PvSystem.of(new PvArrayConfig(5.0, 180, 35, 20, 14));
+
+        // Act
+        AnnualYield a = service.simulate(52.521, 13.401, first).block();
+        AnnualYield b = service.simulate(52.529, 13.409, same).block();
+        AnnualYield other = service.simulate(52.521, 13.401, PvSystem.of(new PvArrayConfig(6.0, 180, 35, 20, 14))).block();
+
+        // Assert
+        assertSame(a, b);
+        assertNotSame(a, other);
+    }
+
+    @Test
+    void shouldReuseResultForEquivalentSystems() {
+        // Arrange: dieselbe Anlage, einmal mit 360° statt 0° und ungerundetem kWp
+        PvSystem first = PvSystem.of(new PvArrayConfig(4.8, 0, 18, 20, 14));
+        PvSystem same = PvSystem.of(new PvArrayConfig(4.8000001, 360, 18, 20.0, 14.0));
+
+        // Act
+        AnnualYield a = service.simulate(52.52, 13.40, first).block();
+        AnnualYield b = service.simulate(52.52, 13.40, same).block();
+
+        // Assert
+        assertSame(a, b);
+    }
+
+    @Test
+    void shouldSimulateOnOwnPoolInsteadOfCommonPool() {
+        // Arrange
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        AnnualYieldService recording = new AnnualYieldService(new CacheConfig(), solarConfig,
+            new SolarGeometryTable(0.25, 16), new SolarDayKernel()) {
+            @Override
+            AnnualYield simulate(Key key) {
+                worker.set(Thread.currentThread());
+                return super.simulate(key);
+            }
+        };
+
+        // Act
+        AnnualYield yield = recording.simulate(52.52, 13.40, PvSystem.of(new PvArrayConfig(5.0, 180, 35, 20, 14))).block();
+        recording.close();
+
+        // Assert
+        assertNotNull(yield);
+        assertTrue(worker.get() instanceof ForkJoinWorkerThread, "gerechnet auf einem ForkJoin-Worker");
+        assertNotSame(ForkJoinPool.commonPool(), ((ForkJoinWorkerThread) worker.get()).getPool());
+        assertSame(recording.executor(), ((ForkJoinWorkerThread) worker.get()).getPool());
+    }
+
+    @Test
+    void shouldRejectIncompleteCloudProfile() {
+        // Arrange
+        solarConfig.setMonthlyCloudCover(new double[] {50, 50, 50});
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new AnnualYieldService(new CacheConfig(), solarConfig,
+            new SolarGeometryTable(0.25, 16), new SolarDayKernel()));
+    }
+}
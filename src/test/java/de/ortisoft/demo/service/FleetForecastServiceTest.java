@@ -0,0 +1,155 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.FleetConfig;
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.FleetSite;
+import de.ortisoft.demo.model.FleetSiteResult;
+import de.ortisoft.demo.model.ForecastSeries;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.PvArrayConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FleetForecastServiceTest {
+
+    private final WeatherCache weatherCache = mock(WeatherCache.class);
+    private final CacheConfig cacheConfig = new CacheConfig();
+    private final FleetForecastService service = new FleetForecastService(cacheConfig, new FleetConfig(), weatherCache,
+        new SolarPositions(new SolarGeometryTable(0.25, 64), new SolarConfig(), cacheConfig), new SolarDayKernel());
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void shouldFetchEachCellOnceAndComputeTenThousandSites() {
+        // Arrange: 10.000 Anlagen in 100 Zellen, Vorhersagen aus einer lokalen Quelle
+        Map<GridCell, AtomicInteger> fetches = new ConcurrentHashMap<>();
+        when(weatherCache.getForecast(any(GridCell.class))).thenAnswer(invocation -> {
+            GridCell cell = invocation.getArgument(0);
+            return Mono.fromCallable(() -> {
+                fetches.computeIfAbsent(cell, key -> new AtomicInteger()).incrementAndGet();
+                return CacheEntry.of(createForecast(), Instant.now(), Duration.ofHours(3));
+            });
+        });
+        List<FleetSite> sites = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int cell = i % 100;
+            double lat = 47.0 + (cell / 10) * 0.5 + 0.01;
+            double lon = 7.0 + (cell % 10) * 0.5 + 0.01;
+            sites.add(new FleetSite("site-" + i, lat, lon, List.of(
+                new PvArrayConfig(4.0 + i % 7, 90 + i % 180, 10 + i % 40, 20, 14),
+                new PvArrayConfig(2.0, 270, 18, 20, 14))));
+        }
+
+        // Act
+        List<FleetSiteResult> results = service.forecast(sites).collectList().block(Duration.ofSeconds(30));
+
+        // Assert
+        assertNotNull(results);
+        assertEquals(10_000, results.size());
+        assertEquals(100, fetches.size());
+        fetches.values().forEach(count -> assertEquals(1, count.get()));
+        Set<String> ids = new HashSet<>();
+        for (FleetSiteResult result : results) {
+            assertNull(result.error());
+            assertEquals(2, result.days().size());
+            assertTrue(result.days().get(0).total() > 0);
+            ids.add(result.id());
+        }
+        assertEquals(10_000, ids.size());
+    }
+
+    @Test
+    void shouldReportInvalidSitesAndMissingForecastsPerSite() {
+        // Arrange
+        GridCell berlin = GridCell.of(52.52, 13.40, cacheConfig.getGridSize());
+        when(weatherCache.getForecast(any(GridCell.class))).thenAnswer(invocation ->
+            berlin.equals(invocation.getArgument(0))
+                ? Mono.just(CacheEntry.of(createForecast(), Instant.now(), Duration.ofHours(3)))
+                : Mono.error(new UpstreamException("forecast", 503)));
+        List<FleetSite> sites = List.of(
+            new FleetSite("ok", 52.52, 13.40, List.of(new PvArrayConfig(4.8, 180, 35, 20, 14))),
+            new FleetSite("invalid", 52.52, 13.40, List.of(new PvArrayConfig(-1, 180, 35, 20, 14))),
+            new FleetSite("offline", 48.14, 11.58, List.of(new PvArrayConfig(4.8, 180, 35, 20, 14))));
+
+        // Act
+        List<FleetSiteResult> results = service.forecast(sites).collectList().block(Duration.ofSeconds(10));
+
+        // Assert
+        assertNotNull(results);
+        assertEquals(3, results.size());
+        for (FleetSiteResult result : results) {
+            switch (result.id()) {
+                case "ok" -> assertNull(result.error());
+                case "invalid" -> assertTrue(result.error().contains("kWp"));
+                case "offline" -> assertTrue(result.error().startsWith("Vorhersage nicht verfügbar"));
+                default -> fail("Unbekannte Anlage " + result.id());
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectInvalidSitesWithoutFetchingTheirCells() {
+        // Arrange
+        GridCell berlin = GridCell.of(52.52, 13.40, cacheConfig.getGridSize());
+        when(weatherCache.getForecast(berlin))
+            .thenReturn(Mono.just(CacheEntry.of(createForecast(), Instant.now(), Duration.ofHours(3))));
+        List<PvArrayConfig> missingArray = new ArrayList<>();
+        missingArray.add(null);
+        List<FleetSite> sites = List.of(
+            new FleetSite("ok", 52.52, 13.40, List.of(new PvArrayConfig(4.8, 180, 35, 20, 14))),
+            new FleetSite("lat", 95.0, 13.40, List.of(new PvArrayConfig(4.8, 180, 35, 20, 14))),
+            new FleetSite("nan", Double.NaN, 13.40, List.of(new PvArrayConfig(4.8, 180, 35, 20, 14))),
+            new FleetSite("arrays", 48.14, 11.58, List.of(new PvArrayConfig(-1, 180, 35, 20, 14))),
+            new FleetSite("null", 48.14, 11.58, missingArray));
+
+        // Act
+        List<FleetSiteResult> results = service.forecast(sites).collectList().block(Duration.ofSeconds(10));
+
+        // Assert
+        assertNotNull(results);
+        assertEquals(5, results.size());
+        for (FleetSiteResult result : results) {
+            switch (result.id()) {
+                case "ok" -> assertNull(result.error());
+                case "lat", "nan" -> assertEquals("Ungültige Koordinaten", result.error());
+                case "arrays" -> assertTrue(result.error().contains("kWp"));
+                case "null" -> assertTrue(result.error().contains("fehlt"));
+                default -> fail("Unbekannte Anlage " + result.id());
+            }
+        }
+        verify(weatherCache, times(1)).getForecast(any(GridCell.class));
+    }
+
+    private static ForecastSeries createForecast() {
+        ForecastSeries.Builder builder = ForecastSeries.builder(16);
+        LocalDateTime start = LocalDateTime.of(2024, 6, 20, 0, 0);
+        for (int i = 0; i < 16; i++) {
+            builder.add(start.plusHours(3L * i).toEpochSecond(ZoneOffset.UTC), 18.0, 60, 20 + i, "Leicht bewölkt");
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,67 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.model.ForecastSeries;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ForecastDecoderTest {
+
+    private final ForecastDecoder decoder = new ForecastDecoder();
+
+    private static String item(long dt, double temp, int humidity, int clouds, String description) {
+        return """
+            {"dt":%d,"main":{"temp":%s,"feels_like":1.5,"humidity":%d},
+             "weather":[{"id":803,"main":"Clouds","description":"%s","icon":"04d"},{"description":"zweite"}],
+             "clouds":{"all":%d},"wind":{"speed":3.1,"deg":240},"sys":{"pod":"d"},
+             "dt_txt":"ignoriert"}
+            """.formatted(dt, Double.toString(temp), humidity, description, clouds);
+    }
+
+    @Test
+    void shouldDecodeForecastIntoColumns() throws IOException {
+        // Arrange: 2024-06-01 21:00 und 2024-06-02 00:00 UTC
+        String json = """
+            {"cod":"200","message":0,"cnt":3,"list":[%s,%s,%s],
+             "city":{"id":2950159,"name":"Berlin","coord":{"lat":52.52,"lon":13.4}}}
+            """.formatted(
+                item(1717275600L, 18.25, 70, 40, "Mäßig bewölkt"),
+                item(1717286400L, 15.5, 80, 90, "Bedeckt"),
+                item(1717297200L, 14.0, 85, 75, "Mäßig bewölkt"));
+
+        // Act
+        ForecastSeries series = decoder.decode(json.getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertEquals(3, series.size());
+        assertEquals(18.25, series.getTemp(0));
+        assertEquals(80, series.getHumidity(1));
+        assertEquals(75, series.getCloudCover(2));
+        assertEquals("Mäßig bewölkt", series.getDescription(0));
+        assertEquals("Bedeckt", series.getDescription(1));
+        assertEquals(2, series.getDescriptionCount(), "Beschreibungen werden nur einmal abgelegt");
+        assertEquals(series.getDescriptionIndex(0), series.getDescriptionIndex(2));
+        assertEquals(LocalDateTime.of(2024, 6, 1, 21, 0), series.getDateTime(0));
+        assertEquals(LocalDate.of(2024, 6, 2), series.getDate(1));
+    }
+
+    @Test
+    void shouldReturnEmptySeriesWithoutList() throws IOException {
+        // Act
+        ForecastSeries series = decoder.decode("{\"cod\":\"200\",\"cnt\":0}".getBytes(StandardCharsets.UTF_8));
+
+        // Assert
+        assertTrue(series.isEmpty());
+    }
+
+    @Test
+    void shouldRejectNonObjectPayload() {
+        // Act & Assert
+        assertThrows(IOException.class, () -> decoder.decode("[]".getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,98 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.PrefetchConfig;
+import de.ortisoft.demo.config.QuotaConfig;
+import de.ortisoft.demo.model.ForecastSeries;
+import de.ortisoft.demo.model.GridCell;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ForecastPrefetcherTest {
+
+    private final WeatherCache weatherCache = mock(WeatherCache.class);
+    private final PrefetchConfig prefetchConfig = new PrefetchConfig();
+    private final HotCellTracker tracker = new HotCellTracker(new CacheConfig(), prefetchConfig);
+    private final Instant now = Instant.parse("2024-06-21T10:00:00Z");
+
+    private ForecastPrefetcher createPrefetcher() {
+        return createPrefetcher(new QuotaConfig());
+    }
+
+    private ForecastPrefetcher createPrefetcher(QuotaConfig quotaConfig) {
+        return new ForecastPrefetcher(prefetchConfig, quotaConfig, tracker, weatherCache, new SimpleMeterRegistry(),
+            Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldRefreshOnlyCellsThatAreDueSoon() {
+        // Arrange
+        GridCell due = new GridCell(1050, 268, 0.05);
+        GridCell fresh = new GridCell(1071, 199, 0.05);
+        tracker.record(due);
+        tracker.record(fresh);
+        Instant horizon = now.plus(prefetchConfig.getLookahead());
+        when(weatherCache.isForecastDueBefore(due, horizon)).thenReturn(true);
+        when(weatherCache.isForecastDueBefore(fresh, horizon)).thenReturn(false);
+        when(weatherCache.refreshForecast(any(GridCell.class))).thenReturn(Mono.just(entry()));
+
+        // Act
+        long refreshed = createPrefetcher().run().block();
+
+        // Assert
+        assertEquals(1, refreshed);
+        verify(weatherCache).refreshForecast(due);
+        verify(weatherCache, never()).refreshForecast(fresh);
+    }
+
+    @Test
+    void shouldStayWithinQuotaShare() {
+        // Arrange: 20 % von 60 Aufrufen pro Minute über 1 Minute = 12 Abrufe je Lauf
+        prefetchConfig.setInterval(Duration.ofMinutes(1));
+        for (int i = 0; i < 50; i++) {
+            tracker.record(new GridCell(1000 + i, 200, 0.05));
+        }
+        when(weatherCache.isForecastDueBefore(any(GridCell.class), any(Instant.class))).thenReturn(true);
+        when(weatherCache.refreshForecast(any(GridCell.class))).thenReturn(Mono.just(entry()));
+        ForecastPrefetcher prefetcher = createPrefetcher();
+
+        // Act
+        long refreshed = prefetcher.run().block();
+
+        // Assert
+        assertEquals(12, prefetcher.getBudgetPerRun());
+        assertEquals(12, refreshed);
+        verify(weatherCache, times(12)).refreshForecast(any(GridCell.class));
+    }
+
+    @Test
+    void shouldRejectBudgetBelowOneCallPerRun() {
+        // Arrange: 20 % von 2 Aufrufen pro Minute über 1 Minute = 0,4 Abrufe je Lauf
+        prefetchConfig.setInterval(Duration.ofMinutes(1));
+        QuotaConfig quotaConfig = new QuotaConfig();
+        quotaConfig.setCallsPerMinute(2);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> createPrefetcher(quotaConfig));
+        prefetchConfig.setEnabled(false);
+        assertEquals(0, createPrefetcher(quotaConfig).getBudgetPerRun());
+    }
+
+    private CacheEntry<ForecastSeries> entry() {
+        return CacheEntry.of(ForecastSeries.builder(0).build(), Instant.now(), Duration.ofHours(3));
+    }
+}
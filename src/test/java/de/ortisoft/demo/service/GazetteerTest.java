@@ -0,0 +1,61 @@
+package de.ortisoft.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GazetteerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldFindNearestPlace() throws Exception {
+        Path file = tempDir.resolve("gazetteer.bin");
+        Gazetteer.write(List.of(
+            new Gazetteer.Place("Rostock", 54.0924, 12.0991),
+            new Gazetteer.Place("Berlin", 52.5244, 13.4105),
+            new Gazetteer.Place("München", 48.1374, 11.5755),
+            new Gazetteer.Place("Köpenick", 52.4453, 13.5745)
+        ), file);
+
+        Gazetteer gazetteer = Gazetteer.open(file);
+
+        assertEquals(4, gazetteer.size());
+        assertEquals("Berlin", gazetteer.findNearest(52.520008, 13.404954, 5000));
+        assertEquals("Köpenick", gazetteer.findNearest(52.44, 13.58, 5000));
+        assertEquals("München", gazetteer.findNearest(48.14, 11.58, 5000));
+    }
+
+    @Test
+    void shouldReturnNullOutsideCoverage() throws Exception {
+        Path file = tempDir.resolve("gazetteer.bin");
+        Gazetteer.write(List.of(new Gazetteer.Place("Berlin", 52.5244, 13.4105)), file);
+
+        Gazetteer gazetteer = Gazetteer.open(file);
+
+        // Paris liegt außerhalb, Potsdam außerhalb des Suchradius
+        assertNull(gazetteer.findNearest(48.8566, 2.3522, 5000));
+        assertNull(gazetteer.findNearest(52.3906, 13.0645, 5000));
+    }
+
+    @Test
+    void shouldReadPopulatedPlacesFromGeoNames() throws Exception {
+        Path tsv = tempDir.resolve("DE.txt");
+        Files.writeString(tsv, String.join("\n",
+            "2950159\tBerlin\tBerlin\t\t52.52437\t13.41053\tP\tPPLC\tDE",
+            "2950157\tBerliner Forst\tBerliner Forst\t\t52.5\t13.3\tV\tFRST\tDE"
+        ), StandardCharsets.UTF_8);
+
+        List<Gazetteer.Place> places = Gazetteer.readGeoNames(tsv);
+
+        assertEquals(1, places.size());
+        assertEquals("Berlin", places.get(0).name());
+    }
+}
@@ -0,0 +1,87 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.PrefetchConfig;
+import de.ortisoft.demo.model.GridCell;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HotCellTrackerTest {
+
+    private HotCellTracker createTracker(int topK) {
+        PrefetchConfig config = new PrefetchConfig();
+        config.setTopK(topK);
+        return new HotCellTracker(new CacheConfig(), config);
+    }
+
+    @Test
+    void shouldKeepHeavyHittersInSkewedTraffic() {
+        // Arrange: drei sehr beliebte Zellen in viel zufälligem Rauschen
+        HotCellTracker tracker = createTracker(5);
+        GridCell berlin = new GridCell(1050, 268, 0.05);
+        GridCell hamburg = new GridCell(1071, 199, 0.05);
+        GridCell munich = new GridCell(962, 231, 0.05);
+        Random random = new Random(42);
+
+        // Act
+        for (int i = 0; i < 20_000; i++) {
+            tracker.record(new GridCell(random.nextInt(2000), random.nextInt(2000), 0.05));
+            if (i % 4 == 0) {
+                tracker.record(berlin);
+            }
+            if (i % 8 == 0) {
+                tracker.record(hamburg);
+            }
+            if (i % 16 == 0) {
+                tracker.record(munich);
+            }
+        }
+
+        // Assert
+        List<GridCell> top = tracker.getTopCells();
+        assertEquals(5, top.size());
+        assertEquals(List.of(berlin, hamburg, munich), top.subList(0, 3));
+        assertTrue(tracker.estimate(berlin) >= 5000);
+    }
+
+    @Test
+    void shouldHalveCountsOnDecay() {
+        // Arrange
+        HotCellTracker tracker = createTracker(10);
+        GridCell cell = new GridCell(1050, 268, 0.05);
+        for (int i = 0; i < 100; i++) {
+            tracker.record(cell);
+        }
+
+        // Act
+        tracker.decay();
+
+        // Assert
+        assertEquals(50, tracker.estimate(cell));
+        assertEquals(List.of(cell), tracker.getTopCells());
+    }
+
+    @Test
+    void shouldNeverUnderestimate() {
+        // Arrange
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+        int[] counts = new int[500];
+        Random random = new Random(7);
+
+        // Act: bewusst kleiner Sketch, damit Kollisionen auftreten
+        for (int i = 0; i < 10_000; i++) {
+            int key = random.nextInt(counts.length);
+            counts[key]++;
+            sketch.add(key);
+        }
+
+        // Assert
+        for (int key = 0; key < counts.length; key++) {
+            assertTrue(sketch.estimate(key) >= counts[key]);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.GeoConfig;
+import de.ortisoft.demo.model.GeoResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocationIndexTest {
+
+    @Test
+    void shouldAnswerLookupsWithinRadius() {
+        // Arrange
+        LocationIndex index = new LocationIndex(new GeoConfig());
+        index.put(52.520008, 13.404954, createLocation("Berlin"));
+
+        // Act: ca. 300 m östlich
+        GeoResponse nearby = index.findNearest(52.520008, 13.409400);
+
+        // Assert
+        assertNotNull(nearby);
+        assertEquals("Berlin", nearby.getName());
+    }
+
+    @Test
+    void shouldMissOutsideRadius() {
+        // Arrange
+        LocationIndex index = new LocationIndex(new GeoConfig());
+        index.put(52.520008, 13.404954, createLocation("Berlin"));
+
+        // Act: ca. 1,1 km nördlich
+        GeoResponse far = index.findNearest(52.530008, 13.404954);
+
+        // Assert
+        assertNull(far);
+    }
+
+    @Test
+    void shouldReturnNearestOfSeveralCandidates() {
+        // Arrange
+        GeoConfig geoConfig = new GeoConfig();
+        geoConfig.setIndexRadiusMeters(2000);
+        LocationIndex index = new LocationIndex(geoConfig);
+        index.put(52.5200, 13.4000, createLocation("Mitte"));
+        index.put(52.5200, 13.4200, createLocation("Friedrichshain"));
+
+        // Act
+        GeoResponse nearest = index.findNearest(52.5200, 13.4160);
+
+        // Assert
+        assertEquals("Friedrichshain", nearest.getName());
+    }
+
+    @Test
+    void shouldEvictOldestEntriesWhenFull() {
+        // Arrange
+        GeoConfig geoConfig = new GeoConfig();
+        geoConfig.setIndexMaxEntries(2);
+        LocationIndex index = new LocationIndex(geoConfig);
+
+        // Act
+        index.put(52.520008, 13.404954, createLocation("Berlin"));
+        index.put(53.551086, 9.993682, createLocation("Hamburg"));
+        index.put(48.137154, 11.576124, createLocation("München"));
+
+        // Assert
+        assertEquals(2, index.size());
+        assertNull(index.findNearest(52.520008, 13.404954));
+        assertEquals("München", index.findNearest(48.137154, 11.576124).getName());
+    }
+
+    private GeoResponse createLocation(String name) {
+        GeoResponse location = new GeoResponse();
+        location.setName(name);
+        location.setCountry("DE");
+        return location;
+    }
+}
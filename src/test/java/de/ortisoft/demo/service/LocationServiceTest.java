@@ -1,34 +1,20 @@
 package de.ortisoft.demo.service;
 
-import de.ortisoft.demo.config.WeatherConfig;
 import de.ortisoft.demo.model.GeoResponse;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import reactor.core.publisher.Mono;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
 class LocationServiceTest {
 
-    @Value("${weather.api.key}")
-    private String apiKey;
-
-    @MockBean
-    private WeatherConfig weatherConfig;
-
     @MockBean
-    private RestTemplate restTemplate;
+    private OpenWeatherClient openWeatherClient;
 
     @Autowired
     private LocationService locationService;
@@ -38,14 +24,12 @@ class LocationServiceTest {
         // Arrange
         GeoResponse mockResponse = new GeoResponse();
         mockResponse.setName("Berlin");
-        GeoResponse[] responses = new GeoResponse[]{mockResponse};
 
-        when(weatherConfig.getKey()).thenReturn(apiKey);  // API-Key aus Properties
-        when(restTemplate.getForObject(anyString(), eq(GeoResponse[].class)))
-            .thenReturn(responses);
+        when(openWeatherClient.fetchLocation(52.520008, 13.404954))
+            .thenReturn(Mono.just(mockResponse));
 
         // Act
-        String location = locationService.getLocationName(52.520008, 13.404954);
+        String location = locationService.getLocationName(52.520008, 13.404954).block();
 
         // Assert
         assertNotNull(location);
@@ -55,12 +39,24 @@ class LocationServiceTest {
     @Test
     void shouldHandleInvalidCoordinates() {
         // Arrange
-        when(weatherConfig.getKey()).thenReturn("test_api_key");
-        when(restTemplate.getForObject(anyString(), eq(GeoResponse[].class)))
-            .thenReturn(new GeoResponse[0]);
+        when(openWeatherClient.fetchLocation(0.0, 0.0))
+            .thenReturn(Mono.empty());
+
+        // Act
+        String location = locationService.getLocationName(0.0, 0.0).block();
+
+        // Assert
+        assertEquals("Unbekannter Ort", location);
+    }
+
+    @Test
+    void shouldFallBackWhenGeoApiFails() {
+        // Arrange
+        when(openWeatherClient.fetchLocation(48.137154, 11.576124))
+            .thenReturn(Mono.error(new UpstreamException(OpenWeatherClient.GEO_PATH, 503)));
 
         // Act
-        String location = locationService.getLocationName(0.0, 0.0);
+        String location = locationService.getLocationName(48.137154, 11.576124).block();
 
         // Assert
         assertEquals("Unbekannter Ort", location);
@@ -71,17 +67,15 @@ class LocationServiceTest {
         // Arrange
         GeoResponse mockResponse = new GeoResponse();
         mockResponse.setName("Rostock");
-        GeoResponse[] responses = new GeoResponse[]{mockResponse};
 
-        when(weatherConfig.getKey()).thenReturn("test_api_key");
-        when(restTemplate.getForObject(anyString(), eq(GeoResponse[].class)))
-            .thenReturn(responses);
+        when(openWeatherClient.fetchLocation(54.083333, 12.133333))
+            .thenReturn(Mono.just(mockResponse));
 
         // Act
-        String location = locationService.getLocationName(54.083333, 12.133333);
+        String location = locationService.getLocationName(54.083333, 12.133333).block();
 
         // Assert
         assertNotNull(location);
         assertEquals("Rostock", location);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package de.ortisoft.demo.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import de.ortisoft.demo.config.QuotaConfig;
+import de.ortisoft.demo.config.ResilienceConfig;
+import de.ortisoft.demo.config.WeatherConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prüft die Schutzschicht gegen einen lokalen Stub-Server, der Latenz und Fehler einspeist.
+ */
+class OpenWeatherClientResilienceTest {
+
+    private static final String WEATHER_JSON = """
+        {"main":{"temp":21.5,"humidity":48},"weather":[{"description":"klarer Himmel"}],"clouds":{"all":5}}
+        """;
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ResilienceConfig resilienceConfig = new ResilienceConfig();
+    private volatile int status = 200;
+    private volatile int slowRequest = -1;  // Nummer der Anfrage, die verzögert wird
+    private volatile long delayMillis;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int number = requests.incrementAndGet();
+        if (delayMillis > 0 && (slowRequest < 0 || slowRequest == number)) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] body = status == 200 ? WEATHER_JSON.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length > 0 ? body.length : -1);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private OpenWeatherClient createClient() {
+        WeatherConfig weatherConfig = new WeatherConfig();
+        weatherConfig.setKey("test");
+        WebClient webClient = WebClient.builder()
+            .baseUrl("http://localhost:" + server.getAddress().getPort())
+            .build();
+        QuotaConfig quotaConfig = new QuotaConfig();
+        quotaConfig.setCallsPerMinute(60_000);
+        quotaConfig.setBurst(1000);
+        return new OpenWeatherClient(weatherConfig, webClient, resilienceConfig,
+            new UpstreamQuota(quotaConfig, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void shouldHedgeRequestSlowerThanPercentile() {
+        // Arrange: genug schnelle Antworten für ein Perzentil, dann bleibt eine Anfrage hängen
+        resilienceConfig.setMinHedgeDelay(Duration.ofMillis(50));
+        resilienceConfig.setCurrentDeadline(Duration.ofSeconds(5));
+        OpenWeatherClient client = createClient();
+        for (int i = 0; i < LatencyTracker.MIN_SAMPLES; i++) {
+            assertNotNull(client.fetchCurrentWeather(52.52, 13.40 + i * 0.01).block());
+        }
+        slowRequest = requests.get() + 1;
+        delayMillis = 3000;
+
+        // Act
+        long start = System.nanoTime();
+        byte[] response = client.fetchCurrentWeather(52.52, 13.40).block();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert: der Hedge-Aufruf hat geantwortet, lange bevor der erste fertig war
+        assertNotNull(response);
+        assertTrue(new String(response, StandardCharsets.UTF_8).contains("\"temp\":21.5"));
+        assertTrue(elapsed.toMillis() < 2000, "Antwort nach " + elapsed.toMillis() + " ms");
+        assertEquals(LatencyTracker.MIN_SAMPLES + 2, requests.get());
+    }
+
+    @Test
+    void shouldFailFastOnceCircuitIsOpen() {
+        // Arrange
+        resilienceConfig.setBreakerWindow(10);
+        resilienceConfig.setBreakerMinimumCalls(5);
+        OpenWeatherClient client = createClient();
+        status = 503;
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            Exception error = assertThrows(UpstreamException.class,
+                () -> client.fetchCurrentWeather(52.52, 13.40).block());
+            assertTrue(error.getMessage().contains("503"));
+        }
+
+        // Assert: der sechste Aufruf erreicht den Server nicht mehr
+        assertThrows(CircuitOpenException.class, () -> client.fetchCurrentWeather(52.52, 13.40).block());
+        assertEquals(5, requests.get());
+        assertEquals(CircuitBreaker.State.OPEN, client.getCircuitState(OpenWeatherClient.WEATHER_PATH));
+    }
+
+    @Test
+    void shouldAbortCallAfterDeadline() {
+        // Arrange
+        resilienceConfig.setCurrentDeadline(Duration.ofMillis(200));
+        OpenWeatherClient client = createClient();
+        delayMillis = 2000;
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(UpstreamTimeoutException.class, () -> client.fetchCurrentWeather(52.52, 13.40).block());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert
+        assertTrue(elapsed.toMillis() < 1500, "Abbruch nach " + elapsed.toMillis() + " ms");
+    }
+}
@@ -0,0 +1,80 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.AnnualYield;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.OrientationSurface;
+import de.ortisoft.demo.model.PvArrayConfig;
+import de.ortisoft.demo.model.PvSystem;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrientationOptimizerTest {
+
+    private final CacheConfig cacheConfig = new CacheConfig();
+    private final SolarConfig solarConfig = new SolarConfig();
+    private final AnnualYieldService annualYieldService = new AnnualYieldService(cacheConfig, solarConfig,
+        new SolarGeometryTable(0.25, 16), new SolarDayKernel());
+    private final OrientationOptimizer optimizer = new OrientationOptimizer(cacheConfig, solarConfig, annualYieldService);
+
+    @Test
+    void shouldFindSouthFacingOptimumInBerlin() {
+        // Act
+        OrientationSurface surface = optimizer.optimize(52.52, 13.40, 20.0, 14.0).block();
+
+        // Assert
+        assertNotNull(surface);
+        assertEquals(10, surface.specificYield().length);
+        assertEquals(36, surface.specificYield()[0].length);
+        assertTrue(Math.abs(surface.optimumAzimuth() - 180) <= 10, "Azimut " + surface.optimumAzimuth());
+        assertTrue(surface.optimumTilt() >= 25 && surface.optimumTilt() <= 50, "Neigung " + surface.optimumTilt());
+        for (double[] row : surface.specificYield()) {
+            for (double value : row) {
+                assertTrue(value <= surface.optimumYield() + 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void shouldFaceNorthInSouthernHemisphere() {
+        // Act
+        OrientationSurface surface = optimizer.optimize(-33.87, 151.21, 20.0, 14.0).block();
+
+        // Assert
+        assertNotNull(surface);
+        int azimuth = surface.optimumAzimuth();
+        assertTrue(azimuth <= 20 || azimuth >= 340, "Azimut " + azimuth);
+    }
+
+    @Test
+    void shouldMatchExhaustiveSearchAndAnnualSimulation() {
+        // Arrange
+        GridCell cell = GridCell.of(48.14, 11.58, cacheConfig.getGridSize());
+        AnnualYieldService.SunSeries series = annualYieldService.sunSeries(cell);
+
+        // Act
+        OrientationOptimizer.Search search = optimizer.search(cell);
+
+        // Assert: grob-fein findet dasselbe Optimum wie alle 360 × 91 Ausrichtungen
+        double best = 0;
+        for (int tilt = 0; tilt <= 90; tilt++) {
+            for (int azimuth = 0; azimuth < 360; azimuth++) {
+                best = Math.max(best, series.irradiation(azimuth, tilt));
+            }
+        }
+        assertEquals(best, search.optimumIrradiation(), 1e-6);
+        assertTrue(search.evaluations() < 360 * 91 / 4);
+        PvSystem optimal = PvSystem.of(new PvArrayConfig(1.0, search.optimumAzimuth(), search.optimumTilt(), 20.0, 14.0));
+        AnnualYield annual = annualYieldService.simulate(48.14, 11.58, optimal).block();
+        assertNotNull(annual);
+        assertEquals(annual.specificYield(), search.optimumIrradiation() * optimal.getYieldFactor(0), 1e-6);
+    }
+
+    @Test
+    void shouldRejectInvalidEfficiency() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(52.52, 13.40, 0, 14.0));
+    }
+}
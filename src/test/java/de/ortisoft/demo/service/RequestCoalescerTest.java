@@ -0,0 +1,92 @@
+package de.ortisoft.demo.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer<String, String> coalescer = new RequestCoalescer<>();
+
+    @Test
+    void shouldShareOneInFlightRequestBetweenConcurrentCallers() throws Exception {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        // Act
+        CompletableFuture<String> first = coalescer.execute("berlin", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        CompletableFuture<String> second = coalescer.execute("berlin", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        upstream.tryEmitValue("sonnig");
+
+        // Assert
+        assertEquals("sonnig", first.get());
+        assertEquals("sonnig", second.get());
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    void shouldPropagateErrorsToAllWaiters() {
+        // Arrange
+        Sinks.One<String> upstream = Sinks.one();
+
+        // Act
+        CompletableFuture<String> first = coalescer.execute("berlin", upstream::asMono).toFuture();
+        CompletableFuture<String> second = coalescer.execute("berlin", upstream::asMono).toFuture();
+        upstream.tryEmitError(new UpstreamException(OpenWeatherClient.WEATHER_PATH, 503));
+
+        // Assert
+        ExecutionException firstError = assertThrows(ExecutionException.class, first::get);
+        ExecutionException secondError = assertThrows(ExecutionException.class, second::get);
+        assertTrue(firstError.getCause() instanceof UpstreamException);
+        assertSame(firstError.getCause(), secondError.getCause());
+    }
+
+    @Test
+    void shouldStartFreshRequestAfterCompletion() {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+
+        // Act
+        coalescer.execute("berlin", () -> Mono.fromCallable(() -> "call " + upstreamCalls.incrementAndGet())).block();
+        String second = coalescer.execute("berlin", () -> Mono.fromCallable(() -> "call " + upstreamCalls.incrementAndGet())).block();
+
+        // Assert
+        assertEquals("call 2", second);
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldNotShareRequestsForDifferentKeys() {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Sinks.One<String> upstream = Sinks.one();
+
+        // Act
+        coalescer.execute("berlin", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+        coalescer.execute("hamburg", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        }).toFuture();
+
+        // Assert
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(2, coalescer.getInFlightCount());
+    }
+}
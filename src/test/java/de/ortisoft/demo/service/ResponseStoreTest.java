@@ -0,0 +1,168 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.model.GridCell;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseStoreTest {
+
+    private static final GridCell BERLIN = GridCell.of(52.520008, 13.404954, 0.05);
+    private static final GridCell HAMBURG = GridCell.of(53.551086, 9.993682, 0.05);
+
+    @TempDir
+    Path tempDir;
+
+    private CacheConfig createConfig() {
+        CacheConfig config = new CacheConfig();
+        config.setDiskPath(tempDir.resolve("responses.bin").toString());
+        return config;
+    }
+
+    @Test
+    void shouldReloadLatestPayloadPerCellAfterReopen() throws Exception {
+        // Arrange
+        CacheConfig config = createConfig();
+        Instant earlier = Instant.now().minus(Duration.ofMinutes(20));
+        Instant later = Instant.now().minus(Duration.ofMinutes(5));
+        ResponseStore store = new ResponseStore(config, Clock.systemUTC());
+        store.append(ResponseStore.Kind.FORECAST, BERLIN, earlier, bytes("alt"));
+        store.append(ResponseStore.Kind.FORECAST, BERLIN, later, bytes("neu"));
+        store.append(ResponseStore.Kind.CURRENT, HAMBURG, later, bytes("hamburg"));
+        store.close();
+
+        // Act
+        ResponseStore reopened = new ResponseStore(config, Clock.systemUTC());
+        ResponseStore.StoredPayload forecast = reopened.findLatest(ResponseStore.Kind.FORECAST, BERLIN);
+
+        // Assert
+        assertEquals("neu", new String(forecast.payload(), StandardCharsets.UTF_8));
+        assertEquals(later.toEpochMilli(), forecast.fetchedAt().toEpochMilli());
+        assertNull(reopened.findLatest(ResponseStore.Kind.CURRENT, BERLIN));
+        assertEquals(2, reopened.size());
+    }
+
+    @Test
+    void shouldDropTruncatedRecordAtEndOfFile() throws Exception {
+        // Arrange: Absturz mitten im Schreiben des zweiten Records
+        CacheConfig config = createConfig();
+        ResponseStore store = new ResponseStore(config, Clock.systemUTC());
+        store.append(ResponseStore.Kind.CURRENT, BERLIN, Instant.now(), bytes("vollständig"));
+        store.close();
+        Files.write(Path.of(config.getDiskPath()), new byte[]{0x57, 0x52, 0x43, 0x31, 0, 0, 0}, StandardOpenOption.APPEND);
+
+        // Act
+        ResponseStore reopened = new ResponseStore(config, Clock.systemUTC());
+        ResponseStore.StoredPayload payload = reopened.findLatest(ResponseStore.Kind.CURRENT, BERLIN);
+        reopened.append(ResponseStore.Kind.CURRENT, HAMBURG, Instant.now(), bytes("danach"));
+        reopened.close();
+
+        // Assert
+        assertEquals("vollständig", new String(payload.payload(), StandardCharsets.UTF_8));
+        assertEquals("danach", new String(new ResponseStore(config, Clock.systemUTC())
+            .findLatest(ResponseStore.Kind.CURRENT, HAMBURG).payload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldKeepOnlyLiveRecordsWhenCompacting() throws Exception {
+        // Arrange
+        CacheConfig config = createConfig();
+        ResponseStore store = new ResponseStore(config, Clock.systemUTC());
+        store.append(ResponseStore.Kind.CURRENT, BERLIN, Instant.now().minus(Duration.ofHours(12)), bytes("abgelaufen"));
+        for (int i = 0; i < 5; i++) {
+            store.append(ResponseStore.Kind.CURRENT, BERLIN, Instant.now(), bytes("stand " + i));
+        }
+        long before = Files.size(Path.of(config.getDiskPath()));
+
+        // Act
+        store.compact();
+
+        // Assert
+        assertTrue(Files.size(Path.of(config.getDiskPath())) < before);
+        assertEquals("stand 4", new String(store.findLatest(ResponseStore.Kind.CURRENT, BERLIN).payload(),
+            StandardCharsets.UTF_8));
+        // Nach dem Umschreiben landen neue Records in der Datei, die ein Neustart liest
+        store.append(ResponseStore.Kind.CURRENT, HAMBURG, Instant.now(), bytes("nach der Kompaktierung"));
+        store.close();
+        ResponseStore reopened = new ResponseStore(config, Clock.systemUTC());
+        assertNotNull(reopened.findLatest(ResponseStore.Kind.CURRENT, BERLIN));
+        assertNotNull(reopened.findLatest(ResponseStore.Kind.CURRENT, HAMBURG));
+        assertEquals(2, reopened.size());
+    }
+
+    @Test
+    void shouldKeepWorkingWhenCompactionFails() throws Exception {
+        // Arrange: ein Verzeichnis an der Stelle der Zwischendatei lässt die Kompaktierung scheitern
+        CacheConfig config = createConfig();
+        ResponseStore store = new ResponseStore(config, Clock.systemUTC());
+        store.append(ResponseStore.Kind.CURRENT, BERLIN, Instant.now().minus(Duration.ofHours(12)), bytes("abgelaufen"));
+        store.append(ResponseStore.Kind.CURRENT, BERLIN, Instant.now(), bytes("aktuell"));
+        Path blocker = Files.createDirectories(tempDir.resolve("responses.bin.compact"));
+        Files.write(blocker.resolve("belegt"), bytes("x"));
+
+        // Act
+        assertDoesNotThrow(store::compact);
+        store.append(ResponseStore.Kind.CURRENT, HAMBURG, Instant.now(), bytes("danach"));
+
+        // Assert
+        assertEquals("aktuell", new String(store.findLatest(ResponseStore.Kind.CURRENT, BERLIN).payload(),
+            StandardCharsets.UTF_8));
+        assertEquals("danach", new String(store.findLatest(ResponseStore.Kind.CURRENT, HAMBURG).payload(),
+            StandardCharsets.UTF_8));
+        store.close();
+    }
+
+    @Test
+    void shouldSkipRecordsBeyondFileLimit() throws Exception {
+        // Arrange: Platz für genau einen Record
+        CacheConfig config = createConfig();
+        ResponseStore store = new ResponseStore(config, Clock.systemUTC(), 100);
+        store.append(ResponseStore.Kind.CURRENT, BERLIN, Instant.now(), bytes("passt"));
+
+        // Act
+        store.append(ResponseStore.Kind.CURRENT, HAMBURG, Instant.now(), bytes("passt nicht mehr"));
+
+        // Assert
+        assertNotNull(store.findLatest(ResponseStore.Kind.CURRENT, BERLIN));
+        assertNull(store.findLatest(ResponseStore.Kind.CURRENT, HAMBURG));
+        assertTrue(Files.size(Path.of(config.getDiskPath())) <= 100);
+        store.close();
+    }
+
+    @Test
+    void shouldJudgeRetentionByInjectedClock() throws Exception {
+        // Arrange: Aufbewahrung 6 Stunden, gespeichert um 06:00
+        CacheConfig config = createConfig();
+        Instant fetchedAt = Instant.parse("2024-06-21T06:00:00Z");
+        ResponseStore store = new ResponseStore(config, Clock.fixed(fetchedAt.plus(Duration.ofHours(5)), ZoneOffset.UTC));
+        store.append(ResponseStore.Kind.CURRENT, BERLIN, fetchedAt, bytes("gespeichert"));
+        store.close();
+
+        // Act
+        ResponseStore beforeExpiry = new ResponseStore(config,
+            Clock.fixed(fetchedAt.plus(Duration.ofHours(5)), ZoneOffset.UTC));
+        ResponseStore afterExpiry = new ResponseStore(config,
+            Clock.fixed(fetchedAt.plus(Duration.ofHours(7)), ZoneOffset.UTC));
+
+        // Assert
+        assertNotNull(beforeExpiry.findLatest(ResponseStore.Kind.CURRENT, BERLIN));
+        assertNull(afterExpiry.findLatest(ResponseStore.Kind.CURRENT, BERLIN));
+        beforeExpiry.close();
+        afterExpiry.close();
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
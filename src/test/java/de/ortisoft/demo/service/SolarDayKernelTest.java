@@ -0,0 +1,245 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.model.PvArrayConfig;
+import de.ortisoft.demo.model.PvSystem;
+import de.ortisoft.demo.model.SolarDayResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SolarDayKernelTest {
+
+    private final SolarGeometryTable table = new SolarGeometryTable(0.25, 16);
+    private final SolarDayKernel kernel = new SolarDayKernel();
+    private final PvSystem arrays = PvSystem.of(
+        new PvArrayConfig(4.8, 90, 18, 20, 14),
+        new PvArrayConfig(4.8, 270, 18, 20, 14)
+    );
+
+    // Stundenweise Rechnung wie vor dem Rechenkern
+    private static double hourlyRadiation(SolarGeometryTable.Row sun, LocalDate date, int hour,
+                                          double cloudCover, PvSystem system, int array) {
+        if (sun.sunHeight(date, hour) <= 0) {
+            return 0;
+        }
+        double tempFactor = hour >= 10 && hour <= 16 ? 0.90 : 1.0;
+        return 1000.0 * sun.sinSunHeight(date, hour) * (1.0 - cloudCover / 100.0 * 0.70)
+            * sun.incidence(date, hour, system.getAzimuth(array), system.getTilt(array)) * tempFactor;
+    }
+
+    private static double hourlyYield(double radiation, PvSystem system, int array) {
+        return radiation / 1000.0 * 5.0 * (system.getEfficiency(array) / 100.0)
+            * (1.0 - system.getLosses(array) / 100.0) * system.getKwp(array);
+    }
+
+    @Test
+    void shouldMatchHourByHourCalculation() {
+        // Arrange
+        SolarGeometryTable.Row sun = table.forLatitude(52.5);
+        LocalDate date = LocalDate.of(2024, 6, 21);
+        SolarDayResult result = kernel.newResult(arrays.size());
+
+        // Act
+        kernel.compute(sun, date, 40, arrays, 600, 2.0, result);
+
+        // Assert
+        for (int a = 0; a < arrays.size(); a++) {
+            double expectedDaily = 0;
+            for (int hour = 0; hour < SolarDayKernel.STEPS; hour++) {
+                double radiation = hourlyRadiation(sun, date, hour, 40, arrays, a);
+                assertEquals(radiation, result.getRadiation(a, hour), 1e-9);
+                assertEquals(hourlyYield(radiation, arrays, a), result.getYield(a, hour), 1e-12);
+                expectedDaily += hourlyYield(radiation, arrays, a);
+            }
+            assertEquals(expectedDaily, result.getDailyYield(a), 1e-9);
+        }
+        assertEquals(result.getDailyYield(0) + result.getDailyYield(1), result.getTotalDailyYield(), 1e-12);
+    }
+
+    @Test
+    void shouldUseCloudCoverOfEachHour() {
+        // Arrange: bedeckter Vormittag, klarer Nachmittag
+        SolarGeometryTable.Row sun = table.forLatitude(52.5);
+        LocalDate date = LocalDate.of(2024, 6, 21);
+        double[] hourlyCloudCover = new double[SolarDayKernel.STEPS];
+        for (int hour = 0; hour < hourlyCloudCover.length; hour++) {
+            hourlyCloudCover[hour] = hour < 12 ? 100 : 0;
+        }
+        SolarDayResult result = kernel.newResult(arrays.size());
+
+        // Act
+        kernel.compute(sun, date, 50, hourlyCloudCover, arrays, 600, 2.0, result);
+
+        // Assert
+        for (int hour = 0; hour < SolarDayKernel.STEPS; hour++) {
+            double radiation = hourlyRadiation(sun, date, hour, hourlyCloudCover[hour], arrays, 1);
+            assertEquals(radiation, result.getRadiation(1, hour), 1e-9);
+            assertEquals(hourlyCloudCover[hour], result.getCloudCover(hour));
+        }
+        assertEquals(50, result.getCloudCover(), "Tageswert bleibt für die Anzeige erhalten");
+    }
+
+    @Test
+    void shouldAggregateRadiationAndRatios() {
+        // Arrange
+        SolarGeometryTable.Row sun = table.forLatitude(52.5);
+        LocalDate date = LocalDate.of(2024, 3, 20);
+        SolarDayResult result = kernel.newResult(arrays.size());
+
+        // Act
+        kernel.compute(sun, date, 0, arrays, 600, 2.0, result);
+
+        // Assert
+        double max = 0;
+        for (int hour = 0; hour < SolarDayKernel.STEPS; hour++) {
+            if (!result.isDaylight(hour)) {
+                assertEquals(0, result.getTotal(hour));
+                continue;
+            }
+            max = Math.max(max, result.getRadiation(0, hour));
+            assertTrue(result.getMinRadiation(hour) <= result.getAvgRadiation(hour));
+            assertTrue(result.getAvgRadiation(hour) <= result.getMaxRadiation(hour));
+            assertEquals(result.getTotal(hour) / 2.0, result.getTotalRatio(hour), 1e-12);
+            assertTrue(result.getTotalRatio(hour) <= result.getClearSkyRatio(hour) + 1e-12);
+        }
+        assertEquals(max, result.getDayMaxRadiation(), 1e-12);
+        assertTrue(result.getDayMinRadiation() > 0);
+        assertTrue(result.getDayMinRadiation() <= result.getDayAvgRadiation());
+        assertTrue(result.getClearSkyDayRatio() > 0);
+    }
+
+    @Test
+    void shouldResetResultBetweenDays() {
+        // Arrange
+        SolarGeometryTable.Row sun = table.forLatitude(52.5);
+        SolarDayResult result = kernel.newResult(arrays.size());
+        kernel.compute(sun, LocalDate.of(2024, 6, 21), 0, arrays, 600, 2.0, result);
+        double summer = result.getTotalDailyYield();
+
+        // Act
+        kernel.compute(sun, LocalDate.of(2024, 12, 21), 100, arrays, 600, 2.0, result);
+
+        // Assert
+        assertEquals(LocalDate.of(2024, 12, 21), result.getDate());
+        assertTrue(result.getTotalDailyYield() < summer);
+        assertEquals(0, result.getTotal(0));
+    }
+
+    @Test
+    void shouldReuseWorkspaceAndMatchFreshResult() {
+        // Arrange: langer Sommertag vor einem kurzen Wintertag, Nachtwerte dürfen nicht überleben
+        SolarDayKernel fine = new SolarDayKernel(15, false);
+        SolarGeometryTable.Row sun = table.forLatitude(52.5);
+        SolarDayResult reused = fine.newResult(arrays.size());
+        SolarDayResult fresh = fine.newResult(arrays.size());
+        fine.compute(sun, LocalDate.of(2024, 6, 21), 0, arrays, 600, 2.0, reused);
+        double[] radiation = reused.getWorkspace().radiation();
+
+        // Act
+        fine.compute(sun, LocalDate.of(2024, 12, 21), 40, arrays, 600, 2.0, reused);
+        fine.compute(sun, LocalDate.of(2024, 12, 21), 40, arrays, 600, 2.0, fresh);
+
+        // Assert
+        assertSame(radiation, reused.getWorkspace().radiation());
+        assertEquals(fresh.getTotalDailyYield(), reused.getTotalDailyYield(), 0.0);
+        for (int hour = 0; hour < SolarDayKernel.STEPS; hour++) {
+            assertEquals(fresh.getTotal(hour), reused.getTotal(hour), 0.0);
+            assertEquals(fresh.isDaylight(hour), reused.isDaylight(hour));
+        }
+        assertThrows(IllegalArgumentException.class,
+            () -> kernel.compute(sun, LocalDate.of(2024, 12, 21), 40, arrays, 600, 2.0, reused));
+    }
+
+    @Test
+    void shouldComputeEachArrayOfLargeSystemIndependently() {
+        // Arrange: acht Flächen in einem Durchlauf gegen jede Fläche einzeln
+        SolarGeometryTable.Row sun = table.forLatitude(47.0);
+        LocalDate date = LocalDate.of(2024, 8, 15);
+        PvArrayConfig[] configs = {
+            new PvArrayConfig(3.0, 90, 15, 20, 14),
+            new PvArrayConfig(2.5, 135, 25, 21, 12),
+            new PvArrayConfig(6.0, 180, 35, 22, 10),
+            new PvArrayConfig(1.2, 225, 45, 19, 15),
+            new PvArrayConfig(4.0, 270, 10, 20, 14),
+            new PvArrayConfig(0.8, 0, 60, 18, 20),
+            new PvArrayConfig(5.5, 200, 0, 20, 14),
+            new PvArrayConfig(2.0, 160, 90, 20, 14)
+        };
+        PvSystem system = PvSystem.of(configs);
+        SolarDayKernel fine = new SolarDayKernel(15, true);
+        SolarDayResult result = fine.newResult(system.size());
+
+        // Act
+        fine.compute(sun, date, 30, system, 600, 10.0, result);
+
+        // Assert
+        double total = 0;
+        for (int a = 0; a < configs.length; a++) {
+            SolarDayResult single = fine.newResult(1);
+            fine.compute(sun, date, 30, PvSystem.of(configs[a]), 600, 10.0, single);
+            assertEquals(single.getDailyYield(0), result.getDailyYield(a), 1e-9);
+            total += single.getDailyYield(0);
+        }
+        assertEquals(total, result.getTotalDailyYield(), 1e-9);
+    }
+
+    @Test
+    void shouldMatchScalarResultWhenVectorized() {
+        // Arrange
+        SolarGeometryTable.Row sun = table.forLatitude(48.25);
+        LocalDate date = LocalDate.of(2024, 5, 1);
+        SolarDayKernel scalar = new SolarDayKernel(1, false);
+        SolarDayKernel vector = new SolarDayKernel(1, true);
+        // Nur mit -PvectorApi; sonst würde skalar mit skalar verglichen
+        assumeTrue(vector.isVectorized(), "Vector API nicht geladen");
+        assertFalse(scalar.isVectorized());
+        SolarDayResult scalarResult = scalar.newResult(arrays.size());
+        SolarDayResult vectorResult = vector.newResult(arrays.size());
+
+        // Act
+        scalar.compute(sun, date, 25, arrays, 600, 2.0, scalarResult);
+        vector.compute(sun, date, 25, arrays, 600, 2.0, vectorResult);
+
+        // Assert
+        for (int a = 0; a < arrays.size(); a++) {
+            assertEquals(scalarResult.getDailyYield(a), vectorResult.getDailyYield(a), 1e-9);
+            for (int hour = 0; hour < SolarDayKernel.STEPS; hour++) {
+                assertEquals(scalarResult.getRadiation(a, hour), vectorResult.getRadiation(a, hour), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void shouldIntegrateSunriseHourWithFineResolution() {
+        // Arrange: zur Sommersonnenwende geht die Sonne in 52,5° N zwischen 3 und 4 Uhr (Sonnenzeit) auf
+        SolarGeometryTable.Row sun = table.forLatitude(52.5);
+        LocalDate date = LocalDate.of(2024, 6, 21);
+        SolarDayKernel fine = new SolarDayKernel(5, false);
+        SolarDayResult hourly = kernel.newResult(arrays.size());
+        SolarDayResult fiveMinutes = fine.newResult(arrays.size());
+
+        // Act
+        kernel.compute(sun, date, 0, arrays, 600, 2.0, hourly);
+        fine.compute(sun, date, 0, arrays, 600, 2.0, fiveMinutes);
+
+        // Assert
+        assertFalse(hourly.isDaylight(3));
+        assertTrue(fiveMinutes.isDaylight(3));
+        assertTrue(fiveMinutes.getYield(0, 3) > 0, "Ostfläche liefert schon in der Aufgangsstunde");
+        assertEquals(12, fine.getStepsPerHour());
+        // Feine Schritte konvergieren: 5 und 1 Minute liegen dicht beieinander
+        SolarDayKernel finest = new SolarDayKernel(1, false);
+        SolarDayResult oneMinute = finest.newResult(arrays.size());
+        finest.compute(sun, date, 0, arrays, 600, 2.0, oneMinute);
+        assertEquals(oneMinute.getTotalDailyYield(), fiveMinutes.getTotalDailyYield(), 0.01);
+    }
+
+    @Test
+    void shouldRejectResolutionNotDividingAnHour() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SolarDayKernel(7, false));
+    }
+}
@@ -0,0 +1,91 @@
+package de.ortisoft.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolarGeometryTableTest {
+
+    private final SolarGeometryTable table = new SolarGeometryTable(0.25, 16);
+
+    // Direkte Rechnung wie vor der Tabelle
+    private static double sunHeight(double lat, LocalDate date, int hour) {
+        double declination = Math.toRadians(23.45 * Math.sin(Math.toRadians((360.0 / 365.0) * (date.getDayOfYear() - 81))));
+        double latRad = Math.toRadians(lat);
+        double hourAngle = Math.toRadians((hour - 12) * 15.0);
+        return Math.toDegrees(Math.asin(Math.sin(latRad) * Math.sin(declination)
+            + Math.cos(latRad) * Math.cos(declination) * Math.cos(hourAngle)));
+    }
+
+    private static double incidence(double lat, LocalDate date, int hour, int azimuth, int tilt) {
+        double height = sunHeight(lat, date, hour);
+        if (height <= 0) {
+            return 0;
+        }
+        double declination = Math.toRadians(23.45 * Math.sin(Math.toRadians((360.0 / 365.0) * (date.getDayOfYear() - 81))));
+        double latRad = Math.toRadians(lat);
+        double heightRad = Math.toRadians(height);
+        double cosAzimuth = Math.max(-1, Math.min(1, (Math.sin(declination) - Math.sin(latRad) * Math.sin(heightRad))
+            / (Math.cos(latRad) * Math.cos(heightRad))));
+        double sunAzimuth = Math.acos(cosAzimuth);
+        if (hour > 12) {
+            sunAzimuth = 2 * Math.PI - sunAzimuth;
+        }
+        return Math.max(0, Math.sin(heightRad) * Math.cos(Math.toRadians(tilt))
+            + Math.cos(heightRad) * Math.sin(Math.toRadians(tilt)) * Math.cos(sunAzimuth - Math.toRadians(azimuth)));
+    }
+
+    @Test
+    void shouldMatchDirectCalculationOnGridLatitudes() {
+        // Arrange
+        LocalDate date = LocalDate.of(2024, 6, 21);
+        SolarGeometryTable.Row row = table.forLatitude(52.5);
+
+        // Act & Assert
+        assertEquals(52.5, row.getLatitude(), 1e-9);
+        for (int hour = 0; hour < 24; hour++) {
+            assertEquals(sunHeight(52.5, date, hour), row.sunHeight(date, hour), 1e-9);
+            assertEquals(incidence(52.5, date, hour, 180, 35), row.incidence(date, hour, 180, 35), 1e-6);
+        }
+        assertEquals(sunHeight(52.5, date, 12), row.maxSunHeight(date), 1e-9);
+    }
+
+    @Test
+    void shouldStayWithinDocumentedBoundBetweenGridLatitudes() {
+        // Arrange: Fehler höchstens Rasterweite/2, als Winkel bzw. auf den Kosinus des Einfallswinkels
+        double heightBound = table.getStep() / 2;
+        double incidenceBound = Math.toRadians(table.getStep() / 2);
+        Random random = new Random(7);
+
+        // Act & Assert
+        for (int i = 0; i < 20_000; i++) {
+            double lat = 35 + 30 * random.nextDouble();
+            LocalDate date = LocalDate.ofYearDay(2024, 1 + random.nextInt(366));
+            int hour = random.nextInt(24);
+            int azimuth = random.nextInt(360);
+            int tilt = random.nextInt(91);
+            SolarGeometryTable.Row row = table.forLatitude(lat);
+
+            double exactHeight = sunHeight(lat, date, hour);
+            assertEquals(exactHeight, row.sunHeight(date, hour), heightBound + 1e-9);
+            // An der Horizontkante springt der Ertrag, dort gilt die Schranke nicht
+            if ((exactHeight > 0) == (row.sunHeight(date, hour) > 0)) {
+                assertEquals(incidence(lat, date, hour, azimuth, tilt), row.incidence(date, hour, azimuth, tilt),
+                    incidenceBound + 1e-9);
+            }
+        }
+    }
+
+    @Test
+    void shouldReturnNoIncidenceAtNight() {
+        // Arrange
+        LocalDate date = LocalDate.of(2024, 12, 21);
+
+        // Act & Assert
+        assertTrue(table.forLatitude(52.5).sinSunHeight(date, 0) < 0);
+        assertEquals(0, table.forLatitude(52.5).incidence(date, 0, 180, 35));
+    }
+}
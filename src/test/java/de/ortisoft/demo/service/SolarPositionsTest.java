@@ -0,0 +1,115 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.PvArrayConfig;
+import de.ortisoft.demo.model.PvSystem;
+import de.ortisoft.demo.model.SolarDayResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolarPositionsTest {
+
+    private final SolarGeometryTable table = new SolarGeometryTable(0.25, 16);
+
+    private SolarPositions noaa(int resolutionMinutes) {
+        SolarConfig solarConfig = new SolarConfig();
+        solarConfig.setPositionModel(SolarConfig.PositionModel.NOAA);
+        solarConfig.setResolutionMinutes(resolutionMinutes);
+        return new SolarPositions(table, solarConfig, new CacheConfig());
+    }
+
+    @Test
+    void shouldFindSolarNoonShiftedByLongitudeAndEquationOfTime() {
+        // Arrange: Berlin zur Sommersonnenwende, wahrer Mittag laut NOAA um 11:08 UTC bei 60,9°
+        long start = LocalDateTime.of(2024, 6, 21, 0, 0).toEpochSecond(ZoneOffset.UTC);
+        double[] position = new double[NoaaSolarPosition.STRIDE];
+        double maxHeight = -90;
+        long noon = 0;
+
+        // Act
+        for (long time = start; time < start + 86_400; time += 60) {
+            NoaaSolarPosition.compute(52.52, 13.405, time, position, 0);
+            if (position[NoaaSolarPosition.HEIGHT] > maxHeight) {
+                maxHeight = position[NoaaSolarPosition.HEIGHT];
+                noon = time;
+            }
+        }
+
+        // Assert
+        assertEquals(LocalDateTime.of(2024, 6, 21, 11, 8).toEpochSecond(ZoneOffset.UTC), noon, 60);
+        assertEquals(60.93, maxHeight, 0.02);
+        double length = position[NoaaSolarPosition.SIN_HEIGHT] * position[NoaaSolarPosition.SIN_HEIGHT]
+            + position[NoaaSolarPosition.NORTH] * position[NoaaSolarPosition.NORTH]
+            + position[NoaaSolarPosition.EAST] * position[NoaaSolarPosition.EAST];
+        assertEquals(1.0, length, 1e-9, "Sonnenvektor bleibt Einheitsvektor");
+    }
+
+    @Test
+    void shouldUseClockTimeOfConfiguredZone() {
+        // Arrange
+        SolarPositions positions = noaa(60);
+        LocalDate date = LocalDate.of(2024, 6, 21);
+
+        // Act
+        SunPath sun = positions.forLocation(52.52, 13.405);
+
+        // Assert: Höchststand um 13 Uhr Sommerzeit, nicht um 12 Uhr wie in wahrer Ortszeit
+        assertTrue(sun.sunHeight(date, 13) > sun.sunHeight(date, 12));
+        assertTrue(sun.sunHeight(date, 13) > sun.sunHeight(date, 14));
+        assertEquals(2.0, positions.utcOffsetHours(13.405, date));
+        assertEquals(1.0, positions.utcOffsetHours(13.405, LocalDate.of(2024, 12, 21)));
+    }
+
+    @Test
+    void shouldMemoizeCurvesPerCellAndDay() {
+        // Arrange
+        SolarPositions positions = noaa(60);
+        LocalDate date = LocalDate.of(2024, 6, 21);
+
+        // Act
+        positions.forLocation(52.52, 13.405).sunHeight(date, 12);
+        positions.forLocation(52.52, 13.406).sunHeight(date, 12);
+        positions.forLocation(52.52, 13.405).sunHeight(date.plusDays(1), 12);
+
+        // Assert
+        assertEquals(2, positions.cachedDays());
+    }
+
+    @Test
+    void shouldKeepTableByDefault() {
+        // Arrange
+        SolarPositions positions = new SolarPositions(table, new SolarConfig(), new CacheConfig());
+
+        // Act
+        SunPath sun = positions.forLocation(52.52, 13.405);
+
+        // Assert
+        assertSame(table.forLatitude(52.52), sun);
+        assertEquals(13.405 / 15.0, positions.utcOffsetHours(13.405, LocalDate.of(2024, 6, 21)), 1e-12);
+    }
+
+    @Test
+    void shouldIntegrateFineStepsAlongPreciseCurve() {
+        // Arrange
+        PvSystem system = PvSystem.of(new PvArrayConfig(4.8, 180, 30, 20, 14));
+        LocalDate date = LocalDate.of(2024, 6, 21);
+        SolarDayKernel hourly = new SolarDayKernel(60, false);
+        SolarDayKernel fine = new SolarDayKernel(1, false);
+        SolarDayResult hourlyResult = hourly.newResult(1);
+        SolarDayResult fineResult = fine.newResult(1);
+
+        // Act
+        hourly.compute(noaa(60).forLocation(52.52, 13.405), date, 0, system, 600, 2.0, hourlyResult);
+        fine.compute(noaa(1).forLocation(52.52, 13.405), date, 0, system, 600, 2.0, fineResult);
+
+        // Assert
+        assertTrue(fineResult.getDailyYield(0) > 0);
+        assertEquals(hourlyResult.getDailyYield(0), fineResult.getDailyYield(0), 0.01 * hourlyResult.getDailyYield(0));
+    }
+}
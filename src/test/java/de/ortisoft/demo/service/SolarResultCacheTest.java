@@ -0,0 +1,103 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.SolarConfig;
+import de.ortisoft.demo.model.ForecastSeries;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.PvArrayConfig;
+import de.ortisoft.demo.model.PvSystem;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class SolarResultCacheTest {
+
+    private final WeatherCache weatherCache = mock(WeatherCache.class);
+    private final SolarResultCache cache = new SolarResultCache(new SolarConfig(), weatherCache, new SimpleMeterRegistry());
+    private final GridCell berlin = new GridCell(1050, 268, 0.05);
+    private final Instant version = Instant.parse("2024-06-01T06:30:00Z");
+
+    @Test
+    void shouldComputeOnlyOnceForEquivalentConfigs() {
+        // Arrange: dieselbe Anlage, einmal mit 360° statt 0° und ungerundetem kWp
+        AtomicInteger computations = new AtomicInteger();
+        PvSystem first = PvSystem.of(new PvArrayConfig(4.8, 0, 18, 20, 14)).canonical();
+        PvSystem same = PvSystem.of(new PvArrayConfig(4.8000001, 360, 18, 20.0, 14.0)).canonical();
+
+        // Act
+        String a = cache.get(berlin, first, version, () -> "Ertrag " + computations.incrementAndGet());
+        String b = cache.get(berlin, same, version, () -> "Ertrag " + computations.incrementAndGet());
+
+        // Assert
+        assertEquals(first, same);
+        assertEquals("Ertrag 1", a);
+        assertSame(a, b);
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void shouldRecomputeForOtherCellOrForecastVersion() {
+        // Arrange
+        AtomicInteger computations = new AtomicInteger();
+        PvSystem system = PvSystem.of(new PvArrayConfig(4.8, 180, 35, 20, 14)).canonical();
+
+        // Act
+        cache.get(berlin, system, version, () -> "a" + computations.incrementAndGet());
+        cache.get(new GridCell(1071, 199, 0.05), system, version, () -> "b" + computations.incrementAndGet());
+        cache.get(berlin, system, version.plus(Duration.ofHours(3)), () -> "c" + computations.incrementAndGet());
+
+        // Assert
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldDropOlderVersionsWhenNewForecastIsIngested() {
+        // Arrange
+        ArgumentCaptor<BiConsumer<GridCell, CacheEntry<ForecastSeries>>> listener = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(weatherCache).onForecastIngested(listener.capture());
+        PvSystem system = PvSystem.of(new PvArrayConfig(4.8, 180, 35, 20, 14)).canonical();
+        GridCell hamburg = new GridCell(1071, 199, 0.05);
+        cache.get(berlin, system, version, () -> "alt");
+        cache.get(hamburg, system, version, () -> "hamburg");
+        Instant newer = version.plus(Duration.ofHours(3));
+
+        // Act
+        listener.getValue().accept(berlin, CacheEntry.of(ForecastSeries.builder(0).build(), newer, Duration.ofHours(3)));
+
+        // Assert: nur die Berliner Einträge des alten Stands sind weg
+        assertEquals(1, cache.size());
+        assertEquals("hamburg", cache.get(hamburg, system, version, () -> "neu gerechnet"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotStoreOlderVersionRequestedAfterNewIngest() {
+        // Arrange: Neuberechnung aus einem Vorhersagestand, der inzwischen ersetzt wurde
+        ArgumentCaptor<BiConsumer<GridCell, CacheEntry<ForecastSeries>>> listener = ArgumentCaptor.forClass(BiConsumer.class);
+        verify(weatherCache).onForecastIngested(listener.capture());
+        PvSystem system = PvSystem.of(new PvArrayConfig(4.8, 180, 35, 20, 14)).canonical();
+        AtomicInteger computations = new AtomicInteger();
+        Instant newer = version.plus(Duration.ofHours(3));
+        listener.getValue().accept(berlin, CacheEntry.of(ForecastSeries.builder(0).build(), newer, Duration.ofHours(3)));
+
+        // Act
+        String first = cache.get(berlin, system, version, () -> "alt " + computations.incrementAndGet());
+        String second = cache.get(berlin, system, version, () -> "alt " + computations.incrementAndGet());
+
+        // Assert: gerechnet, aber kein Eintrag des alten Stands
+        assertEquals("alt 1", first);
+        assertEquals("alt 2", second);
+        assertEquals(0, cache.size());
+        cache.get(berlin, system, newer, () -> "neu");
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,72 @@
+package de.ortisoft.demo.service;
+
+import de.ortisoft.demo.config.QuotaConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamQuotaTest {
+
+    private UpstreamQuota createQuota(int callsPerMinute, int burst, Duration interactiveMaxWait) {
+        QuotaConfig config = new QuotaConfig();
+        config.setCallsPerMinute(callsPerMinute);
+        config.setBurst(burst);
+        config.setInteractiveMaxWait(interactiveMaxWait);
+        config.setBackgroundMaxWait(Duration.ofSeconds(5));
+        return new UpstreamQuota(config, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldGrantBurstImmediately() {
+        // Arrange
+        UpstreamQuota quota = createQuota(60, 3, Duration.ofSeconds(2));
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            quota.acquire().block(Duration.ofMillis(100));
+        }
+
+        // Assert
+        assertTrue(quota.getAvailableTokens() < 1);
+    }
+
+    @Test
+    void shouldRejectEarlyWhenWaitWouldExceedDeadline() {
+        // Arrange: ein Aufruf pro Sekunde, Benutzeranfragen warten höchstens 500 ms
+        UpstreamQuota quota = createQuota(60, 1, Duration.ofMillis(500));
+        quota.acquire().block();
+
+        // Act
+        long start = System.nanoTime();
+        assertThrows(QuotaExceededException.class, () -> quota.acquire().block());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Assert: abgelehnt ohne die Frist abzuwarten
+        assertTrue(elapsed.toMillis() < 100, "Ablehnung nach " + elapsed.toMillis() + " ms");
+        assertEquals(0, quota.getQueueDepth(UpstreamQuota.Priority.INTERACTIVE));
+    }
+
+    @Test
+    void shouldServeInteractiveBeforeBackground() {
+        // Arrange: 20 Aufrufe pro Sekunde, Bucket leer
+        UpstreamQuota quota = createQuota(1200, 1, Duration.ofSeconds(2));
+        quota.acquire().block();
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // Act: Hintergrundarbeit reiht sich zuerst ein, die Benutzeranfrage danach
+        Mono<Void> background = UpstreamQuota.inBackground(quota.acquire())
+            .doOnSuccess(v -> order.add("background"));
+        Mono<Void> interactive = quota.acquire()
+            .doOnSuccess(v -> order.add("interactive"));
+        Mono.when(background, interactive).block(Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals(List.of("interactive", "background"), order);
+    }
+}
@@ -0,0 +1,209 @@
+package de.ortisoft.demo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.ortisoft.demo.config.CacheConfig;
+import de.ortisoft.demo.model.GridCell;
+import de.ortisoft.demo.model.WeatherResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WeatherCacheTest {
+
+    private final OpenWeatherClient openWeatherClient = mock(OpenWeatherClient.class);
+    private final CacheConfig cacheConfig = new CacheConfig();
+    private final WeatherCache weatherCache = createCache(Clock.systemUTC());
+
+    @TempDir
+    Path tempDir;
+
+    private WeatherCache createCache(Clock clock) {
+        return new WeatherCache(openWeatherClient, cacheConfig, new ResponseStore(cacheConfig, clock), new ObjectMapper(),
+            new ForecastDecoder(), new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void shouldShareEntryForNeighbouringClicksInSameCell() {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        when(openWeatherClient.fetchCurrentWeather(anyDouble(), anyDouble())).thenReturn(Mono.fromCallable(() -> {
+            upstreamCalls.incrementAndGet();
+            return weatherJson(40);
+        }));
+
+        // Act: zwei Klicks wenige hundert Meter auseinander
+        WeatherResponse first = weatherCache.getCurrentWeather(52.5200, 13.4049).block().value();
+        WeatherResponse second = weatherCache.getCurrentWeather(52.5210, 13.4070).block().value();
+
+        // Assert
+        assertNotNull(first);
+        assertSame(first, second);
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldFetchSeparatelyForDifferentCells() {
+        // Arrange
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        when(openWeatherClient.fetchCurrentWeather(anyDouble(), anyDouble())).thenReturn(Mono.fromCallable(() -> {
+            upstreamCalls.incrementAndGet();
+            return weatherJson(40);
+        }));
+
+        // Act: Berlin und Hamburg
+        weatherCache.getCurrentWeather(52.520008, 13.404954).block();
+        weatherCache.getCurrentWeather(53.551086, 9.993682).block();
+
+        // Assert
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldFetchAtCellCenter() {
+        // Arrange
+        GridCell cell = GridCell.of(52.5212, 13.4049, 0.05);
+
+        // Assert
+        assertEquals(52.525, cell.getCenterLat(), 1e-9);
+        assertEquals(13.425, cell.getCenterLon(), 1e-9);
+        assertEquals(cell, GridCell.of(52.5001, 13.4499, 0.05));
+    }
+
+    @Test
+    void shouldExpireForecastWhenNextForecastCycleIsPublished() {
+        // Arrange: Zyklus 3 h, Veröffentlichung 20 min nach Zyklusbeginn
+        Duration ttl = Duration.ofHours(3);
+        Duration cycle = Duration.ofHours(3);
+        Duration delay = Duration.ofMinutes(20);
+        long justAfterPublication = Instant.parse("2024-06-01T06:30:00Z").toEpochMilli();
+        long justBeforePublication = Instant.parse("2024-06-01T09:10:00Z").toEpochMilli();
+
+        // Act & Assert
+        assertEquals(Duration.ofMinutes(170), ForecastCycleExpiry.timeToLive(justAfterPublication, ttl, cycle, delay));
+        assertEquals(Duration.ofMinutes(10), ForecastCycleExpiry.timeToLive(justBeforePublication, ttl, cycle, delay));
+        assertEquals(Duration.ofMinutes(30),
+            ForecastCycleExpiry.timeToLive(justAfterPublication, Duration.ofMinutes(30), cycle, delay));
+    }
+
+    @Test
+    void shouldServeStaleEntryWhileRefreshingInBackground() {
+        // Arrange: TTL 10 min aus der Standardkonfiguration, Karenzzeit 30 min
+        MutableClock clock = new MutableClock(Instant.parse("2024-06-01T12:00:00Z"));
+        WeatherCache cache = createCache(clock);
+        when(openWeatherClient.fetchCurrentWeather(anyDouble(), anyDouble()))
+            .thenReturn(Mono.just(weatherJson(10)), Mono.just(weatherJson(90)));
+        cache.getCurrentWeather(52.520008, 13.404954).block();
+
+        // Act: 15 Minuten später ist der Eintrag veraltet, aber noch innerhalb der Karenzzeit
+        clock.advance(Duration.ofMinutes(15));
+        CacheEntry<WeatherResponse> stale = cache.getCurrentWeather(52.520008, 13.404954).block();
+        CacheEntry<WeatherResponse> revalidated = cache.getCurrentWeather(52.520008, 13.404954).block();
+
+        // Assert
+        assertEquals(10, stale.value().getClouds().getAll());
+        assertTrue(stale.isStale(clock.instant()));
+        assertEquals(Duration.ofMinutes(15), stale.ageAt(clock.instant()));
+        assertEquals(90, revalidated.value().getClouds().getAll());
+        assertFalse(revalidated.isStale(clock.instant()));
+    }
+
+    @Test
+    void shouldServeStoredResponseAfterRestart() {
+        // Arrange: erster Lauf holt vom Upstream und schreibt die Antwort auf die Platte
+        cacheConfig.setDiskPath(tempDir.resolve("responses.bin").toString());
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        when(openWeatherClient.fetchCurrentWeather(anyDouble(), anyDouble())).thenReturn(Mono.fromCallable(() -> {
+            upstreamCalls.incrementAndGet();
+            return weatherJson(25);
+        }));
+        ResponseStore firstStore = new ResponseStore(cacheConfig, Clock.systemUTC());
+        new WeatherCache(openWeatherClient, cacheConfig, firstStore, new ObjectMapper(), new ForecastDecoder(),
+            new SimpleMeterRegistry(),
+            Clock.systemUTC()).getCurrentWeather(52.520008, 13.404954).block();
+        GridCell cell = GridCell.of(52.520008, 13.404954, cacheConfig.getGridSize());
+        await(() -> firstStore.findLatest(ResponseStore.Kind.CURRENT, cell) != null);
+
+        // Act: "Neustart" mit neuem Store und leerem Cache auf derselben Datei
+        WeatherCache restarted = createCache(Clock.systemUTC());
+        CacheEntry<WeatherResponse> entry = restarted.getCurrentWeather(52.520008, 13.404954).block();
+
+        // Assert
+        assertEquals(25, entry.value().getClouds().getAll());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    // Geschrieben wird asynchron im Hintergrund
+    @Test
+    void shouldNotifyListenersWhenForecastIsIngested() {
+        // Arrange
+        List<GridCell> ingested = new CopyOnWriteArrayList<>();
+        weatherCache.onForecastIngested((cell, entry) -> ingested.add(cell));
+        when(openWeatherClient.fetchForecast(anyDouble(), anyDouble())).thenReturn(Mono.fromCallable(() ->
+            "{\"list\":[{\"dt\":1717221600,\"main\":{\"temp\":18.0,\"humidity\":60},\"clouds\":{\"all\":20},\"weather\":[{\"description\":\"klar\"}]}]}"
+                .getBytes(StandardCharsets.UTF_8)));
+
+        // Act: zweiter Zugriff kommt aus dem Cache und meldet nichts
+        weatherCache.getForecast(52.5200, 13.4049).block();
+        weatherCache.getForecast(52.5210, 13.4070).block();
+
+        // Assert
+        assertEquals(List.of(GridCell.of(52.5200, 13.4049, cacheConfig.getGridSize())), ingested);
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Bedingung nicht rechtzeitig erfüllt");
+            Thread.onSpinWait();
+        }
+    }
+
+    private byte[] weatherJson(int cloudCover) {
+        return String.format("{\"clouds\":{\"all\":%d}}", cloudCover).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -1,40 +1,39 @@
 package de.ortisoft.demo.service;
 
-import de.ortisoft.demo.config.WeatherConfig;
+import de.ortisoft.demo.config.CacheConfig;
 import de.ortisoft.demo.model.WeatherResponse;
 import de.ortisoft.demo.model.Main;
 import de.ortisoft.demo.model.Weather;
 import de.ortisoft.demo.model.Clouds;
-import de.ortisoft.demo.model.ForecastResponse;
-import de.ortisoft.demo.model.ForecastItem;
+import de.ortisoft.demo.model.ForecastSeries;
+import de.ortisoft.demo.model.PvArrayConfig;
+import de.ortisoft.demo.model.PvSystem;
+import de.ortisoft.demo.model.GeoResponse;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.beans.factory.annotation.Value;
+import reactor.core.publisher.Mono;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.Mockito.when;
-import static org.mockito.ArgumentMatchers.contains;
 
 @SpringBootTest
 class WeatherServiceTest {
 
-    @Value("${weather.api.key}")
-    private String apiKey;
-
-    @MockBean
-    private WeatherConfig weatherConfig;
-
     @MockBean
-    private RestTemplate restTemplate;
+    private WeatherCache weatherCache;
 
     @MockBean
     private LocationService locationService;
@@ -42,46 +41,83 @@ class WeatherServiceTest {
     @Autowired
     private WeatherService weatherService;
 
+    @Autowired
+    private SolarPositions solarPositions;
+
+    @Autowired
+    private SolarDayKernel solarDayKernel;
+
+    @Autowired
+    private SolarResultCache solarResults;
+
+    @Autowired
+    private CacheConfig cacheConfig;
+
+    @Autowired
+    private ForecastSnapshots forecastSnapshots;
+
     @Test
     void shouldGetWeatherForBerlin() {
         // Arrange
         WeatherResponse mockResponse = createMockWeatherResponse();
         String clientTime = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
 
-        when(weatherConfig.getKey()).thenReturn(apiKey);
-        when(locationService.getLocationName(52.520008, 13.404954)).thenReturn("Berlin");
-        when(restTemplate.getForObject(
-            contains("api.openweathermap.org/data/2.5/weather?lat=52.520008&lon=13.404954&appid=" + apiKey + "&units=metric&lang=de"), 
-            eq(WeatherResponse.class)
-        )).thenReturn(mockResponse);
+        GeoResponse location = new GeoResponse();
+        location.setName("Berlin");
+        when(locationService.getLocation(52.520008, 13.404954)).thenReturn(Mono.just(location));
+        when(locationService.getLocationName(location)).thenReturn("Berlin");
+        when(weatherCache.getCurrentWeather(52.520008, 13.404954)).thenReturn(Mono.just(fresh(mockResponse)));
+        when(weatherCache.getForecast(52.520008, 13.404954)).thenReturn(Mono.just(fresh(createMockForecast())));
 
         // Act
-        String result = weatherService.getWeatherByCoordinates(52.520008, 13.404954, clientTime, 0);
+        String result = weatherService.getWeatherByCoordinates(52.520008, 13.404954, clientTime, 0).block();
         
         // Assert
         assertNotNull(result);
         assertTrue(result.contains("Aktuelles Wetter"));
+        assertTrue(result.contains("data-location=\"Berlin\""));
+        assertTrue(result.contains("data-weather-age=\""));
+        assertTrue(result.contains("data-stale=\"false\""));
         assertFalse(result.contains("Fehler beim Abrufen der Wetterdaten"));
     }
 
+    @Test
+    void shouldRenderFreshnessWithInjectedClock() {
+        // Arrange: Abruf vor 30 Minuten, weiche TTL 10 Minuten
+        Instant fetchedAt = Instant.parse("2024-06-21T10:00:00Z");
+        WeatherService service = new WeatherService(weatherCache, locationService, solarPositions, solarDayKernel,
+            solarResults, cacheConfig, forecastSnapshots, Clock.fixed(fetchedAt.plusSeconds(1800), ZoneOffset.UTC));
+        GeoResponse location = new GeoResponse();
+        location.setName("Berlin");
+        when(locationService.getLocation(52.520008, 13.404954)).thenReturn(Mono.just(location));
+        when(locationService.getLocationName(location)).thenReturn("Berlin");
+        when(weatherCache.getCurrentWeather(52.520008, 13.404954))
+            .thenReturn(Mono.just(CacheEntry.of(createMockWeatherResponse(), fetchedAt, Duration.ofMinutes(10))));
+        when(weatherCache.getForecast(52.520008, 13.404954))
+            .thenReturn(Mono.just(CacheEntry.of(createMockForecast(), fetchedAt, Duration.ofHours(3))));
+
+        // Act
+        String result = service.getWeatherByCoordinates(52.520008, 13.404954, "2024-06-21T12:30:00", 0).block();
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.contains("data-weather-age=\"1800\""));
+        assertTrue(result.contains("data-forecast-age=\"1800\""));
+        assertTrue(result.contains("data-stale=\"true\""));
+    }
+
     @Test
     void shouldCalculateSolarData() {
         // Arrange
         WeatherResponse mockWeather = createMockWeatherResponse();
-        ForecastResponse mockForecast = createMockForecastResponse();
-
-        when(weatherConfig.getKey()).thenReturn(apiKey);
-        when(restTemplate.getForObject(
-            contains("api.openweathermap.org/data/2.5/weather?lat=52.520008&lon=13.404954&appid=" + apiKey + "&units=metric&lang=de"), 
-            eq(WeatherResponse.class)
-        )).thenReturn(mockWeather);
-        when(restTemplate.getForObject(
-            contains("api.openweathermap.org/data/2.5/forecast?lat=52.520008&lon=13.404954&appid=" + apiKey + "&units=metric&lang=de"), 
-            eq(ForecastResponse.class)
-        )).thenReturn(mockForecast);
+        ForecastSeries mockForecast = createMockForecast();
+
+        when(locationService.getLocation(52.520008, 13.404954)).thenReturn(Mono.empty());
+        when(weatherCache.getCurrentWeather(52.520008, 13.404954)).thenReturn(Mono.just(fresh(mockWeather)));
+        when(weatherCache.getForecast(52.520008, 13.404954)).thenReturn(Mono.just(fresh(mockForecast)));
 
         // Act
-        String result = weatherService.getSolarData(52.520008, 13.404954, 4.8, 90, 18, 4.8, 270, 18);
+        String result = weatherService.getSolarData(52.520008, 13.404954, 4.8, 90, 18, 4.8, 270, 18).block();
         
         // Assert
         assertNotNull(result);
@@ -91,6 +127,126 @@ class WeatherServiceTest {
         assertFalse(result.contains("Fehler"), "Should not contain 'Fehler'");
     }
 
+    @Test
+    void shouldRenderColumnsForEveryArray() {
+        // Arrange
+        when(locationService.getLocation(52.520008, 13.404954)).thenReturn(Mono.empty());
+        when(weatherCache.getCurrentWeather(52.520008, 13.404954)).thenReturn(Mono.just(fresh(createMockWeatherResponse())));
+        when(weatherCache.getForecast(52.520008, 13.404954)).thenReturn(Mono.just(fresh(createMockForecast())));
+        PvSystem system = PvSystem.of(
+            new PvArrayConfig(4.8, 90, 18, 20, 14),
+            new PvArrayConfig(4.8, 270, 18, 20, 14),
+            new PvArrayConfig(2.0, 180, 35, 21, 12));
+
+        // Act
+        String result = weatherService.getSolarData(52.520008, 13.404954, system).block();
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.contains("Anlage 3 (2.0 kWp)") || result.contains("Anlage 3 (2,0 kWp)"), "Should list third array");
+        assertTrue(result.contains("<th>Anlage 3 (kWh)</th>"), "Should have columns for third array");
+        assertFalse(result.contains("Anlage 4"), "Should not invent arrays");
+        assertFalse(result.contains("Fehler"), "Should not contain 'Fehler'");
+    }
+
+    @Test
+    void shouldRecomputeFromSnapshotWithoutUpstreamCalls() {
+        // Arrange
+        AtomicInteger forecastCalls = new AtomicInteger();
+        when(locationService.getLocation(52.520008, 13.404954)).thenReturn(Mono.empty());
+        when(weatherCache.getCurrentWeather(52.520008, 13.404954)).thenReturn(Mono.just(fresh(createMockWeatherResponse())));
+        when(weatherCache.getForecast(52.520008, 13.404954)).thenReturn(Mono.fromCallable(() -> {
+            forecastCalls.incrementAndGet();
+            return fresh(createMockForecast());
+        }));
+        String first = weatherService.getSolarData(52.520008, 13.404954, PvSystem.of(new PvArrayConfig(4.8, 180, 30, 20, 14))).block();
+        Matcher token = Pattern.compile("data-snapshot=\"([^\"]+)\"").matcher(first);
+        assertTrue(token.find(), "Should embed snapshot token");
+
+        // Act
+        String recomputed = weatherService.recomputeSolarData(token.group(1),
+            PvSystem.of(new PvArrayConfig(4.8, 90, 18, 20, 14), new PvArrayConfig(2.0, 270, 18, 20, 14))).block();
+
+        // Assert
+        assertNotNull(recomputed);
+        assertTrue(recomputed.contains("<th>Anlage 2 (kWh)</th>"), "Should render the new configuration");
+        assertTrue(recomputed.contains("data-snapshot=\"" + token.group(1) + "\""), "Should keep the snapshot token");
+        assertFalse(recomputed.contains("Fehler"), "Should not contain 'Fehler'");
+        assertEquals(1, forecastCalls.get(), "Recompute must not fetch the forecast again");
+    }
+
+    @Test
+    void shouldRenderSameSolarDaysForEveryLatitudeInCell() {
+        // Arrange: beide Punkte liegen in derselben Zelle, aber auf verschiedenen Tabellenzeilen (52,5° und 52,75°)
+        when(locationService.getLocation(anyDouble(), anyDouble())).thenReturn(Mono.empty());
+        when(weatherCache.getCurrentWeather(anyDouble(), anyDouble())).thenReturn(Mono.just(fresh(createMockWeatherResponse())));
+        when(weatherCache.getForecast(anyDouble(), anyDouble())).thenReturn(Mono.just(fresh(createMockForecast())));
+        PvSystem system = PvSystem.of(new PvArrayConfig(3.3, 135, 25, 19, 13));
+
+        // Act
+        String south = weatherService.getSolarData(52.601, 13.401, system).block();
+        String north = weatherService.getSolarData(52.649, 13.449, system).block();
+
+        // Assert: Kopf und Balken hängen nur von der Zelle ab, nicht vom ersten Anfragenden
+        assertNotNull(south);
+        assertFalse(south.contains("Fehler"), "Should not contain 'Fehler'");
+        assertEquals(withoutSnapshot(south), withoutSnapshot(north));
+    }
+
+    private static String withoutSnapshot(String html) {
+        return html.replaceAll("data-snapshot=\"[^\"]+\"", "");
+    }
+
+    @Test
+    void shouldReturnEmptyForUnknownSnapshot() {
+        // Act
+        String result = weatherService.recomputeSolarData("unbekannt", PvSystem.of(new PvArrayConfig(4.8, 180, 30, 20, 14))).block();
+
+        // Assert
+        assertNull(result);
+    }
+
+    @Test
+    void shouldFetchEachUpstreamResourceOncePerContext() {
+        // Arrange
+        AtomicInteger weatherCalls = new AtomicInteger();
+        AtomicInteger forecastCalls = new AtomicInteger();
+        AtomicInteger locationCalls = new AtomicInteger();
+        GeoResponse location = new GeoResponse();
+        location.setName("Berlin");
+
+        when(weatherCache.getCurrentWeather(52.520008, 13.404954)).thenReturn(Mono.fromCallable(() -> {
+            weatherCalls.incrementAndGet();
+            return fresh(createMockWeatherResponse());
+        }));
+        when(weatherCache.getForecast(52.520008, 13.404954)).thenReturn(Mono.fromCallable(() -> {
+            forecastCalls.incrementAndGet();
+            return fresh(createMockForecast());
+        }));
+        when(locationService.getLocation(52.520008, 13.404954)).thenReturn(Mono.fromCallable(() -> {
+            locationCalls.incrementAndGet();
+            return location;
+        }));
+        when(locationService.getLocationName(location)).thenReturn("Berlin");
+        String clientTime = LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME);
+
+        // Act
+        WeatherFetchContext context = weatherService.createFetchContext(52.520008, 13.404954);
+        String result = Mono.zip(
+                weatherService.getWeatherByCoordinates(context, clientTime, 0),
+                weatherService.getSolarData(context, 4.8, 90, 18, 20.0, 14.0, 4.8, 270, 18, 20.0, 14.0))
+            .map(tuple -> tuple.getT1() + tuple.getT2())
+            .block();
+
+        // Assert
+        assertNotNull(result);
+        assertTrue(result.contains("Aktuelles Wetter"));
+        assertTrue(result.contains("Prognose für die nächsten Tage"));
+        assertEquals(1, weatherCalls.get());
+        assertEquals(1, forecastCalls.get());
+        assertEquals(1, locationCalls.get());
+    }
+
     @Test
     void shouldCalculateHourlyYieldWithDefaultParameters() {
         // Arrange
@@ -116,6 +272,10 @@ class WeatherServiceTest {
         }
     }
 
+    private <T> CacheEntry<T> fresh(T value) {
+        return CacheEntry.of(value, Instant.now(), Duration.ofMinutes(10));
+    }
+
     private WeatherResponse createMockWeatherResponse() {
         WeatherResponse response = new WeatherResponse();
         
@@ -135,34 +295,15 @@ class WeatherServiceTest {
         return response;
     }
 
-    private ForecastResponse createMockForecastResponse() {
-        ForecastResponse response = new ForecastResponse();
-        List<ForecastItem> forecastList = new ArrayList<>();
+    private ForecastSeries createMockForecast() {
+        ForecastSeries.Builder builder = ForecastSeries.builder(13);
         
-        // Erstelle ein paar Forecast-Items für den aktuellen Tag
-        LocalDateTime now = LocalDateTime.now();
+        // Erstelle ein paar Vorhersagen für den aktuellen Tag
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
         for (int hour = 6; hour <= 18; hour++) {
-            ForecastItem item = new ForecastItem();
-            
-            Main main = new Main();
-            main.setTemp(20.0);
-            main.setHumidity(65);
-            item.setMain(main);
-
-            Weather weather = new Weather();
-            weather.setDescription("Leicht bewölkt");
-            item.setWeather(new Weather[]{weather});
-
-            Clouds clouds = new Clouds();
-            clouds.setAll(25);
-            item.setClouds(clouds);
-
-            item.setDt_txt(now.withHour(hour).format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-            
-            forecastList.add(item);
+            builder.add(now.withHour(hour).toEpochSecond(ZoneOffset.UTC), 20.0, 65, 25, "Leicht bewölkt");
         }
         
-        response.setList(forecastList);
-        return response;
+        return builder.build();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,29 @@
+package de.ortisoft.demo.tools;
+
+import de.ortisoft.demo.service.Gazetteer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Kommandozeilenwerkzeug: wandelt einen GeoNames-Export in die Binärdatei des {@link Gazetteer}.
+ * Läuft außerhalb der Anwendung und wird nicht mit ihr ausgeliefert.
+ *
+ * Aufruf: ./gradlew gazetteer -Pgeonames=DE.txt -Pgazetteer=gazetteer-de.bin
+ */
+public final class GazetteerConverter {
+
+    private GazetteerConverter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Aufruf: GazetteerConverter <geonames.tsv> <ausgabe.bin>");
+            System.exit(1);
+        }
+        List<Gazetteer.Place> places = Gazetteer.readGeoNames(Path.of(args[0]));
+        Gazetteer.write(places, Path.of(args[1]));
+        System.out.printf("%d Orte nach %s geschrieben%n", places.size(), args[1]);
+    }
+}
@@ -0,0 +1,57 @@
+package de.ortisoft.demo.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link SolarStepIntegrator} mit der Vector API: so viele Zeitschritte je Befehl, wie die CPU
+ * Doubles in ein Register bekommt. Liegt in einem eigenen Source Set und wird nur mit {@code -PvectorApi}
+ * übersetzt und ausgeliefert; der {@link SolarDayKernel} lädt die Klasse per Reflection, wenn sie da ist und
+ * das Modul {@code jdk.incubator.vector} geladen ist (JVM-Option {@code --add-modules jdk.incubator.vector}).
+ *
+ * Die Vektorschleife rechnet mit {@code fma}, die skalare nicht; die Ergebnisse weichen deshalb im Rahmen
+ * der Rundung voneinander ab (relativ etwa 1e-15), sind aber nicht bitgleich.
+ */
+final class VectorStepIntegrator implements SolarStepIntegrator {
+
+    VectorStepIntegrator() {
+    }
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    public void integrate(double[] day, double[] cosHourAngle, double[] sinHourAngle, double[] weight,
+                          double[] cosTilt, double[] northWeight, double[] eastWeight,
+                          double[] clearSky, double[] radiation) {
+        int steps = cosHourAngle.length;
+        int arrayCount = cosTilt.length;
+        DoubleVector sinLatSinDec = DoubleVector.broadcast(SPECIES, day[0]);
+        DoubleVector cosLatCosDec = DoubleVector.broadcast(SPECIES, day[1]);
+        DoubleVector sinDecCosLat = DoubleVector.broadcast(SPECIES, day[2]);
+        DoubleVector negCosDecSinLat = DoubleVector.broadcast(SPECIES, -day[3]);
+        double negCosDec = -day[4];
+
+        int bound = SPECIES.loopBound(steps);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector cosOmega = DoubleVector.fromArray(SPECIES, cosHourAngle, i);
+            DoubleVector sinHeight = cosOmega.fma(cosLatCosDec, sinLatSinDec);
+            VectorMask<Double> night = sinHeight.compare(VectorOperators.LE, 0.0);
+            DoubleVector north = cosOmega.fma(negCosDecSinLat, sinDecCosLat);
+            DoubleVector east = DoubleVector.fromArray(SPECIES, sinHourAngle, i).mul(negCosDec);
+            DoubleVector base = DoubleVector.fromArray(SPECIES, weight, i).mul(sinHeight);
+            sinHeight.blend(0.0, night).intoArray(clearSky, i);
+            for (int a = 0; a < arrayCount; a++) {
+                DoubleVector incidence = sinHeight.mul(cosTilt[a])
+                    .add(north.mul(northWeight[a]))
+                    .add(east.mul(eastWeight[a]))
+                    .max(0.0);
+                base.mul(incidence).blend(0.0, night).intoArray(radiation, a * steps + i);
+            }
+        }
+        SolarStepIntegrator.integrateScalar(i, steps, day, cosHourAngle, sinHourAngle, weight,
+            cosTilt, northWeight, eastWeight, clearSky, radiation);
+    }
+}
@@ -4,6 +4,7 @@
 mkdir -p /var/log/weather-app
 
 # Java-Optionen für Produktion
+# Nur bei einem Build mit -PvectorApi: "--add-modules jdk.incubator.vector" ergänzen (Vector API, Startwarnung)
 JAVA_OPTS="-Xms256m -Xmx512m -XX:+UseG1GC"
 
 # Umgebungsvariablen